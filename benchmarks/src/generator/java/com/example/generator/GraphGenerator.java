@@ -0,0 +1,533 @@
+package com.example.generator;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static javax.lang.model.element.Modifier.ABSTRACT;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates components with a configurable shape for measuring how the backends scale with the size
+ * of a graph.
+ *
+ * <p>Usage: {@code GraphGenerator <output dir> <name>:<key>=<value>,... ...}. See {@link Shape} for
+ * the supported keys and their defaults.
+ *
+ * <p>Bindings are arranged in {@code depth} layers where each binding depends on {@code fanOut}
+ * bindings of the next layer and on {@code hubs} shared bindings of the last layer. The layers are
+ * spread across the root component and {@code subcomponents} nested subcomponents such that
+ * dependencies always point towards the root.
+ */
+public final class GraphGenerator {
+  private static final String PACKAGE = "com.example.generated";
+  private static final ClassName GENERATED_GRAPH = ClassName.get("com.example", "GeneratedGraph");
+  private static final ClassName CONSUMER = ClassName.get("java.util.function", "Consumer");
+  private static final ClassName COMPONENT = ClassName.get("dagger", "Component");
+  private static final ClassName SUBCOMPONENT = ClassName.get("dagger", "Subcomponent");
+  private static final ClassName MODULE = ClassName.get("dagger", "Module");
+  private static final ClassName PROVIDES = ClassName.get("dagger", "Provides");
+  private static final ClassName INTO_SET = ClassName.get("dagger.multibindings", "IntoSet");
+  private static final ClassName INTO_MAP = ClassName.get("dagger.multibindings", "IntoMap");
+  private static final ClassName STRING_KEY = ClassName.get("dagger.multibindings", "StringKey");
+  private static final ClassName INJECT = ClassName.get("javax.inject", "Inject");
+  private static final ClassName SCOPE = ClassName.get("javax.inject", "Scope");
+  private static final ClassName SINGLETON = ClassName.get("javax.inject", "Singleton");
+
+  /** Bounds the size of generated modules and methods to stay clear of class file limits. */
+  private static final int CHUNK_SIZE = 500;
+
+  public static void main(String... args) throws IOException {
+    if (args.length < 1) {
+      throw new IllegalArgumentException("Usage: GraphGenerator <output dir> <shape>...");
+    }
+    File output = new File(args[0]);
+    List<String> names = new ArrayList<>();
+    for (int i = 1; i < args.length; i++) {
+      Shape shape = Shape.parse(args[i]);
+      new GraphGenerator(shape).write(output);
+      names.add(shape.name);
+    }
+    writeRegistry(output, names);
+  }
+
+  static final class Shape {
+    final String name;
+    /** Total number of bindings, excluding multibinding contributions. */
+    int bindings = 1000;
+    /** Number of layers. Bindings only depend on bindings in the next layer. */
+    int depth = 8;
+    /** Number of dependencies of each binding outside of the last layer. */
+    int fanOut = 3;
+    /**
+     * Number of last-layer bindings which are also a dependency of every other binding. These are
+     * always scoped, otherwise each provision would create one per dependent.
+     */
+    int hubs = 4;
+    /** Percentage of bindings declared with {@code @Provides} rather than {@code @Inject}. */
+    int providesPercent = 50;
+    /** Percentage of bindings which are scoped to their component. */
+    int scopedPercent = 50;
+    /** Number of contributions to a {@code Set<Object>} multibinding. */
+    int setSize = 50;
+    /** Number of contributions to a {@code Map<String, Object>} multibinding. */
+    int mapSize = 50;
+    /** Number of nested subcomponents below the root component. */
+    int subcomponents = 2;
+
+    int seed = 0;
+
+    private Shape(String name) {
+      this.name = name;
+    }
+
+    static Shape parse(String spec) {
+      int colon = spec.indexOf(':');
+      Shape shape = new Shape(colon == -1 ? spec : spec.substring(0, colon));
+      if (colon == -1 || colon == spec.length() - 1) {
+        return shape;
+      }
+      for (String pair : spec.substring(colon + 1).split(",")) {
+        int equals = pair.indexOf('=');
+        if (equals == -1) {
+          throw new IllegalArgumentException("Expected key=value but was " + pair);
+        }
+        String key = pair.substring(0, equals).trim();
+        int value = Integer.parseInt(pair.substring(equals + 1).trim());
+        switch (key) {
+          case "bindings":
+            shape.bindings = value;
+            break;
+          case "depth":
+            shape.depth = value;
+            break;
+          case "fanOut":
+            shape.fanOut = value;
+            break;
+          case "hubs":
+            shape.hubs = value;
+            break;
+          case "providesPercent":
+            shape.providesPercent = value;
+            break;
+          case "scopedPercent":
+            shape.scopedPercent = value;
+            break;
+          case "setSize":
+            shape.setSize = value;
+            break;
+          case "mapSize":
+            shape.mapSize = value;
+            break;
+          case "subcomponents":
+            shape.subcomponents = value;
+            break;
+          case "seed":
+            shape.seed = value;
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown shape key " + key);
+        }
+      }
+      if (shape.bindings < shape.depth || shape.depth < 1) {
+        throw new IllegalArgumentException(
+            shape.name + " must have at least one binding per layer");
+      }
+      return shape;
+    }
+  }
+
+  private static final class Node {
+    final int index;
+    final int level;
+    final ClassName type;
+    final Set<Node> dependencies = new LinkedHashSet<>();
+    boolean provides;
+    boolean scoped;
+    boolean entryPoint = true;
+
+    Node(int index, int level, ClassName type) {
+      this.index = index;
+      this.level = level;
+      this.type = type;
+    }
+
+    String methodName() {
+      return "b" + index;
+    }
+  }
+
+  private final Shape shape;
+  private final String packageName;
+  private final ClassName component;
+  private final List<Node> nodes = new ArrayList<>();
+  private final List<Node> setElements = new ArrayList<>();
+  private final List<Node> mapEntries = new ArrayList<>();
+
+  private GraphGenerator(Shape shape) {
+    this.shape = shape;
+    this.packageName = PACKAGE + '.' + shape.name.toLowerCase(Locale.ROOT);
+    this.component = ClassName.get(packageName, shape.name + "Component");
+
+    Random random = new Random(shape.seed);
+    int levels = shape.subcomponents + 1;
+    for (int i = 0; i < shape.bindings; i++) {
+      // Later bindings are dependencies of earlier ones so they live closer to the root.
+      int level = (int) ((long) (shape.bindings - 1 - i) * levels / shape.bindings);
+      Node node = new Node(i, level, ClassName.get(packageName, "B" + i));
+      node.provides = random.nextInt(100) < shape.providesPercent;
+      node.scoped = random.nextInt(100) < shape.scopedPercent;
+      nodes.add(node);
+    }
+
+    int hubStart = shape.bindings - Math.min(shape.hubs, layerSize(shape.depth - 1));
+    for (int hub = hubStart; hub < shape.bindings; hub++) {
+      nodes.get(hub).scoped = true;
+    }
+    for (Node node : nodes) {
+      int layer = layerOf(node.index);
+      if (layer == shape.depth - 1) {
+        continue;
+      }
+      int nextStart = layerStart(layer + 1);
+      int nextSize = layerSize(layer + 1);
+      for (int i = 0; i < Math.min(shape.fanOut, nextSize); ) {
+        if (node.dependencies.add(nodes.get(nextStart + random.nextInt(nextSize)))) {
+          i++;
+        }
+      }
+      for (int hub = hubStart; hub < shape.bindings; hub++) {
+        node.dependencies.add(nodes.get(hub));
+      }
+      for (Node dependency : node.dependencies) {
+        dependency.entryPoint = false;
+      }
+    }
+
+    // Contributions depend on bindings from the root component.
+    int rootStart = 0;
+    while (nodes.get(rootStart).level != 0) {
+      rootStart++;
+    }
+    for (int i = 0; i < shape.setSize; i++) {
+      setElements.add(nodes.get(rootStart + random.nextInt(shape.bindings - rootStart)));
+    }
+    for (int i = 0; i < shape.mapSize; i++) {
+      mapEntries.add(nodes.get(rootStart + random.nextInt(shape.bindings - rootStart)));
+    }
+  }
+
+  private int layerOf(int index) {
+    return (int) ((long) index * shape.depth / shape.bindings);
+  }
+
+  private int layerStart(int layer) {
+    return (int) (((long) layer * shape.bindings + shape.depth - 1) / shape.depth);
+  }
+
+  private int layerSize(int layer) {
+    int end = layer + 1 == shape.depth ? shape.bindings : layerStart(layer + 1);
+    return end - layerStart(layer);
+  }
+
+  private ClassName levelType(int level) {
+    return level == 0 ? component : component.nestedClass("Level" + level);
+  }
+
+  private ClassName scopeAnnotation(int level) {
+    return level == 0 ? SINGLETON : ClassName.get(packageName, "Level" + level + "Scope");
+  }
+
+  private void write(File output) throws IOException {
+    for (Node node : nodes) {
+      writeNode(output, node);
+    }
+    for (int level = 1; level <= shape.subcomponents; level++) {
+      TypeSpec scope =
+          TypeSpec.annotationBuilder("Level" + level + "Scope")
+              .addModifiers(PUBLIC)
+              .addAnnotation(SCOPE)
+              .addAnnotation(
+                  AnnotationSpec.builder(Retention.class)
+                      .addMember("value", "$T.$L", RetentionPolicy.class, RUNTIME)
+                      .build())
+              .build();
+      JavaFile.builder(packageName, scope).build().writeTo(output);
+    }
+
+    List<List<ClassName>> modules = new ArrayList<>();
+    for (int level = 0; level <= shape.subcomponents; level++) {
+      modules.add(writeModules(output, level));
+    }
+
+    TypeSpec.Builder root = levelBuilder(0, modules.get(0)).addModifiers(PUBLIC);
+    if (!setElements.isEmpty()) {
+      root.addMethod(
+          MethodSpec.methodBuilder("set")
+              .addModifiers(PUBLIC, ABSTRACT)
+              .returns(ParameterizedTypeName.get(Set.class, Object.class))
+              .build());
+    }
+    if (!mapEntries.isEmpty()) {
+      root.addMethod(
+          MethodSpec.methodBuilder("map")
+              .addModifiers(PUBLIC, ABSTRACT)
+              .returns(ParameterizedTypeName.get(Map.class, String.class, Object.class))
+              .build());
+    }
+    for (int level = 1; level <= shape.subcomponents; level++) {
+      root.addType(levelBuilder(level, modules.get(level)).addModifiers(PUBLIC, STATIC).build());
+    }
+    JavaFile.builder(packageName, root.build()).build().writeTo(output);
+
+    writeGraph(output);
+  }
+
+  private void writeNode(File output, Node node) throws IOException {
+    MethodSpec.Builder constructor = MethodSpec.constructorBuilder().addModifiers(PUBLIC);
+    for (Node dependency : node.dependencies) {
+      constructor.addParameter(dependency.type, dependency.methodName());
+    }
+    TypeSpec.Builder type = TypeSpec.classBuilder(node.type).addModifiers(PUBLIC, FINAL);
+    if (!node.provides) {
+      constructor.addAnnotation(INJECT);
+      if (node.scoped) {
+        type.addAnnotation(scopeAnnotation(node.level));
+      }
+    }
+    type.addMethod(constructor.build());
+    JavaFile.builder(packageName, type.build()).build().writeTo(output);
+  }
+
+  private List<ClassName> writeModules(File output, int level) throws IOException {
+    List<MethodSpec> methods = new ArrayList<>();
+    for (Node node : nodes) {
+      if (node.level != level || !node.provides) continue;
+      MethodSpec.Builder method =
+          MethodSpec.methodBuilder(node.methodName())
+              .addAnnotation(PROVIDES)
+              .addModifiers(STATIC)
+              .returns(node.type);
+      if (node.scoped) {
+        method.addAnnotation(scopeAnnotation(level));
+      }
+      CodeBlock.Builder arguments = CodeBlock.builder();
+      for (Node dependency : node.dependencies) {
+        method.addParameter(dependency.type, dependency.methodName());
+        if (!arguments.isEmpty()) arguments.add(", ");
+        arguments.add("$N", dependency.methodName());
+      }
+      methods.add(method.addStatement("return new $T($L)", node.type, arguments.build()).build());
+    }
+    if (level == 0) {
+      for (int i = 0; i < setElements.size(); i++) {
+        Node element = setElements.get(i);
+        methods.add(
+            MethodSpec.methodBuilder("setElement" + i)
+                .addAnnotation(PROVIDES)
+                .addAnnotation(INTO_SET)
+                .addModifiers(STATIC)
+                .returns(Object.class)
+                .addParameter(element.type, "value")
+                .addStatement("return value")
+                .build());
+      }
+      for (int i = 0; i < mapEntries.size(); i++) {
+        Node entry = mapEntries.get(i);
+        methods.add(
+            MethodSpec.methodBuilder("mapEntry" + i)
+                .addAnnotation(PROVIDES)
+                .addAnnotation(INTO_MAP)
+                .addAnnotation(
+                    AnnotationSpec.builder(STRING_KEY).addMember("value", "$S", "" + i).build())
+                .addModifiers(STATIC)
+                .returns(Object.class)
+                .addParameter(entry.type, "value")
+                .addStatement("return value")
+                .build());
+      }
+    }
+
+    List<ClassName> modules = new ArrayList<>();
+    for (int start = 0; start < methods.size(); start += CHUNK_SIZE) {
+      ClassName name = ClassName.get(packageName, "Level" + level + "Module" + modules.size());
+      TypeSpec module =
+          TypeSpec.classBuilder(name)
+              .addAnnotation(MODULE)
+              .addModifiers(PUBLIC, ABSTRACT)
+              .addMethods(methods.subList(start, Math.min(methods.size(), start + CHUNK_SIZE)))
+              .build();
+      JavaFile.builder(packageName, module).build().writeTo(output);
+      modules.add(name);
+    }
+    return modules;
+  }
+
+  private TypeSpec.Builder levelBuilder(int level, List<ClassName> modules) {
+    CodeBlock.Builder moduleList = CodeBlock.builder().add("{");
+    for (int i = 0; i < modules.size(); i++) {
+      moduleList.add(i == 0 ? "$T.class" : ", $T.class", modules.get(i));
+    }
+    TypeSpec.Builder type =
+        TypeSpec.interfaceBuilder(levelType(level))
+            .addAnnotation(scopeAnnotation(level))
+            .addAnnotation(
+                AnnotationSpec.builder(level == 0 ? COMPONENT : SUBCOMPONENT)
+                    .addMember("modules", moduleList.add("}").build())
+                    .build());
+    for (Node node : nodes) {
+      if (node.level == level && node.entryPoint) {
+        type.addMethod(
+            MethodSpec.methodBuilder(node.methodName())
+                .addModifiers(PUBLIC, ABSTRACT)
+                .returns(node.type)
+                .build());
+      }
+    }
+    if (level < shape.subcomponents) {
+      type.addMethod(
+          MethodSpec.methodBuilder("level" + (level + 1))
+              .addModifiers(PUBLIC, ABSTRACT)
+              .returns(levelType(level + 1))
+              .build());
+    }
+    return type;
+  }
+
+  private void writeGraph(File output) throws IOException {
+    TypeName consumer = ParameterizedTypeName.get(CONSUMER, TypeName.OBJECT);
+    MethodSpec.Builder provideAll =
+        MethodSpec.methodBuilder("provideAll")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .addParameter(Object.class, "component")
+            .addParameter(consumer, "consumer")
+            .addStatement("$T level0 = ($T) component", component, component);
+    List<MethodSpec> chunks = new ArrayList<>();
+    for (int level = 0; level <= shape.subcomponents; level++) {
+      ClassName levelType = levelType(level);
+      if (level > 0) {
+        provideAll.addStatement(
+            "$T level$L = level$L.level$L()", levelType, level, level - 1, level);
+      }
+      List<Node> entryPoints = new ArrayList<>();
+      for (Node node : nodes) {
+        if (node.level == level && node.entryPoint) entryPoints.add(node);
+      }
+      for (int start = 0; start < entryPoints.size(); start += CHUNK_SIZE) {
+        MethodSpec.Builder chunk =
+            MethodSpec.methodBuilder("provideLevel" + level + "Chunk" + start / CHUNK_SIZE)
+                .addModifiers(PRIVATE, STATIC)
+                .addParameter(levelType, "level")
+                .addParameter(consumer, "consumer");
+        for (Node node :
+            entryPoints.subList(start, Math.min(entryPoints.size(), start + CHUNK_SIZE))) {
+          chunk.addStatement("consumer.accept(level.$N())", node.methodName());
+        }
+        MethodSpec method = chunk.build();
+        chunks.add(method);
+        provideAll.addStatement("$N(level$L, consumer)", method, level);
+      }
+    }
+    if (!setElements.isEmpty()) {
+      provideAll.addStatement("consumer.accept(level0.set())");
+    }
+    if (!mapEntries.isEmpty()) {
+      provideAll.addStatement("consumer.accept(level0.map())");
+    }
+
+    // Root bindings with the lowest index are the furthest from the last layer.
+    CodeBlock first = null;
+    for (Node node : nodes) {
+      if (node.level == 0 && node.entryPoint) {
+        first = CodeBlock.of("(($T) component).$N()", component, node.methodName());
+        break;
+      }
+    }
+    if (first == null) {
+      // Nothing in the first layer can be a dependency so this is always an entry point.
+      CodeBlock.Builder chain = CodeBlock.builder().add("(($T) component)", component);
+      for (int level = 1; level <= nodes.get(0).level; level++) {
+        chain.add(".level$L()", level);
+      }
+      first = chain.add(".$N()", nodes.get(0).methodName()).build();
+    }
+    MethodSpec provideFirst =
+        MethodSpec.methodBuilder("provideFirst")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .returns(Object.class)
+            .addParameter(Object.class, "component")
+            .addStatement("return $L", first)
+            .build();
+
+    TypeSpec graph =
+        TypeSpec.classBuilder(shape.name)
+            .addJavadoc(
+                "$L bindings in $L layers across $L components.\n",
+                shape.bindings,
+                shape.depth,
+                shape.subcomponents + 1)
+            .addModifiers(PUBLIC, FINAL)
+            .addSuperinterface(GENERATED_GRAPH)
+            .addMethod(
+                MethodSpec.methodBuilder("componentClass")
+                    .addAnnotation(Override.class)
+                    .addModifiers(PUBLIC)
+                    .returns(ParameterizedTypeName.get(ClassName.get(Class.class), component))
+                    .addStatement("return $T.class", component)
+                    .build())
+            .addMethod(provideAll.build())
+            .addMethod(provideFirst)
+            .addMethods(chunks)
+            .build();
+    JavaFile.builder(packageName, graph).build().writeTo(output);
+  }
+
+  private static void writeRegistry(File output, List<String> names) throws IOException {
+    MethodSpec.Builder get =
+        MethodSpec.methodBuilder("get")
+            .addModifiers(PUBLIC, STATIC)
+            .returns(GENERATED_GRAPH)
+            .addParameter(String.class, "name")
+            .beginControlFlow("switch (name)");
+    for (String name : names) {
+      get.addStatement(
+          "case $S: return new $T()",
+          name,
+          ClassName.get(PACKAGE + '.' + name.toLowerCase(Locale.ROOT), name));
+    }
+    get.addStatement(
+            "default: throw new $T($S + name)",
+            IllegalArgumentException.class,
+            "No generated graph named ")
+        .endControlFlow();
+    TypeSpec registry =
+        TypeSpec.classBuilder("GeneratedGraphs")
+            .addModifiers(PUBLIC, FINAL)
+            .addMethod(get.build())
+            .addMethod(MethodSpec.constructorBuilder().addModifiers(PRIVATE).build())
+            .build();
+    JavaFile.builder(PACKAGE, registry).build().writeTo(output);
+  }
+}
@@ -0,0 +1,64 @@
+package com.example;
+
+import com.example.generated.GeneratedGraphs;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The time to the first successful provision in a new JVM, which includes loading classes and
+ * running in the interpreter. Each fork measures exactly one invocation.
+ *
+ * <p>These are excluded from the {@code jmh} task whose options would override the single shot
+ * mode. Run with {@code ./gradlew :benchmarks:coldStart}, which adds {@link ColdStartProfiler} to
+ * count the classes each fork loads. Run {@code ./gradlew :benchmarks:coldStartPhases} to also
+ * break down the time of the reflect backend. That run enables its statistics tracer, which slows
+ * down each link and provision, so its times should not be compared with the codegen backend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(20)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class ColdStartBenchmark {
+  @Param public Backend backend;
+
+  @Benchmark
+  public Object smallCreate() {
+    return backend.create(Scoped.class).value();
+  }
+
+  @Benchmark
+  public Object smallBuilder() {
+    return backend.builder(BuilderImplicitModules.Builder.class).value(1L).build().string();
+  }
+
+  @Benchmark
+  public Object smallFactory() {
+    return backend.factory(FactoryImplicitModules.Factory.class).create(1L).string();
+  }
+
+  @Benchmark
+  public Object mediumCreate() {
+    return createAndProvideFirst("Graph1k");
+  }
+
+  @Benchmark
+  public Object hugeCreate() {
+    return createAndProvideFirst("Graph20k");
+  }
+
+  private Object createAndProvideFirst(String name) {
+    GeneratedGraph graph = GeneratedGraphs.get(name);
+    return graph.provideFirst(backend.create(graph.componentClass()));
+  }
+}
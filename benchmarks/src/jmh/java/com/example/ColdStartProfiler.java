@@ -0,0 +1,60 @@
+package com.example;
+
+import dagger.reflect.DaggerReflect;
+import dagger.reflect.PhaseTimes;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * Breaks down a {@link ColdStartBenchmark} iteration into the classes it loaded and, when running
+ * with {@code -Ddagger.reflect.stats=true}, the {@link PhaseTimes} of the reflect backend. The
+ * statistics tracer slows down every link and provision, so phases are only measured by the
+ * separate {@code coldStartPhases} task. Class loading time itself is not exposed portably so the
+ * count is used as a proxy.
+ */
+public final class ColdStartProfiler implements InternalProfiler {
+  private final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+  private long loadedBefore;
+
+  @Override
+  public String getDescription() {
+    return "Classes loaded and time spent in each phase of the reflect backend";
+  }
+
+  @Override
+  public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+    loadedBefore = classLoading.getTotalLoadedClassCount();
+  }
+
+  @Override
+  public Collection<ScalarResult> afterIteration(
+      BenchmarkParams benchmarkParams, IterationParams iterationParams, IterationResult result) {
+    List<ScalarResult> results = new ArrayList<>();
+    long loaded = classLoading.getTotalLoadedClassCount() - loadedBefore;
+    results.add(new ScalarResult("classesLoaded", loaded, "#", AggregationPolicy.AVG));
+    if (Backend.REFLECT.name().equals(benchmarkParams.getParam("backend"))
+        && Boolean.getBoolean("dagger.reflect.stats")) {
+      PhaseTimes phases = DaggerReflect.phaseTimes();
+      results.add(micros("component", phases.componentNanos()));
+      results.add(micros("module", phases.moduleNanos()));
+      results.add(micros("justInTimeLookup", phases.justInTimeLookupNanos()));
+      results.add(micros("link", phases.linkNanos()));
+    }
+    return results;
+  }
+
+  private static ScalarResult micros(String phase, long nanos) {
+    double micros = nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    return new ScalarResult(phase + "Micros", micros, "us", AggregationPolicy.AVG);
+  }
+}
@@ -0,0 +1,131 @@
+package com.example;
+
+import dagger.Lazy;
+import dagger.reflect.DaggerReflect;
+import java.util.Map;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Many threads racing to initialize the same bindings. In each group one thread continuously
+ * publishes a fresh component, or {@code Lazy}, which the remaining threads use as soon as they see
+ * it. Every publication therefore exercises the first-access paths: populating the component's
+ * method handlers, linking, just-in-time lookups, and scoped instance initialization.
+ *
+ * <p>The reader thread count defaults to 7 and can be varied from 1 to 64 with, for example, {@code
+ * -Pjmh.threadGroups=1,63}. The {@code discardedLinks} counter reports how many links were thrown
+ * away because another thread won the race.
+ */
+@State(Scope.Group)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ContentionBenchmark {
+  @Param public Backend backend;
+
+  private volatile Scoped scoped;
+  private volatile JustInTimeScoped justInTime;
+  private volatile MultibindingMapProvider providerMap;
+  private LazyUnscopedBinding lazyComponent;
+  private volatile Lazy<String> lazy;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    scoped = backend.create(Scoped.class);
+    justInTime = backend.create(JustInTimeScoped.class);
+    providerMap = backend.create(MultibindingMapProvider.class);
+    lazyComponent = backend.create(LazyUnscopedBinding.class);
+    lazy = lazyComponent.value();
+  }
+
+  /** Totals which are only meaningful for the reflect backend. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Discarded {
+    public long discardedLinks;
+
+    void record(Backend backend, Object component) {
+      if (backend == Backend.REFLECT) {
+        discardedLinks += DaggerReflect.graph(component).discardedLinks();
+      }
+    }
+  }
+
+  @Benchmark
+  @Group("scoped")
+  @GroupThreads(1)
+  public void scopedPublish(Discarded discarded) {
+    Scoped previous = scoped;
+    scoped = backend.create(Scoped.class);
+    discarded.record(backend, previous);
+  }
+
+  /** {@code LinkedScopedBinding} initialization and component method handler population. */
+  @Benchmark
+  @Group("scoped")
+  @GroupThreads(7)
+  public Object scopedRead() {
+    return scoped.value();
+  }
+
+  @Benchmark
+  @Group("justInTime")
+  @GroupThreads(1)
+  public void justInTimePublish(Discarded discarded) {
+    JustInTimeScoped previous = justInTime;
+    justInTime = backend.create(JustInTimeScoped.class);
+    discarded.record(backend, previous);
+  }
+
+  /** Just-in-time lookup and insertion of a scoped binding. */
+  @Benchmark
+  @Group("justInTime")
+  @GroupThreads(7)
+  public Object justInTimeRead() {
+    return justInTime.thing();
+  }
+
+  @Benchmark
+  @Group("providerMap")
+  @GroupThreads(1)
+  public void providerMapPublish(Discarded discarded) {
+    MultibindingMapProvider previous = providerMap;
+    providerMap = backend.create(MultibindingMapProvider.class);
+    discarded.record(backend, previous);
+  }
+
+  /** Linking the binding behind each {@code Provider} value of a map multibinding. */
+  @Benchmark
+  @Group("providerMap")
+  @GroupThreads(7)
+  public Object providerMapRead() {
+    Map<String, Provider<String>> values = providerMap.values();
+    return values.get("1").get();
+  }
+
+  @Benchmark
+  @Group("lazy")
+  @GroupThreads(1)
+  public void lazyPublish() {
+    lazy = lazyComponent.value();
+  }
+
+  /** Initializing a shared {@code Lazy}. */
+  @Benchmark
+  @Group("lazy")
+  @GroupThreads(7)
+  public Object lazyRead() {
+    return lazy.get();
+  }
+}
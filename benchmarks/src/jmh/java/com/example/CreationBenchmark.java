@@ -0,0 +1,41 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Creating components and subcomponents, excluding any provisions. */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CreationBenchmark {
+  @Param public Backend backend;
+
+  private SubcomponentProvision parent;
+
+  @Setup
+  public void setUp() {
+    parent = backend.create(SubcomponentProvision.class);
+  }
+
+  @Benchmark
+  public Object component() {
+    return backend.create(Scoped.class);
+  }
+
+  @Benchmark
+  public Object componentWithModules() {
+    return backend.create(SubcomponentProvision.class);
+  }
+
+  @Benchmark
+  public Object subcomponent() {
+    return parent.nested();
+  }
+}
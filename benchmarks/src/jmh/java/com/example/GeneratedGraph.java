@@ -0,0 +1,14 @@
+package com.example;
+
+import java.util.function.Consumer;
+
+/** A component generated at build time by {@code GraphGenerator}. */
+public interface GeneratedGraph {
+  Class<?> componentClass();
+
+  /** Call every provision method of {@code component} and of its subcomponents. */
+  void provideAll(Object component, Consumer<Object> consumer);
+
+  /** Call a single provision method of {@code component} which has transitive dependencies. */
+  Object provideFirst(Object component);
+}
@@ -0,0 +1,56 @@
+package com.example;
+
+import com.example.generated.GeneratedGraphs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Creating and linking generated graphs of increasing size. The graph names must match those
+ * configured in this module's build file.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LargeGraphBenchmark {
+  @Param public Backend backend;
+
+  @Param({"Graph1k", "Graph5k", "Graph20k"})
+  public String graph;
+
+  private GeneratedGraph generated;
+  private Object linked;
+
+  @Setup
+  public void setUp() {
+    generated = GeneratedGraphs.get(graph);
+    linked = backend.create(generated.componentClass());
+    generated.provideAll(linked, value -> {});
+  }
+
+  /** Parsing the modules of the root component. */
+  @Benchmark
+  public Object create() {
+    return backend.create(generated.componentClass());
+  }
+
+  /** Parsing, linking, and provisioning every binding once on a new component. */
+  @Benchmark
+  public void createAndProvideAll(Blackhole blackhole) {
+    Object component = backend.create(generated.componentClass());
+    generated.provideAll(component, blackhole::consume);
+  }
+
+  /** Provisioning every binding of a component which is already linked. */
+  @Benchmark
+  public void provideAll(Blackhole blackhole) {
+    generated.provideAll(linked, blackhole::consume);
+  }
+}
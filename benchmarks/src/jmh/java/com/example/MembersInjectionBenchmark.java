@@ -0,0 +1,43 @@
+package com.example;
+
+import dagger.MembersInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Injecting fields and methods into existing instances. */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MembersInjectionBenchmark {
+  @Param public Backend backend;
+
+  private MembersInjector<MemberInjectorComponent.Target> injector;
+  private MemberInjectionHierarchy hierarchy;
+
+  @Setup
+  public void setUp() {
+    injector = backend.create(MemberInjectorComponent.class).targetInjector();
+    hierarchy = backend.create(MemberInjectionHierarchy.class);
+  }
+
+  @Benchmark
+  public Object membersInjector() {
+    MemberInjectorComponent.Target target = new MemberInjectorComponent.Target();
+    injector.injectMembers(target);
+    return target;
+  }
+
+  @Benchmark
+  public Object componentMethodHierarchy() {
+    MemberInjectionHierarchy.Subtype target = new MemberInjectionHierarchy.Subtype();
+    hierarchy.inject(target);
+    return target;
+  }
+}
@@ -0,0 +1,52 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Requesting set and map multibindings which are assembled on every request. */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MultibindingBenchmark {
+  @Param public Backend backend;
+
+  private MultibindingSet set;
+  private MultibindingSetElements setElements;
+  private MultibindingMap map;
+  private MultibindingMapProvider mapOfProviders;
+
+  @Setup
+  public void setUp() {
+    set = backend.create(MultibindingSet.class);
+    setElements = backend.create(MultibindingSetElements.class);
+    map = backend.create(MultibindingMap.class);
+    mapOfProviders = backend.create(MultibindingMapProvider.class);
+  }
+
+  @Benchmark
+  public Object set() {
+    return set.values();
+  }
+
+  @Benchmark
+  public Object setElements() {
+    return setElements.values();
+  }
+
+  @Benchmark
+  public Object map() {
+    return map.values();
+  }
+
+  @Benchmark
+  public Object mapOfProviders() {
+    return mapOfProviders.values();
+  }
+}
@@ -0,0 +1,76 @@
+package com.example;
+
+import dagger.Lazy;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Calling provision methods on an already-created component whose bindings are linked. */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProvisionBenchmark {
+  @Param public Backend backend;
+
+  private Scoped scoped;
+  private JustInTimeDependsOnJustInTime unscoped;
+  private BindsProvider binds;
+  private ProviderUnscopedBinding providerComponent;
+  private Provider<String> provider;
+  private LazyScopedBinding lazyComponent;
+  private SubcomponentProvision.Nested subcomponent;
+
+  @Setup
+  public void setUp() {
+    scoped = backend.create(Scoped.class);
+    unscoped = backend.create(JustInTimeDependsOnJustInTime.class);
+    binds = backend.create(BindsProvider.class);
+    providerComponent = backend.create(ProviderUnscopedBinding.class);
+    provider = providerComponent.value();
+    lazyComponent = backend.create(LazyScopedBinding.class);
+    subcomponent = backend.create(SubcomponentProvision.class).nested();
+  }
+
+  @Benchmark
+  public Object scoped() {
+    return scoped.value();
+  }
+
+  @Benchmark
+  public Object unscoped() {
+    return unscoped.thing();
+  }
+
+  @Benchmark
+  public Object binds() {
+    return binds.number();
+  }
+
+  @Benchmark
+  public Object providerMethod() {
+    return providerComponent.value();
+  }
+
+  @Benchmark
+  public Object providerGet() {
+    return provider.get();
+  }
+
+  @Benchmark
+  public Object lazyGet() {
+    Lazy<String> lazy = lazyComponent.value();
+    return lazy.get();
+  }
+
+  @Benchmark
+  public Object subcomponentParentBinding() {
+    return subcomponent.one();
+  }
+}
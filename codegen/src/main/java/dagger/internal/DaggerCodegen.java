@@ -19,30 +19,50 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class DaggerCodegen {
+  private static final FactoryMethods CREATE = FactoryMethods.create("create", false);
+  private static final FactoryMethods BUILDER = FactoryMethods.create("builder", true);
+  private static final FactoryMethods FACTORY = FactoryMethods.create("factory", true);
+
   public static <C> C create(Class<C> componentClass) {
-    return invokeStatic(findImplementationClass(componentClass), "create", componentClass);
+    return invokeStatic(CREATE.get(componentClass), componentClass);
   }
 
   public static <B> B builder(Class<B> builderClass) {
-    Class<?> componentClass = builderClass.getEnclosingClass();
-    if (componentClass == null) {
-      throw new IllegalArgumentException(
-          builderClass.getCanonicalName()
-              + " is not a nested type inside of a component interface");
-    }
-    return invokeStatic(findImplementationClass(componentClass), "builder", builderClass);
+    return invokeStatic(BUILDER.get(builderClass), builderClass);
   }
 
   public static <F> F factory(Class<F> factoryClass) {
-    Class<?> componentClass = factoryClass.getEnclosingClass();
-    if (componentClass == null) {
-      throw new IllegalArgumentException(
-          factoryClass.getCanonicalName()
-              + " is not a nested type inside of a component interface");
+    return invokeStatic(FACTORY.get(factoryClass), factoryClass);
+  }
+
+  /**
+   * Find the static method {@code name} on the generated implementation of {@code type}, or of its
+   * enclosing component when {@code nested}.
+   */
+  private static Method findFactoryMethod(Class<?> type, String name, boolean nested) {
+    Class<?> componentClass = type;
+    if (nested) {
+      componentClass = type.getEnclosingClass();
+      if (componentClass == null) {
+        throw new IllegalArgumentException(
+            type.getCanonicalName() + " is not a nested type inside of a component interface");
+      }
     }
-    return invokeStatic(findImplementationClass(componentClass), "factory", factoryClass);
+    Class<?> target = findImplementationClass(componentClass);
+    Method method;
+    try {
+      method = target.getMethod(name);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException("Unable to find method '" + name + "' on " + target, e);
+    }
+    if (!method.isAccessible()) {
+      method.setAccessible(true);
+    }
+    return method;
   }
 
   private static <C> Class<? extends C> findImplementationClass(Class<C> componentClass) {
@@ -82,21 +102,13 @@ public final class DaggerCodegen {
     return daggerName.toString();
   }
 
-  private static <T> T invokeStatic(Class<?> target, String name, Class<T> returnType) {
-    Method method;
-    try {
-      method = target.getMethod(name);
-    } catch (NoSuchMethodException e) {
-      throw new IllegalStateException("Unable to find method '" + name + "' on " + target, e);
-    }
-    if (!method.isAccessible()) {
-      method.setAccessible(true);
-    }
+  private static <T> T invokeStatic(Method method, Class<T> returnType) {
     Object returnValue;
     try {
       returnValue = method.invoke(null);
     } catch (IllegalAccessException e) {
-      throw new IllegalStateException("Unable to invoke method '" + name + "' on " + target, e);
+      throw new IllegalStateException(
+          "Unable to invoke method '" + method.getName() + "' on " + method.getDeclaringClass(), e);
     } catch (InvocationTargetException e) {
       Throwable cause = e.getCause();
       if (cause instanceof RuntimeException) throw (RuntimeException) cause;
@@ -106,6 +118,74 @@ public final class DaggerCodegen {
     return returnType.cast(returnValue);
   }
 
+  /**
+   * The resolved factory methods for each type passed to one of the public methods. Lookups which
+   * fail are not cached so that they keep failing with the same exception.
+   */
+  private abstract static class FactoryMethods {
+    static FactoryMethods create(String name, boolean nested) {
+      try {
+        Class.forName("java.lang.ClassValue");
+        return new ClassValueFactoryMethods(name, nested);
+      } catch (ClassNotFoundException ignored) {
+        return new MapFactoryMethods(name, nested);
+      }
+    }
+
+    final String name;
+    final boolean nested;
+
+    FactoryMethods(String name, boolean nested) {
+      this.name = name;
+      this.nested = nested;
+    }
+
+    abstract Method get(Class<?> type);
+  }
+
+  /** Allows the types, and their class loader, to be unloaded along with their methods. */
+  private static final class ClassValueFactoryMethods extends FactoryMethods {
+    private final ClassValue<Method> methods =
+        new ClassValue<Method>() {
+          @Override
+          protected Method computeValue(Class<?> type) {
+            return findFactoryMethod(type, name, nested);
+          }
+        };
+
+    ClassValueFactoryMethods(String name, boolean nested) {
+      super(name, nested);
+    }
+
+    @Override
+    Method get(Class<?> type) {
+      return methods.get(type);
+    }
+  }
+
+  /**
+   * Used where {@link ClassValue} is unavailable, such as Android, which does not unload the
+   * classes of an application. A weak map would not help since each method strongly references the
+   * type through its implementation class.
+   */
+  private static final class MapFactoryMethods extends FactoryMethods {
+    private final Map<Class<?>, Method> methods = new ConcurrentHashMap<>();
+
+    MapFactoryMethods(String name, boolean nested) {
+      super(name, nested);
+    }
+
+    @Override
+    Method get(Class<?> type) {
+      Method method = methods.get(type);
+      if (method == null) {
+        method = findFactoryMethod(type, name, nested);
+        methods.put(type, method);
+      }
+      return method;
+    }
+  }
+
   private DaggerCodegen() {
     throw new AssertionError();
   }
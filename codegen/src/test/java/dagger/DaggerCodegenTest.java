@@ -27,6 +27,14 @@ public final class DaggerCodegenTest {
     assertThat(actual).isInstanceOf(JustComponent.class);
   }
 
+  @Test
+  public void createRepeatedly() {
+    JustComponent first = Dagger.create(JustComponent.class);
+    JustComponent second = Dagger.create(JustComponent.class);
+    assertThat(second).isInstanceOf(JustComponent.class);
+    assertThat(second).isNotSameInstanceAs(first);
+  }
+
   @Test
   public void createNoAnnotation() {
     try {
@@ -76,6 +84,21 @@ public final class DaggerCodegenTest {
     }
   }
 
+  @Test
+  public void builderNotNestedRepeatedly() {
+    for (int i = 0; i < 2; i++) {
+      try {
+        Dagger.builder(BuilderNotNested.class);
+        fail();
+      } catch (IllegalArgumentException e) {
+        assertThat(e)
+            .hasMessageThat()
+            .isEqualTo(
+                "dagger.BuilderNotNested is not a nested type inside of a component interface");
+      }
+    }
+  }
+
   @Test
   public void factory() {
     FactoryComponent.Factory actual = Dagger.factory(FactoryComponent.Factory.class);
@@ -0,0 +1,64 @@
+package com.example;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import dagger.reflect.DaggerReflect;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+/** Runs with the {@code dagger.reflect.jfr} system property set to {@code true}. */
+public final class JfrTest {
+  @Test
+  public void componentLinkAndProvisionEvents() throws Exception {
+    List<RecordedEvent> events = new ArrayList<>();
+    try (Recording recording = new Recording()) {
+      recording.enable("dagger.reflect.ComponentCreation");
+      recording.enable("dagger.reflect.Link");
+      recording.enable("dagger.reflect.Provision").withThreshold(Duration.ZERO);
+      recording.start();
+
+      ComponentProvider component = DaggerReflect.create(ComponentProvider.class);
+      assertThat(component.string()).isEqualTo("foo");
+
+      recording.stop();
+      Path file = Files.createTempFile("dagger-reflect", ".jfr");
+      try {
+        recording.dump(file);
+        events.addAll(RecordingFile.readAllEvents(file));
+      } finally {
+        Files.delete(file);
+      }
+    }
+
+    RecordedEvent component = only(events, "dagger.reflect.ComponentCreation");
+    assertThat(component.getString("component")).isEqualTo("com.example.ComponentProvider");
+    assertThat(component.getInt("moduleCount")).isEqualTo(1);
+
+    RecordedEvent link = only(events, "dagger.reflect.Link");
+    assertThat(link.getString("key")).isEqualTo("java.lang.String");
+    assertThat(link.getInt("depth")).isEqualTo(0);
+
+    RecordedEvent provision = only(events, "dagger.reflect.Provision");
+    assertThat(provision.getString("key")).isEqualTo("java.lang.String");
+    assertThat(provision.getString("binding"))
+        .startsWith("@Provides[com.example.ComponentProvider$Module1.string(");
+  }
+
+  private static RecordedEvent only(List<RecordedEvent> events, String name) {
+    List<RecordedEvent> matching = new ArrayList<>();
+    for (RecordedEvent event : events) {
+      if (event.getEventType().getName().equals(name)) {
+        matching.add(event);
+      }
+    }
+    assertThat(matching).hasSize(1);
+    return matching.get(0);
+  }
+}
@@ -0,0 +1,20 @@
+package com.example;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import dagger.reflect.DaggerReflect;
+import org.junit.Test;
+
+/**
+ * Runs with the {@code dagger.reflect.jfr} system property set to {@code true} on a JVM whose
+ * modules exclude {@code jdk.jfr}.
+ */
+public final class JfrUnavailableTest {
+  @Test
+  public void fallsBackWithoutFlightRecorder() {
+    assertThat(ModuleLayer.boot().findModule("jdk.jfr").isPresent()).isFalse();
+
+    ComponentProvider component = DaggerReflect.create(ComponentProvider.class);
+    assertThat(component.string()).isEqualTo("foo");
+  }
+}
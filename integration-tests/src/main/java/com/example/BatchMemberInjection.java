@@ -0,0 +1,51 @@
+package com.example;
+
+import dagger.Component;
+import dagger.MembersInjector;
+import dagger.Module;
+import dagger.Provides;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+@Singleton
+@Component(modules = BatchMemberInjection.Module1.class)
+public interface BatchMemberInjection {
+  MembersInjector<Target> targetInjector();
+
+  @Singleton
+  final class Shared {
+    @Inject
+    Shared() {}
+  }
+
+  final class Fresh {
+    @Inject
+    Fresh() {}
+  }
+
+  class Base {
+    @Inject Shared baseShared;
+    Fresh methodFresh;
+    boolean fieldsBeforeMethod;
+
+    @Inject
+    void base(Shared shared, Fresh fresh) {
+      methodFresh = fresh;
+      fieldsBeforeMethod = baseShared == shared;
+    }
+  }
+
+  final class Target extends Base {
+    @Inject Shared shared;
+    @Inject Fresh fresh;
+    @Inject int number;
+  }
+
+  @Module
+  abstract class Module1 {
+    @Provides
+    static int number() {
+      return 42;
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.example;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import java.lang.annotation.Retention;
+import javax.inject.Scope;
+import javax.inject.Singleton;
+
+@ComponentDependencyComponent.Downstream
+@Component(dependencies = ComponentDependencyComponent.Upstream.class)
+public interface ComponentDependencyComponent {
+  Object value();
+
+  String string();
+
+  @Component.Factory
+  interface Factory {
+    ComponentDependencyComponent create(Upstream upstream);
+  }
+
+  @Singleton
+  @Component(modules = UpstreamModule.class)
+  interface Upstream {
+    Object value();
+
+    String string();
+  }
+
+  @Module
+  abstract class UpstreamModule {
+    @Provides
+    @Singleton
+    static Object value() {
+      return new Object();
+    }
+
+    @Provides
+    static String string() {
+      return "upstream";
+    }
+  }
+
+  @Scope
+  @Retention(RUNTIME)
+  @interface Downstream {}
+}
@@ -0,0 +1,58 @@
+package com.example;
+
+import dagger.Component;
+import dagger.Subcomponent;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+@Singleton
+@Component
+public interface ForkedComponent {
+  Config config();
+
+  Session session();
+
+  Client client();
+
+  Handler handler();
+
+  Provider<Session> sessionProvider();
+
+  Request request();
+
+  @Subcomponent
+  interface Request {
+    Handler handler();
+  }
+
+  @Singleton
+  final class Config {
+    @Inject
+    Config() {}
+  }
+
+  @Singleton
+  final class Session {
+    @Inject
+    Session() {}
+  }
+
+  final class Client {
+    final Config config;
+
+    @Inject
+    Client(Config config) {
+      this.config = config;
+    }
+  }
+
+  final class Handler {
+    final Session session;
+
+    @Inject
+    Handler(Session session) {
+      this.session = session;
+    }
+  }
+}
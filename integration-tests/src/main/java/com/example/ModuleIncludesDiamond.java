@@ -0,0 +1,40 @@
+package com.example;
+
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import dagger.multibindings.IntoSet;
+import java.util.Set;
+
+@Component(
+    modules = {ModuleIncludesDiamond.LeftModule.class, ModuleIncludesDiamond.RightModule.class})
+public interface ModuleIncludesDiamond {
+  Set<String> strings();
+
+  @Module(includes = CoreModule.class)
+  abstract class LeftModule {
+    @Provides
+    @IntoSet
+    static String left() {
+      return "left";
+    }
+  }
+
+  @Module(includes = CoreModule.class)
+  abstract class RightModule {
+    @Provides
+    @IntoSet
+    static String right() {
+      return "right";
+    }
+  }
+
+  @Module
+  abstract class CoreModule {
+    @Provides
+    @IntoSet
+    static String core() {
+      return "core";
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.example;
+
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import dagger.multibindings.IntoMap;
+import dagger.multibindings.StringKey;
+import java.util.Map;
+import javax.inject.Singleton;
+
+@Singleton
+@Component(modules = MultibindingMapScoped.Module1.class)
+interface MultibindingMapScoped {
+  Map<String, Object> values();
+
+  @Module
+  abstract class Module1 {
+    @Provides
+    @IntoMap
+    @StringKey("1")
+    @Singleton
+    static Object one() {
+      return new Object();
+    }
+
+    @Provides
+    @IntoMap
+    @StringKey("2")
+    @Singleton
+    static Object two() {
+      return new Object();
+    }
+  }
+}
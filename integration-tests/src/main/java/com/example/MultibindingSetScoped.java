@@ -0,0 +1,31 @@
+package com.example;
+
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import dagger.multibindings.IntoSet;
+import java.util.Set;
+import javax.inject.Singleton;
+
+@Singleton
+@Component(modules = MultibindingSetScoped.Module1.class)
+interface MultibindingSetScoped {
+  Set<Object> values();
+
+  @Module
+  abstract class Module1 {
+    @Provides
+    @IntoSet
+    @Singleton
+    static Object one() {
+      return new Object();
+    }
+
+    @Provides
+    @IntoSet
+    @Singleton
+    static Object two() {
+      return new Object();
+    }
+  }
+}
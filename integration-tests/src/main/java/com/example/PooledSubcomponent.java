@@ -0,0 +1,58 @@
+package com.example;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import dagger.Subcomponent;
+import dagger.multibindings.IntoSet;
+import java.lang.annotation.Retention;
+import java.util.Set;
+import javax.inject.Inject;
+import javax.inject.Scope;
+import javax.inject.Singleton;
+
+@Singleton
+@Component
+public interface PooledSubcomponent {
+  Request request();
+
+  Shared shared();
+
+  @RequestScope
+  @Subcomponent(modules = RequestModule.class)
+  interface Request {
+    Thing thing();
+
+    Shared shared();
+
+    Set<Object> values();
+  }
+
+  @Module
+  abstract class RequestModule {
+    @Provides
+    @IntoSet
+    @RequestScope
+    static Object value() {
+      return new Object();
+    }
+  }
+
+  @RequestScope
+  final class Thing {
+    @Inject
+    Thing() {}
+  }
+
+  @Singleton
+  final class Shared {
+    @Inject
+    Shared() {}
+  }
+
+  @Scope
+  @Retention(RUNTIME)
+  @interface RequestScope {}
+}
@@ -0,0 +1,54 @@
+package com.example;
+
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import javax.inject.Inject;
+
+@Component(modules = PrimitiveProvides.Module1.class)
+public interface PrimitiveProvides {
+  int count();
+
+  long total();
+
+  Target target();
+
+  Sum sum();
+
+  final class Target {
+    @Inject int count;
+    @Inject long total;
+
+    @Inject
+    Target() {}
+  }
+
+  final class Sum {
+    final long value;
+
+    @Inject
+    Sum(int count, long total) {
+      value = count + total;
+    }
+  }
+
+  @Module
+  abstract class Module1 {
+    /** The stack of the latest call to each method, to tell how its value was requested. */
+    static StackTraceElement[] countStack = new StackTraceElement[0];
+
+    static StackTraceElement[] totalStack = new StackTraceElement[0];
+
+    @Provides
+    static int count() {
+      countStack = new Throwable().getStackTrace();
+      return 42;
+    }
+
+    @Provides
+    static long total() {
+      totalStack = new Throwable().getStackTrace();
+      return 1L << 40;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.example;
+
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+@Singleton
+@Component(modules = ProfileWarmUp.Module1.class)
+public interface ProfileWarmUp {
+  Thing thing();
+
+  @Singleton
+  final class Thing {
+    static int created;
+
+    final String name;
+
+    @Inject
+    Thing(String name) {
+      created++;
+      this.name = name;
+    }
+  }
+
+  /** Only linked, never provisioned. */
+  final class Other {
+    @Inject
+    Other() {}
+  }
+
+  @Module
+  abstract class Module1 {
+    static int provided;
+
+    @Provides
+    static String name() {
+      provided++;
+      return "thing";
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.example;
+
+import dagger.Component;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+@Singleton
+@Component
+public interface ProfileWarmUpRace {
+  Thing thing();
+
+  @Singleton
+  final class Thing {
+    static final AtomicInteger created = new AtomicInteger();
+
+    @Inject
+    Thing(First first, Second second) {
+      created.incrementAndGet();
+    }
+  }
+
+  final class First {
+    @Inject
+    First(Second second) {}
+  }
+
+  final class Second {
+    @Inject
+    Second() {}
+  }
+}
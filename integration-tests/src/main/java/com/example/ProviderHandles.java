@@ -0,0 +1,37 @@
+package com.example;
+
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+@Singleton
+@Component(modules = ProviderHandles.Module1.class)
+public interface ProviderHandles {
+  @Named("greeting")
+  String greeting();
+
+  @Module
+  abstract class Module1 {
+    @Provides
+    @Named("greeting")
+    static String greeting() {
+      return "hello";
+    }
+
+    @Provides
+    static Long count(Service service) {
+      return ++service.count;
+    }
+  }
+
+  @Singleton
+  final class Service {
+    long count;
+
+    @Inject
+    Service() {}
+  }
+}
@@ -0,0 +1,29 @@
+package com.example;
+
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+@Singleton
+@Component(modules = ScopingAdvice.Module1.class)
+public interface ScopingAdvice {
+  Stateless stateless();
+
+  Object once();
+
+  final class Stateless {
+    @Inject
+    Stateless() {}
+  }
+
+  @Module
+  abstract class Module1 {
+    @Provides
+    @Singleton
+    static Object once() {
+      return new Object();
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.example;
+
+import dagger.Component;
+import dagger.Subcomponent;
+
+@Component
+public interface SubcomponentLeak {
+  Child child();
+
+  @Subcomponent
+  interface Child {}
+}
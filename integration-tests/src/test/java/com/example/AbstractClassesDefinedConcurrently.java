@@ -0,0 +1,11 @@
+package com.example;
+
+import dagger.Component;
+
+@Component
+public abstract class AbstractClassesDefinedConcurrently {
+  @Component.Builder
+  abstract static class Builder {
+    abstract AbstractClassesDefinedConcurrently build();
+  }
+}
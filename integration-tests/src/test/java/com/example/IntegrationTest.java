@@ -1,13 +1,36 @@
 package com.example;
 
 import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
 
 import dagger.Lazy;
 import dagger.MembersInjector;
+import dagger.reflect.BatchMembersInjector;
+import dagger.reflect.BindingKey;
+import dagger.reflect.DaggerReflect;
+import dagger.reflect.PhaseTimes;
+import dagger.reflect.ScopeMemory;
+import dagger.reflect.SubcomponentPool;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Provider;
 import org.junit.Rule;
 import org.junit.Test;
@@ -590,6 +613,17 @@ public final class IntegrationTest {
     assertThat(component.string()).isEqualTo("hey");
   }
 
+  @Test
+  public void componentDependencyComponent() {
+    ComponentDependencyComponent.Upstream upstream =
+        backend.create(ComponentDependencyComponent.Upstream.class);
+    ComponentDependencyComponent component =
+        backend.factory(ComponentDependencyComponent.Factory.class).create(upstream);
+
+    assertThat(component.string()).isEqualTo("upstream");
+    assertThat(component.value()).isSameInstanceAs(upstream.value());
+  }
+
   @Test
   public void factoryDependencyNullThrowsNpe() {
     FactoryDependency.Factory factory = backend.factory(FactoryDependency.Factory.class);
@@ -842,6 +876,39 @@ public final class IntegrationTest {
     assertThat(component.values()).containsExactly("one", "two");
   }
 
+  @Test
+  public void multibindingSetUnmodifiable() {
+    MultibindingSet component = backend.create(MultibindingSet.class);
+    try {
+      component.values().add("three");
+      fail();
+    } catch (UnsupportedOperationException ignored) {
+    }
+  }
+
+  @Test
+  public void multibindingSetScoped() {
+    MultibindingSetScoped component = backend.create(MultibindingSetScoped.class);
+    Set<Object> values1 = component.values();
+    Set<Object> values2 = component.values();
+    assertThat(values1).hasSize(2);
+    assertThat(values2).containsExactlyElementsIn(values1).inOrder();
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void multibindingSetScopedIsCached() {
+    MultibindingSetScoped component = backend.create(MultibindingSetScoped.class);
+    assertThat(component.values()).isSameInstanceAs(component.values());
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void multibindingSetUnscopedIsNotCached() {
+    MultibindingSet component = backend.create(MultibindingSet.class);
+    assertThat(component.values()).isNotSameInstanceAs(component.values());
+  }
+
   @Test
   public void multibindingSetEmpty() {
     MultibindingSetEmpty component = backend.create(MultibindingSetEmpty.class);
@@ -886,6 +953,32 @@ public final class IntegrationTest {
     assertThat(component.values()).containsExactly("1", "one", "2", "two");
   }
 
+  @Test
+  public void multibindingMapUnmodifiable() {
+    MultibindingMap component = backend.create(MultibindingMap.class);
+    try {
+      component.values().put("3", "three");
+      fail();
+    } catch (UnsupportedOperationException ignored) {
+    }
+  }
+
+  @Test
+  public void multibindingMapScoped() {
+    MultibindingMapScoped component = backend.create(MultibindingMapScoped.class);
+    Map<String, Object> values1 = component.values();
+    Map<String, Object> values2 = component.values();
+    assertThat(values1).hasSize(2);
+    assertThat(values2).containsExactlyEntriesIn(values1).inOrder();
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void multibindingMapScopedIsCached() {
+    MultibindingMapScoped component = backend.create(MultibindingMapScoped.class);
+    assertThat(component.values()).isSameInstanceAs(component.values());
+  }
+
   @Test
   public void multibindingMapEmpty() {
     MultibindingMapEmpty component = backend.create(MultibindingMapEmpty.class);
@@ -1055,6 +1148,12 @@ public final class IntegrationTest {
     assertThat(component.string()).isEqualTo("5");
   }
 
+  @Test
+  public void moduleIncludesDiamond() {
+    ModuleIncludesDiamond component = backend.create(ModuleIncludesDiamond.class);
+    assertThat(component.strings()).containsExactly("left", "right", "core");
+  }
+
   @Test
   public void moduleSubcomponentBindsBuilder() {
     ModuleSubcomponentBindsBuilder component = backend.create(ModuleSubcomponentBindsBuilder.class);
@@ -1139,6 +1238,111 @@ public final class IntegrationTest {
     assertThat(component.getChar()).isEqualTo('\u221E');
   }
 
+  @Test
+  public void primitiveProvides() {
+    PrimitiveProvides component = backend.create(PrimitiveProvides.class);
+    assertThat(component.count()).isEqualTo(42);
+    assertThat(component.total()).isEqualTo(1L << 40);
+
+    PrimitiveProvides.Target target = component.target();
+    assertThat(target.count).isEqualTo(42);
+    assertThat(target.total).isEqualTo(1L << 40);
+
+    assertThat(component.sum().value).isEqualTo(42 + (1L << 40));
+  }
+
+  @Test
+  public void primitiveProvidesWithReflectCompiler() {
+    assumeTrue(Boolean.getBoolean("integrationTests.reflectCompiler"));
+    assumeTrue(Boolean.getBoolean("dagger.reflect.hybrid"));
+    PrimitiveProvides component = backend.create(PrimitiveProvides.class);
+    assertThat(component.getClass().getName())
+        .isEqualTo("com.example.PrimitiveProvides_ReflectComponent");
+
+    assertThat(component.count()).isEqualTo(42);
+    assertThat(callers(PrimitiveProvides.Module1.countStack))
+        .containsAtLeast(
+            "com.example.PrimitiveProvides_Module1_CountDirectFactory.createInt",
+            "dagger.reflect.LinkedIntProvidesBinding.getInt",
+            "dagger.reflect.ComponentSlots.getInt",
+            "com.example.PrimitiveProvides_ReflectComponent.count")
+        .inOrder();
+    assertThat(component.total()).isEqualTo(1L << 40);
+    assertThat(callers(PrimitiveProvides.Module1.totalStack))
+        .containsAtLeast(
+            "com.example.PrimitiveProvides_Module1_TotalDirectFactory.createLong",
+            "dagger.reflect.LinkedLongProvidesBinding.getLong",
+            "dagger.reflect.ComponentSlots.getLong",
+            "com.example.PrimitiveProvides_ReflectComponent.total")
+        .inOrder();
+
+    PrimitiveProvides.Target target = component.target();
+    assertThat(target.count).isEqualTo(42);
+    assertThat(callers(PrimitiveProvides.Module1.countStack))
+        .containsAtLeast(
+            "dagger.reflect.LinkedIntProvidesBinding.getInt",
+            "dagger.reflect.ReflectiveMembersInjector$ClassInjector.injectMembers")
+        .inOrder();
+    assertThat(target.total).isEqualTo(1L << 40);
+    assertThat(callers(PrimitiveProvides.Module1.totalStack))
+        .containsAtLeast(
+            "dagger.reflect.LinkedLongProvidesBinding.getLong",
+            "dagger.reflect.ReflectiveMembersInjector$ClassInjector.injectMembers")
+        .inOrder();
+
+    assertThat(component.sum().value).isEqualTo(42 + (1L << 40));
+    assertThat(callers(PrimitiveProvides.Module1.countStack))
+        .containsAtLeast(
+            "dagger.reflect.LinkedIntProvidesBinding.getInt",
+            "dagger.reflect.DirectFactory$Primitives.getInt",
+            "com.example.PrimitiveProvides_Sum_DirectFactory.create")
+        .inOrder();
+    assertThat(callers(PrimitiveProvides.Module1.totalStack))
+        .containsAtLeast(
+            "dagger.reflect.LinkedLongProvidesBinding.getLong",
+            "dagger.reflect.DirectFactory$Primitives.getLong",
+            "com.example.PrimitiveProvides_Sum_DirectFactory.create")
+        .inOrder();
+  }
+
+  @Test
+  public void primitiveProvidesStayUnboxedWithStatistics() {
+    assumeTrue(Boolean.getBoolean("integrationTests.reflectCompiler"));
+    assumeTrue(Boolean.getBoolean("dagger.reflect.hybrid"));
+    assumeTrue(Boolean.getBoolean("dagger.reflect.stats"));
+    PrimitiveProvides component = backend.create(PrimitiveProvides.class);
+
+    assertThat(component.count()).isEqualTo(42);
+    assertThat(callers(PrimitiveProvides.Module1.countStack))
+        .containsAtLeast(
+            "dagger.reflect.LinkedIntProvidesBinding.getInt",
+            "dagger.reflect.StatisticsTracer$MeasuredBinding.getInt",
+            "dagger.reflect.ComponentSlots.getInt")
+        .inOrder();
+    assertThat(component.target().total).isEqualTo(1L << 40);
+    assertThat(callers(PrimitiveProvides.Module1.totalStack))
+        .containsAtLeast(
+            "dagger.reflect.LinkedLongProvidesBinding.getLong",
+            "dagger.reflect.StatisticsTracer$MeasuredBinding.getLong",
+            "dagger.reflect.ReflectiveMembersInjector$ClassInjector.injectMembers")
+        .inOrder();
+    assertThat(component.sum().value).isEqualTo(42 + (1L << 40));
+    assertThat(callers(PrimitiveProvides.Module1.countStack))
+        .containsAtLeast(
+            "dagger.reflect.StatisticsTracer$MeasuredBinding.getInt",
+            "dagger.reflect.DirectFactory$Primitives.getInt",
+            "com.example.PrimitiveProvides_Sum_DirectFactory.create")
+        .inOrder();
+  }
+
+  private static List<String> callers(StackTraceElement[] stack) {
+    List<String> callers = new ArrayList<>();
+    for (StackTraceElement element : stack) {
+      callers.add(element.getClassName() + '.' + element.getMethodName());
+    }
+    return callers;
+  }
+
   @Test
   @IgnoreCodegen
   public void providerCycle() {
@@ -1327,6 +1531,7 @@ public final class IntegrationTest {
 
   @Test
   @IgnoreCodegen
+  @ProxyOnly
   public void abstractClassCreateFails() {
     try {
       backend.create(AbstractComponent.class);
@@ -1342,6 +1547,7 @@ public final class IntegrationTest {
 
   @Test
   @IgnoreCodegen
+  @ProxyOnly
   public void abstractClassBuilderFails() {
     AbstractComponent.Builder builder = backend.builder(AbstractComponent.Builder.class);
     try {
@@ -1356,6 +1562,57 @@ public final class IntegrationTest {
     }
   }
 
+  @Test
+  @IgnoreCodegen
+  public void abstractClassWithRuntimeClasses() {
+    assumeTrue(Boolean.getBoolean("dagger.reflect.runtimeClasses"));
+    AbstractComponent component = backend.builder(AbstractComponent.Builder.class).build();
+    assertThat(component).isNotNull();
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void packagePrivateComponentWithRuntimeClasses() {
+    assumeTrue(Boolean.getBoolean("dagger.reflect.runtimeClasses"));
+    PackagePrivateComponent component =
+        backend.builder(PackagePrivateComponent.Builder.class).build();
+    assertThat(component).isNotNull();
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void abstractBuilderClassWithRuntimeClasses() {
+    assumeTrue(Boolean.getBoolean("dagger.reflect.runtimeClasses"));
+    AbstractBuilderClass.Builder builder = backend.builder(AbstractBuilderClass.Builder.class);
+    assertThat(builder).isNotNull();
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void abstractClassesDefinedConcurrentlyWithRuntimeClasses() throws Exception {
+    assumeTrue(Boolean.getBoolean("dagger.reflect.runtimeClasses"));
+    int threads = 8;
+    CyclicBarrier barrier = new CyclicBarrier(threads);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<AbstractClassesDefinedConcurrently>> components = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        components.add(
+            executor.submit(
+                () -> {
+                  barrier.await();
+                  return backend.builder(AbstractClassesDefinedConcurrently.Builder.class).build();
+                }));
+      }
+      Class<?> implementation = components.get(0).get().getClass();
+      for (Future<AbstractClassesDefinedConcurrently> component : components) {
+        assertThat(component.get().getClass()).isSameInstanceAs(implementation);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   @Test
   @IgnoreCodegen
   public void noComponentAnnotationCreateFails() {
@@ -1384,6 +1641,7 @@ public final class IntegrationTest {
 
   @Test
   @IgnoreCodegen
+  @ProxyOnly
   public void packagePrivateComponentFails() {
     try {
       backend.builder(PackagePrivateComponent.Builder.class);
@@ -1399,6 +1657,7 @@ public final class IntegrationTest {
 
   @Test
   @IgnoreCodegen
+  @ProxyOnly
   public void abstractBuilderClassFails() {
     try {
       backend.builder(AbstractBuilderClass.Builder.class);
@@ -1643,4 +1902,493 @@ public final class IntegrationTest {
               "Cannot inject members into types with unbounded type arguments: dagger.MembersInjector<com.example.MemberInjectorWildcardType$Target<? extends java.lang.String>>");
     }
   }
+
+  @Test
+  @IgnoreCodegen
+  public void subcomponentPoolRecyclesScopedInstances() {
+    PooledSubcomponent parent = backend.create(PooledSubcomponent.class);
+    List<Object> discarded = new ArrayList<>();
+    SubcomponentPool<PooledSubcomponent.Request> pool =
+        DaggerReflect.pool(parent, PooledSubcomponent.Request.class, 1, discarded::add);
+
+    PooledSubcomponent.Request first = pool.acquire();
+    PooledSubcomponent.Thing thing = first.thing();
+    Set<Object> values = first.values();
+    assertThat(first.thing()).isSameInstanceAs(thing);
+    assertThat(first.values()).isSameInstanceAs(values);
+    assertThat(first.shared()).isSameInstanceAs(parent.shared());
+    pool.release(first);
+    assertThat(discarded).containsExactly(thing, values.iterator().next());
+
+    PooledSubcomponent.Request second = pool.acquire();
+    assertThat(second).isSameInstanceAs(first);
+    assertThat(second.thing()).isNotSameInstanceAs(thing);
+    assertThat(second.values()).isNotEqualTo(values);
+    assertThat(second.shared()).isSameInstanceAs(parent.shared());
+
+    assertThat(pool.acquire()).isNotSameInstanceAs(second);
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void subcomponentPoolRejectsDoubleRelease() {
+    PooledSubcomponent parent = backend.create(PooledSubcomponent.class);
+    SubcomponentPool<PooledSubcomponent.Request> pool =
+        DaggerReflect.pool(parent, PooledSubcomponent.Request.class, 1);
+    PooledSubcomponent.Request request = pool.acquire();
+    pool.release(request);
+    try {
+      pool.release(request);
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessageThat().endsWith(" was already released");
+    }
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void subcomponentPoolRejectsForeignInstances() {
+    PooledSubcomponent parent = backend.create(PooledSubcomponent.class);
+    SubcomponentPool<PooledSubcomponent.Request> pool =
+        DaggerReflect.pool(parent, PooledSubcomponent.Request.class, 1);
+    try {
+      pool.release(parent.request());
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e)
+          .hasMessageThat()
+          .endsWith(" was not acquired from this pool of com.example.PooledSubcomponent$Request");
+    }
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void forkSharesCreatedScopedInstances() {
+    ForkedComponent component = backend.create(ForkedComponent.class);
+    ForkedComponent.Config config = component.config();
+    ForkedComponent.Client client = component.client();
+
+    ForkedComponent fork = DaggerReflect.fork(component);
+    assertThat(fork).isNotSameInstanceAs(component);
+    assertThat(fork.config()).isSameInstanceAs(config);
+    assertThat(fork.client()).isNotSameInstanceAs(client);
+    assertThat(fork.client().config).isSameInstanceAs(config);
+
+    ForkedComponent.Session session = fork.session();
+    assertThat(component.session()).isNotSameInstanceAs(session);
+    assertThat(fork.session()).isSameInstanceAs(session);
+    assertThat(fork.handler().session).isSameInstanceAs(session);
+    assertThat(fork.sessionProvider().get()).isSameInstanceAs(session);
+    assertThat(fork.request().handler().session).isSameInstanceAs(session);
+    assertThat(component.handler().session).isSameInstanceAs(component.session());
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void forkOfForkSharesCreatedScopedInstances() {
+    ForkedComponent component = backend.create(ForkedComponent.class);
+    ForkedComponent fork = DaggerReflect.fork(component);
+    ForkedComponent.Session session = fork.session();
+
+    ForkedComponent forkOfFork = DaggerReflect.fork(fork);
+    assertThat(forkOfFork.session()).isSameInstanceAs(session);
+    assertThat(component.session()).isNotSameInstanceAs(session);
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void forkKeepsInstancesBoundWhenCreated() {
+    BuilderBindsInstance.Builder builder = backend.builder(BuilderBindsInstance.Builder.class);
+    BuilderBindsInstance component = builder.string("foo").build();
+    builder.string("bar").build();
+
+    BuilderBindsInstance fork = DaggerReflect.fork(component);
+    assertThat(fork.string()).isEqualTo("foo");
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void forkRejectsSubcomponents() {
+    ForkedComponent component = backend.create(ForkedComponent.class);
+    try {
+      DaggerReflect.fork(component.request());
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e)
+          .hasMessageThat()
+          .isEqualTo(
+              "com.example.ForkedComponent$Request is a subcomponent. "
+                  + "Only components can be forked.");
+    }
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void providerHandlesCallTheirBinding() throws NoSuchMethodException {
+    ProviderHandles component = backend.create(ProviderHandles.class);
+    Provider<ProviderHandles.Service> service =
+        DaggerReflect.provider(component, ProviderHandles.Service.class);
+    assertThat(service.get()).isSameInstanceAs(service.get());
+
+    Named named = ProviderHandles.class.getMethod("greeting").getAnnotation(Named.class);
+    assertThat(DaggerReflect.provider(component, named, String.class).get()).isEqualTo("hello");
+
+    List<Provider<?>> providers =
+        DaggerReflect.providers(
+            component,
+            BindingKey.of(long.class),
+            BindingKey.of(named, String.class),
+            BindingKey.of(ProviderHandles.Service.class));
+    assertThat(providers.get(0).get()).isEqualTo(1L);
+    assertThat(providers.get(0).get()).isEqualTo(2L);
+    assertThat(providers.get(1).get()).isEqualTo("hello");
+    assertThat(providers.get(2).get()).isSameInstanceAs(service.get());
+    // Handles only expose the binding's get(), not the binding itself.
+    assertThat(providers.get(2).getClass()).isSameInstanceAs(service.getClass());
+    assertThat(service.getClass().getName())
+        .isEqualTo("dagger.reflect.DaggerReflect$LinkedProvider");
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void bindingKeyRequiresQualifier() throws NoSuchMethodException {
+    Inject inject =
+        ProviderHandles.Service.class.getDeclaredConstructor().getAnnotation(Inject.class);
+    try {
+      BindingKey.of(inject, String.class);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessageThat().isEqualTo(inject + " is not a @Qualifier annotation");
+    }
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void providerHandleRequiresBinding() {
+    ProviderHandles component = backend.create(ProviderHandles.class);
+    try {
+      DaggerReflect.provider(component, Runnable.class);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessageThat().isEqualTo("No provider available for java.lang.Runnable");
+    }
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void batchMembersInjection() {
+    BatchMemberInjection component = backend.create(BatchMemberInjection.class);
+    BatchMembersInjector<BatchMemberInjection.Target> injector =
+        DaggerReflect.membersInjector(component, BatchMemberInjection.Target.class);
+    BatchMemberInjection.Target[] targets = {
+      new BatchMemberInjection.Target(),
+      new BatchMemberInjection.Target(),
+      new BatchMemberInjection.Target()
+    };
+    injector.injectAll(targets);
+
+    BatchMemberInjection.Shared shared = targets[0].shared;
+    assertThat(shared).isNotNull();
+    Set<BatchMemberInjection.Fresh> fresh = new LinkedHashSet<>();
+    for (BatchMemberInjection.Target target : targets) {
+      assertThat(target.shared).isSameInstanceAs(shared);
+      assertThat(target.baseShared).isSameInstanceAs(shared);
+      assertThat(target.fieldsBeforeMethod).isTrue();
+      assertThat(target.number).isEqualTo(42);
+      fresh.add(target.fresh);
+      fresh.add(target.methodFresh);
+    }
+    assertThat(fresh).hasSize(6);
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void batchMembersInjectionFromProvidedInjector() {
+    MembersInjector<BatchMemberInjection.Target> injector =
+        backend.create(BatchMemberInjection.class).targetInjector();
+    List<BatchMemberInjection.Target> targets =
+        Arrays.asList(new BatchMemberInjection.Target(), new BatchMemberInjection.Target());
+    ((BatchMembersInjector<BatchMemberInjection.Target>) injector).injectAll(targets);
+    assertThat(targets.get(0).shared).isSameInstanceAs(targets.get(1).shared);
+    assertThat(targets.get(0).fresh).isNotSameInstanceAs(targets.get(1).fresh);
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void graphJson() {
+    BindsProvider component = backend.create(BindsProvider.class);
+    assertThat(component.number()).isEqualTo(42);
+
+    String json = DaggerReflect.graph(component).toJson();
+    assertThat(json).contains("\"component\": \"com.example.BindsProvider\"");
+    assertThat(json).contains("\"java.lang.Integer\"");
+    assertThat(json).contains("\"java.lang.Number\"");
+    assertThat(json).contains("\"kind\": \"@Provides[com.example.BindsProvider$Module1.integer(");
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void graphDotIncludesParentScopes() {
+    JustInTimeScopedInParent.ChildComponent child =
+        backend.create(JustInTimeScopedInParent.class).child();
+    assertThat(child.thing()).isNotNull();
+
+    String dot = DaggerReflect.graph(child).toDot();
+    assertThat(dot).startsWith("digraph \"com.example.JustInTimeScopedInParent$ChildComponent\"");
+    assertThat(dot).contains("subgraph cluster_0");
+    assertThat(dot).contains("subgraph cluster_1");
+    assertThat(dot).contains("peripheries=2");
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void graphScopingReport() {
+    assumeTrue(Boolean.getBoolean("dagger.reflect.stats"));
+    ScopingAdvice component = backend.create(ScopingAdvice.class);
+    for (int i = 0; i < 3; i++) {
+      assertThat(component.stateless()).isNotNull();
+    }
+    assertThat(component.once()).isNotNull();
+
+    String report = DaggerReflect.graph(component).toScopingReport();
+    assertThat(report).contains("  com.example.ScopingAdvice$Stateless\n    3 provisions, ");
+    assertThat(report).contains("instances are immutable, consider @Reusable");
+    assertThat(report)
+        .contains(
+            "  java.lang.Object\n    requested once in com.example.ScopingAdvice, the scope only retains its instance");
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void graphScopingReportWithoutStatistics() {
+    assumeFalse(Boolean.getBoolean("dagger.reflect.stats"));
+    ScopingAdvice component = backend.create(ScopingAdvice.class);
+    assertThat(component.stateless()).isNotNull();
+
+    assertThat(DaggerReflect.graph(component).toScopingReport())
+        .isEqualTo(
+            "No statistics were recorded. Set the dagger.reflect.stats system property to true.\n");
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void phaseTimes() {
+    assumeTrue(Boolean.getBoolean("dagger.reflect.stats"));
+    PhaseTimes before = DaggerReflect.phaseTimes();
+    ScopingAdvice component = backend.create(ScopingAdvice.class);
+    assertThat(component.stateless()).isNotNull();
+
+    PhaseTimes after = DaggerReflect.phaseTimes();
+    assertThat(after.componentNanos()).isGreaterThan(before.componentNanos());
+    assertThat(after.moduleNanos()).isAtLeast(before.moduleNanos());
+    assertThat(after.linkNanos()).isGreaterThan(before.linkNanos());
+    assertThat(after.justInTimeLookupNanos()).isAtLeast(before.justInTimeLookupNanos());
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void phaseTimesWithoutStatistics() {
+    assumeFalse(Boolean.getBoolean("dagger.reflect.stats"));
+    try {
+      DaggerReflect.phaseTimes();
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e)
+          .hasMessageThat()
+          .isEqualTo(
+              "No statistics were recorded. Set the dagger.reflect.stats system property to true.");
+    }
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void memoryCountsBindingsPerScope() {
+    JustInTimeScopedInParent.ChildComponent child =
+        backend.create(JustInTimeScopedInParent.class).child();
+    assertThat(child.thing()).isNotNull();
+
+    List<ScopeMemory> memory = DaggerReflect.memory(child);
+    assertThat(memory).hasSize(2);
+    ScopeMemory parent = memory.get(0);
+    assertThat(parent.componentClass()).isEqualTo(JustInTimeScopedInParent.class);
+    assertThat(parent.declaredBindings()).isEqualTo(1);
+    assertThat(parent.justInTimeBindings()).isEqualTo(1);
+    assertThat(parent.linkedBindings()).isEqualTo(2);
+    assertThat(parent.componentMethodHandlers()).isEqualTo(1);
+    assertThat(parent.scopedInstanceBytes()).isGreaterThan(0L);
+    ScopeMemory childMemory = memory.get(1);
+    assertThat(childMemory.componentClass())
+        .isEqualTo(JustInTimeScopedInParent.ChildComponent.class);
+    assertThat(childMemory.justInTimeBindings()).isEqualTo(0);
+    assertThat(childMemory.componentMethodHandlers()).isEqualTo(1);
+    assertThat(childMemory.scopedInstanceBytes()).isEqualTo(0L);
+    assertThat(childMemory.retainedBytes()).isGreaterThan(0L);
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void leakReportFlagsGrowingSubcomponents() {
+    assumeTrue(Boolean.getBoolean("dagger.reflect.leaks"));
+    SubcomponentLeak parent = backend.create(SubcomponentLeak.class);
+    List<SubcomponentLeak.Child> children = new ArrayList<>();
+    String report = "";
+    for (int i = 0; i < 3; i++) {
+      children.add(parent.child());
+      report = DaggerReflect.leakReport();
+    }
+    assertThat(children).hasSize(3);
+    assertThat(report)
+        .contains(
+            "com.example.SubcomponentLeak$Child: 3 live of 3 created, history [1, 2, 3], GROWING\n"
+                + "  1 sampled live instances created at\n");
+    assertThat(report)
+        .contains("at com.example.IntegrationTest.leakReportFlagsGrowingSubcomponents(");
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void leakReportWithoutTracking() {
+    assumeFalse(Boolean.getBoolean("dagger.reflect.leaks"));
+    assertThat(DaggerReflect.leakReport())
+        .isEqualTo(
+            "Subcomponents are not tracked. Set the dagger.reflect.leaks system property to true.\n");
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void profileRecordsLinkedAndProvisionedKeys() throws IOException {
+    String profile = System.getProperty("dagger.reflect.profile");
+    assumeTrue(profile != null);
+    assumeFalse(Boolean.getBoolean("integrationTests.profileReplay"));
+    ProfileWarmUp component = backend.create(ProfileWarmUp.class);
+    assertThat(component.thing().name).isEqualTo("thing");
+    DaggerReflect.provider(component, ProfileWarmUp.Other.class);
+
+    DaggerReflect.writeProfile();
+    assertThat(Files.readAllLines(Paths.get(profile), UTF_8).get(0))
+        .isEqualTo("# dagger-reflect profile 1");
+    String thread = Thread.currentThread().getName();
+    assertThat(profileLines(profile))
+        .containsExactly(
+            "com.example.ProfileWarmUp\tP\t" + thread + "\tjava.lang.String",
+            "com.example.ProfileWarmUp\tP\t" + thread + "\tcom.example.ProfileWarmUp$Thing",
+            "com.example.ProfileWarmUp\tL\t" + thread + "\tcom.example.ProfileWarmUp$Other")
+        .inOrder();
+  }
+
+  /** Replays the profile written by {@link #profileRecordsLinkedAndProvisionedKeys}. */
+  @Test
+  @IgnoreCodegen
+  public void profileWarmsUpTheNextRun() throws Exception {
+    String profile = System.getProperty("dagger.reflect.profile");
+    assumeTrue(profile != null);
+    assumeTrue(Boolean.getBoolean("integrationTests.profileReplay"));
+    assumeFalse(Boolean.getBoolean("dagger.reflect.profile.instantiate"));
+    ProfileWarmUp component = backend.create(ProfileWarmUp.class);
+    long deadline = System.nanoTime() + SECONDS.toNanos(10);
+    while (DaggerReflect.memory(component).get(0).linkedBindings() < 4) {
+      assertThat(System.nanoTime()).isLessThan(deadline);
+      Thread.sleep(10);
+    }
+    assertThat(ProfileWarmUp.Thing.created).isEqualTo(0);
+    assertThat(ProfileWarmUp.Module1.provided).isEqualTo(0);
+
+    // Keys which were only linked ahead of time keep the thread which used them before.
+    DaggerReflect.writeProfile();
+    String thread = Thread.currentThread().getName();
+    assertThat(profileLines(profile))
+        .containsExactly(
+            "com.example.ProfileWarmUp\tL\t" + thread + "\tjava.lang.String",
+            "com.example.ProfileWarmUp\tL\t" + thread + "\tcom.example.ProfileWarmUp$Thing",
+            "com.example.ProfileWarmUp\tL\t" + thread + "\tcom.example.ProfileWarmUp$Other")
+        .inOrder();
+
+    assertThat(component.thing().name).isEqualTo("thing");
+    assertThat(ProfileWarmUp.Thing.created).isEqualTo(1);
+    DaggerReflect.writeProfile();
+    assertThat(profileLines(profile))
+        .containsExactly(
+            "com.example.ProfileWarmUp\tP\t" + thread + "\tjava.lang.String",
+            "com.example.ProfileWarmUp\tP\t" + thread + "\tcom.example.ProfileWarmUp$Thing",
+            "com.example.ProfileWarmUp\tL\t" + thread + "\tcom.example.ProfileWarmUp$Other")
+        .inOrder();
+  }
+
+  /** Replays the profile with scoped keys instantiated before the component is returned. */
+  @Test
+  @IgnoreCodegen
+  public void profileInstantiatesScopedKeysOnCreate() throws Exception {
+    String profile = System.getProperty("dagger.reflect.profile");
+    assumeTrue(profile != null);
+    assumeTrue(Boolean.getBoolean("dagger.reflect.profile.instantiate"));
+    ProfileWarmUp component = backend.create(ProfileWarmUp.class);
+    assertThat(ProfileWarmUp.Thing.created).isEqualTo(1);
+    assertThat(ProfileWarmUp.Module1.provided).isEqualTo(1);
+
+    assertThat(component.thing().name).isEqualTo("thing");
+    assertThat(ProfileWarmUp.Thing.created).isEqualTo(1);
+    DaggerReflect.writeProfile();
+    String thread = Thread.currentThread().getName();
+    assertThat(profileLines(profile))
+        .containsExactly(
+            "com.example.ProfileWarmUp\tP\t" + thread + "\tjava.lang.String",
+            "com.example.ProfileWarmUp\tP\t" + thread + "\tcom.example.ProfileWarmUp$Thing",
+            "com.example.ProfileWarmUp\tL\t" + thread + "\tcom.example.ProfileWarmUp$Other")
+        .inOrder();
+  }
+
+  /**
+   * Without instantiation, the first requests may link the same keys as the background warm-up at
+   * the same time. They still share one binding and therefore one scoped instance.
+   */
+  @Test
+  @IgnoreCodegen
+  public void profileWarmUpRacesFirstRequests() throws Exception {
+    assumeTrue(System.getProperty("dagger.reflect.profile") != null);
+    ProfileWarmUpRace component = backend.create(ProfileWarmUpRace.class);
+    int threads = 8;
+    CyclicBarrier barrier = new CyclicBarrier(threads);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<ProfileWarmUpRace.Thing>> things = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        things.add(
+            executor.submit(
+                () -> {
+                  barrier.await();
+                  return component.thing();
+                }));
+      }
+      ProfileWarmUpRace.Thing thing = things.get(0).get();
+      for (Future<ProfileWarmUpRace.Thing> other : things) {
+        assertThat(other.get()).isSameInstanceAs(thing);
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(ProfileWarmUpRace.Thing.created.get()).isEqualTo(1);
+  }
+
+  private static List<String> profileLines(String profile) throws IOException {
+    List<String> lines = new ArrayList<>();
+    for (String line : Files.readAllLines(Paths.get(profile), UTF_8)) {
+      if (line.startsWith("com.example.ProfileWarmUp\t")) {
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+
+  @Test
+  @IgnoreCodegen
+  public void graphRejectsForeignInstances() {
+    try {
+      DaggerReflect.graph("foo");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e)
+          .hasMessageThat()
+          .isEqualTo("java.lang.String is not a component created by dagger-reflect");
+    }
+  }
 }
@@ -24,8 +24,20 @@ final class IntegrationTestRule implements TestRule {
       };
     }
 
+    boolean proxyOnly = description.getAnnotation(ProxyOnly.class) != null;
+    if (proxyOnly && Boolean.getBoolean("dagger.reflect.runtimeClasses")) {
+      return new Statement() {
+        @Override
+        public void evaluate() {
+          throw new AssumptionViolatedException("Ignored with runtime classes");
+        }
+      };
+    }
     ReflectBug reflectBug = description.getAnnotation(ReflectBug.class);
-    if (reflectBug != null && backend == Backend.REFLECT) {
+    // Components generated by reflect-compiler also call into the reflection backend.
+    boolean reflection =
+        backend == Backend.REFLECT || Boolean.getBoolean("integrationTests.reflectCompiler");
+    if (reflectBug != null && reflection) {
       return new Statement() {
         @Override
         public void evaluate() {
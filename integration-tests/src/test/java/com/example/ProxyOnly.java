@@ -0,0 +1,15 @@
+package com.example;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Asserts a limitation of components, builders, or factories backed by a {@code Proxy} which does
+ * not apply when they are defined at runtime with {@code dagger.reflect.runtimeClasses}.
+ */
+@Target(METHOD)
+@Retention(RUNTIME)
+@interface ProxyOnly {}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2018 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dagger.reflect.compiler;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import dagger.reflect.ComponentSlots;
+
+import static dagger.reflect.compiler.DaggerReflectUtils.isAccessible;
+import static dagger.reflect.compiler.DaggerReflectUtils.packageOf;
+import static javax.lang.model.element.Modifier.ABSTRACT;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PROTECTED;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * Creates a concrete implementation of a component or subcomponent. Each of its abstract methods
+ * is assigned a slot of {@link ComponentSlots} which the runtime resolves on first use, so calls
+ * are not dispatched through a {@link java.lang.reflect.Proxy}. Abstract classes are subclassed.
+ *
+ * <p>Nothing is created for components which the generated code could not implement, such as
+ * generic ones or those which name inaccessible types. These are still backed by a proxy.
+ */
+final class ComponentImplementations {
+  static @Nullable TypeSpec create(TypeElement component, Elements elements, Types types) {
+    PackageElement pkg = packageOf(component);
+    DeclaredType componentType = (DeclaredType) component.asType();
+    if (!component.getTypeParameters().isEmpty()
+        || !isAccessible(componentType, pkg)
+        || (component.getKind() == ElementKind.CLASS && !hasAccessibleConstructor(component))) {
+      return null;
+    }
+
+    // Abstract methods keyed by their erased signature so that those inherited more than once are
+    // implemented a single time.
+    Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+    for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(component))) {
+      if (!method.getModifiers().contains(ABSTRACT)) {
+        continue;
+      }
+      if (!canOverride(method, componentType, pkg, types)) {
+        return null;
+      }
+      methods.putIfAbsent(signature(method, types), method);
+    }
+    if (methods.containsKey("slots()")) {
+      return null; // Would conflict with the static method of the generated class.
+    }
+
+    ClassName componentName = ClassName.get(component);
+    TypeSpec.Builder type =
+        TypeSpec.classBuilder(String.join("_", componentName.simpleNames()) + "_ReflectComponent")
+            .addModifiers(PUBLIC, FINAL)
+            .addOriginatingElement(component)
+            .addField(ComponentSlots.class, "slots", PRIVATE, FINAL)
+            .addMethod(
+                MethodSpec.constructorBuilder()
+                    .addModifiers(PUBLIC)
+                    .addParameter(ComponentSlots.class, "slots")
+                    .addStatement("this.slots = slots")
+                    .build());
+    if (component.getKind() == ElementKind.INTERFACE) {
+      type.addSuperinterface(componentName);
+    } else {
+      type.superclass(componentName);
+    }
+
+    CodeBlock.Builder slots = CodeBlock.builder();
+    int slot = 0;
+    for (ExecutableElement method : methods.values()) {
+      slots.add(slot == 0 ? "\n" : ",\n");
+      slots.add("$T.class.getDeclaredMethod($S",
+          types.erasure(method.getEnclosingElement().asType()), method.getSimpleName());
+      for (VariableElement parameter : method.getParameters()) {
+        slots.add(", $T.class", TypeName.get(types.erasure(parameter.asType())));
+      }
+      slots.add(")");
+
+      type.addMethod(implement(method, componentType, types, slot++));
+    }
+    type.addMethod(
+        MethodSpec.methodBuilder("slots")
+            .addJavadoc("The component method in each slot, in order.\n")
+            .addModifiers(PUBLIC, STATIC)
+            .returns(Method[].class)
+            .addException(NoSuchMethodException.class)
+            .addCode("return new $T[] {$>", Method.class)
+            .addCode(slots.build())
+            .addCode("$<\n};\n")
+            .build());
+    return type.build();
+  }
+
+  private static MethodSpec implement(
+      ExecutableElement method, DeclaredType componentType, Types types, int slot) {
+    MethodSpec.Builder builder = MethodSpec.overriding(method, componentType, types);
+    MethodSpec overriding = builder.build();
+    List<String> arguments = new ArrayList<>();
+    for (ParameterSpec parameter : overriding.parameters) {
+      arguments.add(parameter.name);
+    }
+    if (arguments.isEmpty() && overriding.returnType.equals(TypeName.INT)) {
+      return builder.addStatement("return this.slots.getInt($L)", slot).build();
+    }
+    if (arguments.isEmpty() && overriding.returnType.equals(TypeName.LONG)) {
+      return builder.addStatement("return this.slots.getLong($L)", slot).build();
+    }
+    CodeBlock call =
+        arguments.isEmpty()
+            ? CodeBlock.of("this.slots.get($L)", slot)
+            : CodeBlock.of(
+                "this.slots.invoke($L, new Object[] {$L})", slot, String.join(", ", arguments));
+    if (overriding.returnType.equals(TypeName.VOID)) {
+      builder.addStatement("$L", call);
+    } else if (overriding.returnType.equals(TypeName.OBJECT)) {
+      builder.addStatement("return $L", call);
+    } else {
+      builder.addStatement("return ($T) $L", overriding.returnType, call);
+      if (overriding.returnType instanceof ParameterizedTypeName) {
+        builder.addAnnotation(
+            AnnotationSpec.builder(SuppressWarnings.class)
+                .addMember("value", "$S", "unchecked")
+                .build());
+      }
+    }
+    return builder.build();
+  }
+
+  private static boolean canOverride(
+      ExecutableElement method, DeclaredType componentType, PackageElement pkg, Types types) {
+    ExecutableType memberType = (ExecutableType) types.asMemberOf(componentType, method);
+    if (!method.getTypeParameters().isEmpty()
+        || (!method.getModifiers().contains(PUBLIC)
+            && !method.getModifiers().contains(PROTECTED)
+            && !packageOf(method).equals(pkg))
+        || !isAccessible(types.erasure(method.getEnclosingElement().asType()), pkg)
+        || !isAccessible(memberType.getReturnType(), pkg)) {
+      return false;
+    }
+    for (TypeMirror parameterType : memberType.getParameterTypes()) {
+      if (!isAccessible(parameterType, pkg)) {
+        return false;
+      }
+    }
+    // The declared parameter types identify the method to the runtime.
+    for (VariableElement parameter : method.getParameters()) {
+      if (!isAccessible(types.erasure(parameter.asType()), pkg)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasAccessibleConstructor(TypeElement component) {
+    for (ExecutableElement constructor
+        : ElementFilter.constructorsIn(component.getEnclosedElements())) {
+      if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(PRIVATE)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String signature(ExecutableElement method, Types types) {
+    StringBuilder signature = new StringBuilder(method.getSimpleName()).append('(');
+    List<? extends VariableElement> parameters = method.getParameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      if (i > 0) {
+        signature.append(", ");
+      }
+      signature.append(types.erasure(parameters.get(i).asType()));
+    }
+    return signature.append(')').toString();
+  }
+
+  private ComponentImplementations() {
+  }
+}
@@ -26,6 +26,7 @@ import net.ltgt.gradle.incap.IncrementalAnnotationProcessor;
 
 import org.jetbrains.annotations.Nullable;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -39,9 +40,16 @@ import javax.lang.model.SourceVersion;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.inject.Inject;
 
 import dagger.Component;
+import dagger.Provides;
+import dagger.Subcomponent;
 import dagger.reflect.DaggerReflect;
 
 import static dagger.reflect.compiler.DaggerReflectUtils.getAnnotationMirror;
@@ -60,15 +68,30 @@ import static net.ltgt.gradle.incap.IncrementalAnnotationProcessorType.ISOLATING
 @IncrementalAnnotationProcessor(ISOLATING)
 @AutoService(Processor.class)
 public final class DaggerReflectCompiler extends AbstractProcessor {
+  /**
+   * When {@code enabled}, a {@link dagger.reflect.DirectFactory} is also generated for each
+   * {@code @Inject} constructor and {@code @Provides} method.
+   */
+  static final String GENERATE_FACTORIES = "dagger.reflect.generateFactories";
+  /**
+   * When {@code enabled}, a concrete implementation is also generated for each {@code @Component}
+   * and {@code @Subcomponent} which the runtime uses instead of a {@link java.lang.reflect.Proxy}.
+   */
+  static final String GENERATE_COMPONENTS = "dagger.reflect.generateComponents";
+
   private Filer filer;
   private Messager messager;
   private @Nullable AnnotationSpec generatedAnnotation;
+  private boolean generateFactories;
+  private boolean generateComponents;
 
   @Override
   public synchronized void init(ProcessingEnvironment processingEnv) {
     super.init(processingEnv);
     filer = processingEnv.getFiler();
     messager = processingEnv.getMessager();
+    generateFactories = "enabled".equals(processingEnv.getOptions().get(GENERATE_FACTORIES));
+    generateComponents = "enabled".equals(processingEnv.getOptions().get(GENERATE_COMPONENTS));
 
     String generatedAnnotationName =
         processingEnv.getSourceVersion().compareTo(RELEASE_8) <= 0
@@ -87,7 +110,24 @@ public final class DaggerReflectCompiler extends AbstractProcessor {
 
   @Override
   public Set<String> getSupportedAnnotationTypes() {
-    return singleton(Component.class.getCanonicalName());
+    Set<String> types = new LinkedHashSet<>();
+    types.add(Component.class.getCanonicalName());
+    if (generateFactories) {
+      types.add(Inject.class.getCanonicalName());
+      types.add(Provides.class.getCanonicalName());
+    }
+    if (generateComponents) {
+      types.add(Subcomponent.class.getCanonicalName());
+    }
+    return types;
+  }
+
+  @Override
+  public Set<String> getSupportedOptions() {
+    Set<String> options = new LinkedHashSet<>();
+    options.add(GENERATE_FACTORIES);
+    options.add(GENERATE_COMPONENTS);
+    return options;
   }
 
   @Override
@@ -125,9 +165,51 @@ public final class DaggerReflectCompiler extends AbstractProcessor {
         messager.printMessage(ERROR, "Unable to write component implementation: " + e, component);
       }
     }
+
+    if (generateComponents) {
+      Elements elements = processingEnv.getElementUtils();
+      Types types = processingEnv.getTypeUtils();
+      Set<Element> components = new LinkedHashSet<>(candidates);
+      components.addAll(roundEnv.getElementsAnnotatedWith(Subcomponent.class));
+      for (Element component : components) {
+        writeType(component,
+            ComponentImplementations.create((TypeElement) component, elements, types));
+      }
+    }
+
+    if (generateFactories) {
+      for (Element candidate : roundEnv.getElementsAnnotatedWith(Inject.class)) {
+        if (candidate.getKind() == ElementKind.CONSTRUCTOR) {
+          writeType(candidate, DirectFactories.forConstructor((ExecutableElement) candidate));
+        }
+      }
+      for (Element candidate : roundEnv.getElementsAnnotatedWith(Provides.class)) {
+        writeType(candidate, DirectFactories.forProvides((ExecutableElement) candidate));
+      }
+    }
     return false;
   }
 
+  private void writeType(Element origin, @Nullable TypeSpec type) {
+    if (type == null) {
+      return;
+    }
+    if (generatedAnnotation != null) {
+      type = type.toBuilder().addAnnotation(generatedAnnotation).build();
+    }
+    String packageName =
+        processingEnv.getElementUtils().getPackageOf(origin).getQualifiedName().toString();
+    JavaFile file =
+        JavaFile.builder(packageName, type)
+            .addFileComment("Generated by Dagger's reflect-compiler. Do not modify!")
+            .build();
+    try {
+      file.writeTo(filer);
+    } catch (Exception e) {
+      messager.printMessage(ERROR, "Unable to write " + type.name + ": " + e, origin);
+    }
+  }
+
   private static @Nullable TypeElement findBuilder(TypeElement component) {
     for (Element enclosed : component.getEnclosedElements()) {
       if (enclosed.getAnnotation(Component.Builder.class) != null) {
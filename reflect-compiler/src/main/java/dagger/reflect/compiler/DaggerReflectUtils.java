@@ -6,8 +6,18 @@ import java.util.Map;
 
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
 
 public class DaggerReflectUtils {
 
@@ -36,4 +46,52 @@ public class DaggerReflectUtils {
         }
         return null;
     }
+
+    /** True when {@code type} can be named by a class generated in {@code pkg}. */
+    public static boolean isAccessible(TypeMirror type, PackageElement pkg) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case CHAR:
+            case FLOAT:
+            case DOUBLE:
+            case VOID:
+                return true;
+            case ARRAY:
+                return isAccessible(((ArrayType) type).getComponentType(), pkg);
+            case WILDCARD:
+                TypeMirror extendsBound = ((WildcardType) type).getExtendsBound();
+                TypeMirror superBound = ((WildcardType) type).getSuperBound();
+                return (extendsBound == null || isAccessible(extendsBound, pkg))
+                        && (superBound == null || isAccessible(superBound, pkg));
+            case DECLARED:
+                for (Element element = ((DeclaredType) type).asElement();
+                        element.getKind() != ElementKind.PACKAGE;
+                        element = element.getEnclosingElement()) {
+                    if (element.getModifiers().contains(PRIVATE)
+                            || (!element.getModifiers().contains(PUBLIC)
+                                    && !packageOf(element).equals(pkg))) {
+                        return false;
+                    }
+                }
+                for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                    if (!isAccessible(argument, pkg)) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public static PackageElement packageOf(Element element) {
+        while (element.getKind() != ElementKind.PACKAGE) {
+            element = element.getEnclosingElement();
+        }
+        return (PackageElement) element;
+    }
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2018 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dagger.reflect.compiler;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+import javax.inject.Provider;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+import dagger.reflect.DirectFactory;
+
+import static dagger.reflect.compiler.DaggerReflectUtils.isAccessible;
+import static dagger.reflect.compiler.DaggerReflectUtils.packageOf;
+import static javax.lang.model.element.Modifier.ABSTRACT;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * Creates a {@link DirectFactory} for an {@code @Inject} constructor or a {@code @Provides}
+ * method. The runtime finds each one by the name of the type or method it calls, so no index of
+ * them needs to be aggregated and the processor remains isolating.
+ *
+ * <p>Nothing is created for members which the generated code could not call, such as private
+ * members, generic types, or those which throw checked exceptions. These are still invoked
+ * reflectively.
+ */
+final class DirectFactories {
+  private static final TypeName DEPENDENCIES =
+      ArrayTypeName.of(
+          ParameterizedTypeName.get(
+              ClassName.get(Provider.class), WildcardTypeName.subtypeOf(Object.class)));
+
+  static @Nullable TypeSpec forConstructor(ExecutableElement constructor) {
+    TypeElement type = (TypeElement) constructor.getEnclosingElement();
+    PackageElement pkg = packageOf(type);
+    if (!isCallable(constructor, pkg)
+        || !type.getTypeParameters().isEmpty()
+        || type.getModifiers().contains(ABSTRACT)
+        || (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(STATIC))
+        || !isAccessible(type.asType(), pkg)) {
+      return null;
+    }
+    ClassName typeName = ClassName.get(type);
+    CodeBlock call = CodeBlock.of("new $T($L)", typeName, arguments(constructor));
+    String name = String.join("_", typeName.simpleNames()) + "_DirectFactory";
+    return createFactory(name, typeName, constructor, call).build();
+  }
+
+  static @Nullable TypeSpec forProvides(ExecutableElement method) {
+    TypeElement module = (TypeElement) method.getEnclosingElement();
+    PackageElement pkg = packageOf(module);
+    if (!isCallable(method, pkg)
+        || !method.getTypeParameters().isEmpty()
+        || !module.getTypeParameters().isEmpty()
+        || !isAccessible(module.asType(), pkg)
+        || !isAccessible(method.getReturnType(), pkg)) {
+      return null;
+    }
+    ClassName moduleName = ClassName.get(module);
+    String methodName = method.getSimpleName().toString();
+    CodeBlock call =
+        method.getModifiers().contains(STATIC)
+            ? CodeBlock.of("$T.$N($L)", moduleName, methodName, arguments(method))
+            : CodeBlock.of("(($T) module).$N($L)", moduleName, methodName, arguments(method));
+    String name =
+        String.join("_", moduleName.simpleNames())
+            + "_"
+            + Character.toUpperCase(methodName.charAt(0))
+            + methodName.substring(1)
+            + "DirectFactory";
+    TypeSpec.Builder factory =
+        createFactory(name, TypeName.get(method.getReturnType()).box(), method, call);
+    // Also let the runtime provide these primitives without boxing them.
+    TypeKind kind = method.getReturnType().getKind();
+    if (kind == TypeKind.INT) {
+      factory.addSuperinterface(DirectFactory.OfInt.class)
+          .addMethod(createMethod("createInt", TypeName.INT, method, call));
+    } else if (kind == TypeKind.LONG) {
+      factory.addSuperinterface(DirectFactory.OfLong.class)
+          .addMethod(createMethod("createLong", TypeName.LONG, method, call));
+    }
+    return factory.build();
+  }
+
+  private static TypeSpec.Builder createFactory(
+      String name, TypeName returnType, ExecutableElement origin, CodeBlock call) {
+    return TypeSpec.classBuilder(name)
+        .addModifiers(PUBLIC, FINAL)
+        .addSuperinterface(ParameterizedTypeName.get(ClassName.get(DirectFactory.class), returnType))
+        .addOriginatingElement(origin)
+        .addMethod(createMethod("create", returnType, origin, call));
+  }
+
+  private static MethodSpec createMethod(
+      String name, TypeName returnType, ExecutableElement origin, CodeBlock call) {
+    MethodSpec.Builder create =
+        MethodSpec.methodBuilder(name)
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .returns(returnType)
+            .addParameter(Object.class, "module")
+            .addParameter(DEPENDENCIES, "dependencies")
+            .addStatement("return $L", call);
+    for (VariableElement parameter : origin.getParameters()) {
+      if (parameter.asType().getKind() == TypeKind.DECLARED
+          && !((DeclaredType) parameter.asType()).getTypeArguments().isEmpty()) {
+        create.addAnnotation(
+            AnnotationSpec.builder(SuppressWarnings.class)
+                .addMember("value", "$S", "unchecked")
+                .build());
+        break;
+      }
+    }
+    return create.build();
+  }
+
+  private static CodeBlock arguments(ExecutableElement executable) {
+    CodeBlock.Builder arguments = CodeBlock.builder();
+    List<? extends VariableElement> parameters = executable.getParameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      if (i > 0) {
+        arguments.add(", ");
+      }
+      TypeMirror type = parameters.get(i).asType();
+      if (type.getKind() == TypeKind.INT) {
+        arguments.add("$T.getInt(dependencies[$L])", DirectFactory.Primitives.class, i);
+      } else if (type.getKind() == TypeKind.LONG) {
+        arguments.add("$T.getLong(dependencies[$L])", DirectFactory.Primitives.class, i);
+      } else {
+        // Other primitives are unboxed from their wrapper since the captured wildcard cannot be
+        // cast to them.
+        arguments.add("($T) dependencies[$L].get()", TypeName.get(type).box(), i);
+      }
+    }
+    return arguments.build();
+  }
+
+  private static boolean isCallable(ExecutableElement executable, PackageElement pkg) {
+    if (executable.getModifiers().contains(PRIVATE) || !executable.getThrownTypes().isEmpty()) {
+      return false;
+    }
+    for (VariableElement parameter : executable.getParameters()) {
+      if (!isAccessible(parameter.asType(), pkg)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private DirectFactories() {
+  }
+}
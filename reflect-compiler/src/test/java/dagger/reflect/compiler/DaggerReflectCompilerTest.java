@@ -16,8 +16,12 @@
 package dagger.reflect.compiler;
 
 import static com.google.common.truth.Truth.assertAbout;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
 import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
 
+import com.google.testing.compile.Compilation;
 import com.google.testing.compile.JavaFileObjects;
 import javax.tools.JavaFileObject;
 import org.junit.Test;
@@ -230,4 +234,253 @@ public final class DaggerReflectCompilerTest {
         .and()
         .generatesSources(expected);
   }
+
+  @Test
+  public void componentImplementation() {
+    JavaFileObject component =
+        JavaFileObjects.forSourceString(
+            "example.TestComponent",
+            ""
+                + "package example;\n"
+                + "\n"
+                + "import dagger.Component;\n"
+                + "import java.util.List;\n"
+                + "\n"
+                + "@Component\n"
+                + "abstract class TestComponent {\n"
+                + "  abstract List<String> names();\n"
+                + "  abstract void inject(Object target);\n"
+                + "  abstract int count();\n"
+                + "  abstract Object tag();\n"
+                + "  String first() {\n"
+                + "    return names().get(0);\n"
+                + "  }\n"
+                + "}\n");
+
+    JavaFileObject expected =
+        JavaFileObjects.forSourceString(
+            "example.TestComponent_ReflectComponent",
+            ""
+                + "package example;\n"
+                + "\n"
+                + "import dagger.reflect.ComponentSlots;\n"
+                + "import java.lang.NoSuchMethodException;\n"
+                + "import java.lang.Object;\n"
+                + "import java.lang.Override;\n"
+                + "import java.lang.String;\n"
+                + "import java.lang.SuppressWarnings;\n"
+                + "import java.lang.reflect.Method;\n"
+                + "import java.util.List;\n"
+                + generatedAnnotationImport
+                + "\n"
+                + "@Generated(\n"
+                + "    value = \"dagger.reflect.compiler.DaggerReflectCompiler\",\n"
+                + "    comments = \"https://github.com/JakeWharton/dagger-reflect\"\n"
+                + ")\n"
+                + "public final class TestComponent_ReflectComponent extends TestComponent {\n"
+                + "  private final ComponentSlots slots;\n"
+                + "\n"
+                + "  public TestComponent_ReflectComponent(ComponentSlots slots) {\n"
+                + "    this.slots = slots;\n"
+                + "  }\n"
+                + "\n"
+                + "  @Override\n"
+                + "  @SuppressWarnings(\"unchecked\")\n"
+                + "  List<String> names() {\n"
+                + "    return (List<String>) this.slots.get(0);\n"
+                + "  }\n"
+                + "\n"
+                + "  @Override\n"
+                + "  void inject(Object target) {\n"
+                + "    this.slots.invoke(1, new Object[] {target});\n"
+                + "  }\n"
+                + "\n"
+                + "  @Override\n"
+                + "  int count() {\n"
+                + "    return this.slots.getInt(2);\n"
+                + "  }\n"
+                + "\n"
+                + "  @Override\n"
+                + "  Object tag() {\n"
+                + "    return this.slots.get(3);\n"
+                + "  }\n"
+                + "\n"
+                + "  public static Method[] slots() throws NoSuchMethodException {\n"
+                + "    return new Method[] {\n"
+                + "      TestComponent.class.getDeclaredMethod(\"names\"),\n"
+                + "      TestComponent.class.getDeclaredMethod(\"inject\", Object.class),\n"
+                + "      TestComponent.class.getDeclaredMethod(\"count\"),\n"
+                + "      TestComponent.class.getDeclaredMethod(\"tag\")\n"
+                + "    };\n"
+                + "  }\n"
+                + "}\n");
+
+    assertAbout(javaSource())
+        .that(component)
+        .withCompilerOptions("-Adagger.reflect.generateComponents=enabled")
+        .processedWith(new DaggerReflectCompiler())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expected);
+  }
+
+  @Test
+  public void injectConstructorFactory() {
+    JavaFileObject type =
+        JavaFileObjects.forSourceString(
+            "example.Thing",
+            ""
+                + "package example;\n"
+                + "\n"
+                + "import java.util.List;\n"
+                + "import javax.inject.Inject;\n"
+                + "import javax.inject.Provider;\n"
+                + "\n"
+                + "final class Thing {\n"
+                + "  @Inject Thing(long id, Provider<List<String>> names) {\n"
+                + "  }\n"
+                + "}\n");
+
+    JavaFileObject expected =
+        JavaFileObjects.forSourceString(
+            "example.Thing_DirectFactory",
+            ""
+                + "package example;\n"
+                + "\n"
+                + "import dagger.reflect.DirectFactory;\n"
+                + "import java.lang.Object;\n"
+                + "import java.lang.Override;\n"
+                + "import java.lang.String;\n"
+                + "import java.lang.SuppressWarnings;\n"
+                + "import java.util.List;\n"
+                + generatedAnnotationImport
+                + "import javax.inject.Provider;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "    value = \"dagger.reflect.compiler.DaggerReflectCompiler\",\n"
+                + "    comments = \"https://github.com/JakeWharton/dagger-reflect\"\n"
+                + ")\n"
+                + "public final class Thing_DirectFactory implements DirectFactory<Thing> {\n"
+                + "  @Override\n"
+                + "  @SuppressWarnings(\"unchecked\")\n"
+                + "  public Thing create(Object module, Provider<?>[] dependencies) {\n"
+                + "    return new Thing(DirectFactory.Primitives.getLong(dependencies[0]), (Provider<List<String>>) dependencies[1].get());\n"
+                + "  }\n"
+                + "}\n");
+
+    assertAbout(javaSource())
+        .that(type)
+        .withCompilerOptions("-Adagger.reflect.generateFactories=enabled")
+        .processedWith(new DaggerReflectCompiler())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expected);
+  }
+
+  @Test
+  public void providesFactory() {
+    JavaFileObject module =
+        JavaFileObjects.forSourceString(
+            "example.TestModule",
+            ""
+                + "package example;\n"
+                + "\n"
+                + "import dagger.Module;\n"
+                + "import dagger.Provides;\n"
+                + "\n"
+                + "@Module\n"
+                + "final class TestModule {\n"
+                + "  @Provides int count(String value) {\n"
+                + "    return value.length();\n"
+                + "  }\n"
+                + "  @Provides static String value() {\n"
+                + "    return \"value\";\n"
+                + "  }\n"
+                + "  @Provides private static Object hidden() {\n"
+                + "    return \"hidden\";\n"
+                + "  }\n"
+                + "}\n");
+
+    JavaFileObject count =
+        JavaFileObjects.forSourceString(
+            "example.TestModule_CountDirectFactory",
+            ""
+                + "package example;\n"
+                + "\n"
+                + "import dagger.reflect.DirectFactory;\n"
+                + "import java.lang.Integer;\n"
+                + "import java.lang.Object;\n"
+                + "import java.lang.Override;\n"
+                + "import java.lang.String;\n"
+                + generatedAnnotationImport
+                + "import javax.inject.Provider;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "    value = \"dagger.reflect.compiler.DaggerReflectCompiler\",\n"
+                + "    comments = \"https://github.com/JakeWharton/dagger-reflect\"\n"
+                + ")\n"
+                + "public final class TestModule_CountDirectFactory implements DirectFactory<Integer>, DirectFactory.OfInt {\n"
+                + "  @Override\n"
+                + "  public Integer create(Object module, Provider<?>[] dependencies) {\n"
+                + "    return ((TestModule) module).count((String) dependencies[0].get());\n"
+                + "  }\n"
+                + "\n"
+                + "  @Override\n"
+                + "  public int createInt(Object module, Provider<?>[] dependencies) {\n"
+                + "    return ((TestModule) module).count((String) dependencies[0].get());\n"
+                + "  }\n"
+                + "}\n");
+
+    JavaFileObject value =
+        JavaFileObjects.forSourceString(
+            "example.TestModule_ValueDirectFactory",
+            ""
+                + "package example;\n"
+                + "\n"
+                + "import dagger.reflect.DirectFactory;\n"
+                + "import java.lang.Object;\n"
+                + "import java.lang.Override;\n"
+                + "import java.lang.String;\n"
+                + generatedAnnotationImport
+                + "import javax.inject.Provider;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "    value = \"dagger.reflect.compiler.DaggerReflectCompiler\",\n"
+                + "    comments = \"https://github.com/JakeWharton/dagger-reflect\"\n"
+                + ")\n"
+                + "public final class TestModule_ValueDirectFactory implements DirectFactory<String> {\n"
+                + "  @Override\n"
+                + "  public String create(Object module, Provider<?>[] dependencies) {\n"
+                + "    return TestModule.value();\n"
+                + "  }\n"
+                + "}\n");
+
+    assertAbout(javaSource())
+        .that(module)
+        .withCompilerOptions("-Adagger.reflect.generateFactories=enabled")
+        .processedWith(new DaggerReflectCompiler())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(count, value);
+  }
+
+  @Test
+  public void factoriesDisabledByDefault() {
+    JavaFileObject type =
+        JavaFileObjects.forSourceString(
+            "example.Thing",
+            ""
+                + "package example;\n"
+                + "\n"
+                + "import javax.inject.Inject;\n"
+                + "\n"
+                + "final class Thing {\n"
+                + "  @Inject Thing() {\n"
+                + "  }\n"
+                + "}\n");
+
+    Compilation compilation = javac().withProcessors(new DaggerReflectCompiler()).compile(type);
+    assertThat(compilation).succeeded();
+    assertThat(compilation.generatedSourceFiles()).isEmpty();
+  }
 }
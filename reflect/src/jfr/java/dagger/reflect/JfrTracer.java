@@ -0,0 +1,205 @@
+package dagger.reflect;
+
+import dagger.reflect.Binding.LinkedBinding;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link Tracer} which emits JDK Flight Recorder events. It is compiled separately from the rest
+ * of the library since its API is only available from JDK 11, and {@link Tracer} loads it
+ * reflectively.
+ */
+final class JfrTracer extends Tracer {
+  @Override
+  Object beginComponent() {
+    ComponentEvent event = new ComponentEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  void endComponent(@Nullable Object token, Class<?> componentClass, int moduleCount) {
+    ComponentEvent event = (ComponentEvent) token;
+    if (event == null) throw new NullPointerException("token == null");
+    event.end();
+    if (event.shouldCommit()) {
+      event.component = componentClass.getName();
+      event.moduleCount = moduleCount;
+      event.commit();
+    }
+  }
+
+  @Override
+  Object beginModule() {
+    ModuleEvent event = new ModuleEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  void endModule(@Nullable Object token, Class<?> moduleClass) {
+    ModuleEvent event = (ModuleEvent) token;
+    if (event == null) throw new NullPointerException("token == null");
+    event.end();
+    if (event.shouldCommit()) {
+      event.module = moduleClass.getName();
+      event.commit();
+    }
+  }
+
+  @Override
+  Object beginLink() {
+    LinkEvent event = new LinkEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  LinkedBinding<?> endLink(
+      @Nullable Object token, Scope scope, Key key, int depth, LinkedBinding<?> binding) {
+    LinkEvent event = (LinkEvent) token;
+    if (event == null) throw new NullPointerException("token == null");
+    event.end();
+    if (event.shouldCommit()) {
+      event.key = key.toString();
+      event.depth = depth;
+      event.commit();
+    }
+    return new ProvisionTracingBinding<>(key, binding);
+  }
+
+  @Override
+  Object beginJustInTimeLookup() {
+    JustInTimeLookupEvent event = new JustInTimeLookupEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  void endJustInTimeLookup(@Nullable Object token, Key key, boolean found) {
+    JustInTimeLookupEvent event = (JustInTimeLookupEvent) token;
+    if (event == null) throw new NullPointerException("token == null");
+    event.end();
+    if (event.shouldCommit()) {
+      event.key = key.toString();
+      event.found = found;
+      event.commit();
+    }
+  }
+
+  private static final class ProvisionTracingBinding<T> extends TracingBinding<T> {
+    private final Key key;
+
+    ProvisionTracingBinding(Key key, LinkedBinding<T> delegate) {
+      super(delegate);
+      this.key = key;
+    }
+
+    @Override
+    public @Nullable T get() {
+      ProvisionEvent event = new ProvisionEvent();
+      event.begin();
+      T value = delegate.get();
+      commit(event);
+      return value;
+    }
+
+    @Override
+    int getInt() {
+      ProvisionEvent event = new ProvisionEvent();
+      event.begin();
+      int value = delegate.getInt();
+      commit(event);
+      return value;
+    }
+
+    @Override
+    long getLong() {
+      ProvisionEvent event = new ProvisionEvent();
+      event.begin();
+      long value = delegate.getLong();
+      commit(event);
+      return value;
+    }
+
+    private void commit(ProvisionEvent event) {
+      event.end();
+      // Only pay for rendering the key when the provision exceeded the configured threshold.
+      if (event.shouldCommit()) {
+        event.key = key.toString();
+        event.binding = delegate.toString();
+        event.commit();
+      }
+    }
+  }
+
+  @Name("dagger.reflect.ComponentCreation")
+  @Label("Component Creation")
+  @Description("Collecting the modules, dependencies, and bindings of a component or subcomponent")
+  @Category({"Dagger", "Reflect"})
+  static final class ComponentEvent extends Event {
+    @Label("Component")
+    @Nullable
+    String component;
+
+    @Label("Module Count")
+    int moduleCount;
+  }
+
+  @Name("dagger.reflect.ModuleParsing")
+  @Label("Module Parsing")
+  @Description("Reflecting on the methods of a module to find its bindings")
+  @Category({"Dagger", "Reflect"})
+  static final class ModuleEvent extends Event {
+    @Label("Module")
+    @Nullable
+    String module;
+  }
+
+  @Name("dagger.reflect.Link")
+  @Label("Link")
+  @Description("Resolving the dependencies of a binding, including any transitive linking")
+  @Category({"Dagger", "Reflect"})
+  static final class LinkEvent extends Event {
+    @Label("Key")
+    @Nullable
+    String key;
+
+    @Label("Depth")
+    @Description("Number of keys being linked which transitively requested this key")
+    int depth;
+  }
+
+  @Name("dagger.reflect.JustInTimeLookup")
+  @Label("Just-In-Time Lookup")
+  @Description("Searching a type for an @Inject constructor")
+  @Category({"Dagger", "Reflect"})
+  static final class JustInTimeLookupEvent extends Event {
+    @Label("Key")
+    @Nullable
+    String key;
+
+    @Label("Found")
+    boolean found;
+  }
+
+  @Name("dagger.reflect.Provision")
+  @Label("Slow Provision")
+  @Description("Creating or returning an instance of a binding which exceeded the threshold")
+  @Category({"Dagger", "Reflect"})
+  @Threshold("1 ms")
+  static final class ProvisionEvent extends Event {
+    @Label("Key")
+    @Nullable
+    String key;
+
+    @Label("Binding")
+    @Nullable
+    String binding;
+  }
+}
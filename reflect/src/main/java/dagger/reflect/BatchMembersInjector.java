@@ -0,0 +1,23 @@
+package dagger.reflect;
+
+import dagger.MembersInjector;
+import java.util.Collection;
+
+/**
+ * A {@link MembersInjector} which can also inject many instances of the same class at once. Each
+ * member is injected into every instance before the next, and a value is requested once for the
+ * whole batch when its binding returns the same instance every time, such as a scoped binding.
+ *
+ * <p>Each instance still has its fields injected before its methods, and those of superclasses
+ * before those of subclasses. Each {@code MembersInjector} which dagger-reflect provides can be
+ * cast to this type.
+ *
+ * @see DaggerReflect#membersInjector(Object, Class)
+ */
+public interface BatchMembersInjector<T> extends MembersInjector<T> {
+  /** Inject the members of each of {@code instances}. */
+  void injectAll(Collection<? extends T> instances);
+
+  /** Inject the members of each of {@code instances}. */
+  void injectAll(T[] instances);
+}
@@ -15,6 +15,7 @@
  */
 package dagger.reflect;
 
+import java.util.Map;
 import javax.inject.Provider;
 
 interface Binding {
@@ -41,6 +42,8 @@ interface Binding {
   }
 
   abstract class LinkedBinding<T> implements Binding, Provider<T> {
+    static final LinkedBinding<?>[] NO_DEPENDENCIES = new LinkedBinding<?>[0];
+
     @Override
     public final LinkedBinding<?> link(Linker linker, Scope scope) {
       return this;
@@ -50,5 +53,86 @@ interface Binding {
     public final Binding asScoped() {
       return new LinkedScopedBinding<>(this);
     }
+
+    /**
+     * The bindings which are directly invoked to produce this binding's instances. This is only
+     * used for diagnostics and does not need to be efficient.
+     */
+    LinkedBinding<?>[] dependencies() {
+      return NO_DEPENDENCIES;
+    }
+
+    /**
+     * True when this binding will return the same instance from {@link #get()} from now on, such as
+     * an instance binding or a scoped binding which has been initialized. Multibindings cache their
+     * collection once every contribution is constant.
+     */
+    boolean isConstant() {
+      return false;
+    }
+
+    /**
+     * True when a {@linkplain Scope#fork fork} of {@code original} may use this binding instead of
+     * linking its own, because its instances cannot differ between the two. Only called through
+     * {@link #isShareable(LinkedBinding, Scope, Map)}.
+     *
+     * @param known Passed on to {@link #isShareable(LinkedBinding, Scope, Map)} for dependencies.
+     */
+    boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+      return false;
+    }
+
+    /**
+     * Whether {@code binding} is {@linkplain #isShareable(Scope, Map) shareable}, remembered in
+     * {@code known} since the same binding is usually a dependency of many others.
+     */
+    static boolean isShareable(
+        LinkedBinding<?> binding, Scope original, Map<LinkedBinding<?>, Boolean> known) {
+      Boolean shareable = known.get(binding);
+      if (shareable == null) {
+        known.put(binding, false); // Until its dependencies are known to be shareable.
+        shareable = binding.isShareable(original, known);
+        known.put(binding, shareable);
+      }
+      return shareable;
+    }
+
+    /**
+     * True when each of {@link #dependencies()} is shareable, for bindings which only call them.
+     */
+    final boolean dependenciesAreShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+      for (LinkedBinding<?> dependency : dependencies()) {
+        if (!isShareable(dependency, original, known)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * True when this is an {@code int} binding whose {@link #getInt()} produces the value without
+     * boxing it. Consumers check this when they receive the value as a primitive.
+     */
+    boolean providesInt() {
+      return false;
+    }
+
+    /** The value of this binding. Only called when {@link #providesInt()} is true. */
+    int getInt() {
+      throw new UnsupportedOperationException(toString());
+    }
+
+    /**
+     * True when this is a {@code long} binding whose {@link #getLong()} produces the value without
+     * boxing it. Consumers check this when they receive the value as a primitive.
+     */
+    boolean providesLong() {
+      return false;
+    }
+
+    /** The value of this binding. Only called when {@link #providesLong()} is true. */
+    long getLong() {
+      throw new UnsupportedOperationException(toString());
+    }
   }
 }
@@ -0,0 +1,52 @@
+package dagger.reflect;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import javax.inject.Qualifier;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The qualifier and type of a binding, used to link several of them together.
+ *
+ * @see DaggerReflect#providers(Object, BindingKey...)
+ */
+public final class BindingKey {
+  /** The key for the unqualified binding of {@code type}. */
+  public static BindingKey of(Type type) {
+    return of(null, type);
+  }
+
+  /**
+   * The key for the binding of {@code type} with {@code qualifier}.
+   *
+   * @param qualifier An annotation whose type is annotated with {@link Qualifier}, or null.
+   */
+  public static BindingKey of(@Nullable Annotation qualifier, Type type) {
+    if (type == null) throw new NullPointerException("type == null");
+    if (qualifier != null && !qualifier.annotationType().isAnnotationPresent(Qualifier.class)) {
+      throw new IllegalArgumentException(qualifier + " is not a @Qualifier annotation");
+    }
+    return new BindingKey(Key.of(qualifier, type));
+  }
+
+  final Key key;
+
+  private BindingKey(Key key) {
+    this.key = key;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object other) {
+    return other instanceof BindingKey && key.equals(((BindingKey) other).key);
+  }
+
+  @Override
+  public int hashCode() {
+    return key.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return key.toString();
+  }
+}
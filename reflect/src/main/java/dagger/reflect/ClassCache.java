@@ -0,0 +1,73 @@
+package dagger.reflect;
+
+import java.util.concurrent.ConcurrentHashMap;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+
+/**
+ * A value computed once for each class. Concurrent callers may each compute it, in which case one
+ * result is kept. Values must not be null. A value may strongly reference its class but should not
+ * reference classes from other class loaders.
+ */
+abstract class ClassCache<V> {
+  interface Computer<V> {
+    V compute(Class<?> cls);
+  }
+
+  static <V> ClassCache<V> create(Computer<V> computer) {
+    try {
+      Class.forName("java.lang.ClassValue");
+      return new ClassValueCache<>(computer);
+    } catch (ClassNotFoundException ignored) {
+      return new MapCache<>(computer);
+    }
+  }
+
+  abstract V get(Class<?> cls);
+
+  /** Allows each class, and its class loader, to be unloaded along with its value. */
+  @IgnoreJRERequirement // Only created after checking that ClassValue is available at runtime.
+  private static final class ClassValueCache<V> extends ClassCache<V> {
+    private final ClassValue<V> values;
+
+    ClassValueCache(Computer<V> computer) {
+      values =
+          new ClassValue<V>() {
+            @Override
+            protected V computeValue(Class<?> cls) {
+              return computer.compute(cls);
+            }
+          };
+    }
+
+    @Override
+    V get(Class<?> cls) {
+      return values.get(cls);
+    }
+  }
+
+  /**
+   * Used where {@link ClassValue} is unavailable, such as Android, which does not unload the
+   * classes of an application.
+   */
+  private static final class MapCache<V> extends ClassCache<V> {
+    private final ConcurrentHashMap<Class<?>, V> values = new ConcurrentHashMap<>();
+    private final Computer<V> computer;
+
+    MapCache(Computer<V> computer) {
+      this.computer = computer;
+    }
+
+    @Override
+    V get(Class<?> cls) {
+      V value = values.get(cls);
+      if (value == null) {
+        value = computer.compute(cls);
+        V existing = values.putIfAbsent(cls, value);
+        if (existing != null) {
+          value = existing;
+        }
+      }
+      return value;
+    }
+  }
+}
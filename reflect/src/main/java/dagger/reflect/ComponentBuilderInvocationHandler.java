@@ -16,9 +16,9 @@
 package dagger.reflect;
 
 import static dagger.reflect.Reflection.findQualifier;
-import static dagger.reflect.Reflection.newProxy;
 import static dagger.reflect.Reflection.requireAnnotation;
 import static dagger.reflect.Reflection.requireEnclosingClass;
+import static dagger.reflect.RuntimeClasses.newInstance;
 
 import dagger.BindsInstance;
 import dagger.Component;
@@ -29,15 +29,18 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
 
 final class ComponentBuilderInvocationHandler implements InvocationHandler {
   static <B> B forComponentBuilder(Class<B> builderClass) {
     requireAnnotation(builderClass, Component.Builder.class);
 
     Class<?> componentClass = requireEnclosingClass(builderClass);
-    if (!Modifier.isPublic(componentClass.getModifiers())) {
+    if (!Modifier.isPublic(componentClass.getModifiers())
+        && !GeneratedComponents.isGenerated(componentClass)) {
       // Instances of proxies cannot create another proxy instance where the second interface is
       // not public. This prevents proxies of builders from creating proxies of the component.
+      // Generated implementations are created with their constructor so are not affected.
       throw new IllegalArgumentException(
           "Component interface "
               + componentClass.getCanonicalName()
@@ -45,7 +48,7 @@ final class ComponentBuilderInvocationHandler implements InvocationHandler {
     }
 
     ComponentScopeBuilder scopeBuilder = ComponentScopeBuilder.buildComponent(componentClass);
-    return newProxy(
+    return newInstance(
         builderClass,
         new ComponentBuilderInvocationHandler(componentClass, builderClass, scopeBuilder));
   }
@@ -53,9 +56,11 @@ final class ComponentBuilderInvocationHandler implements InvocationHandler {
   static <B, C> B forComponentBuilder(Class<B> builderClass, Class<C> componentClass) {
     requireAnnotation(builderClass, Component.Builder.class);
 
-    if (!Modifier.isPublic(componentClass.getModifiers())) {
+    if (!Modifier.isPublic(componentClass.getModifiers())
+        && !GeneratedComponents.isGenerated(componentClass)) {
       // Instances of proxies cannot create another proxy instance where the second interface is
       // not public. This prevents proxies of builders from creating proxies of the component.
+      // Generated implementations are created with their constructor so are not affected.
       throw new IllegalArgumentException(
               "Component interface "
                       + componentClass.getCanonicalName()
@@ -63,7 +68,7 @@ final class ComponentBuilderInvocationHandler implements InvocationHandler {
     }
 
     ComponentScopeBuilder scopeBuilder = ComponentScopeBuilder.buildComponent(componentClass);
-    return newProxy(
+    return newInstance(
             builderClass,
             new ComponentBuilderInvocationHandler(componentClass, builderClass, scopeBuilder));
   }
@@ -72,9 +77,11 @@ final class ComponentBuilderInvocationHandler implements InvocationHandler {
     requireAnnotation(builderClass, Subcomponent.Builder.class);
 
     Class<?> subcomponentClass = requireEnclosingClass(builderClass);
-    if (!Modifier.isPublic(subcomponentClass.getModifiers())) {
+    if (!Modifier.isPublic(subcomponentClass.getModifiers())
+        && !GeneratedComponents.isGenerated(subcomponentClass)) {
       // Instances of proxies cannot create another proxy instance where the second interface is
       // not public. This prevents proxies of builders from creating proxies of the component.
+      // Generated implementations are created with their constructor so are not affected.
       throw new IllegalArgumentException(
           "Subcomponent interface "
               + subcomponentClass.getCanonicalName()
@@ -83,11 +90,14 @@ final class ComponentBuilderInvocationHandler implements InvocationHandler {
 
     ComponentScopeBuilder scopeBuilder =
         ComponentScopeBuilder.buildSubcomponent(subcomponentClass, parent);
-    return newProxy(
+    return newInstance(
         builderClass,
         new ComponentBuilderInvocationHandler(subcomponentClass, builderClass, scopeBuilder));
   }
 
+  /** Setters parsed from builder methods, shared by every instance of their builder. */
+  private static final ConcurrentHashMap<Method, ScopeSetter> SETTERS = new ConcurrentHashMap<>();
+
   private final Class<?> componentClass;
   private final Class<?> builderClass;
   private final ComponentScopeBuilder componentScopeBuilder;
@@ -106,11 +116,8 @@ final class ComponentBuilderInvocationHandler implements InvocationHandler {
     }
 
     Class<?> returnType = method.getReturnType();
-    Type[] parameterTypes = method.getGenericParameterTypes();
-    Annotation[][] parameterAnnotations = method.getParameterAnnotations();
-
     if (returnType.equals(componentClass)) {
-      if (parameterTypes.length != 0) {
+      if (args != null && args.length != 0) {
         throw new IllegalStateException(); // TODO must be no-arg
       }
       return ComponentInvocationHandler.create(componentClass, componentScopeBuilder.get());
@@ -118,70 +125,68 @@ final class ComponentBuilderInvocationHandler implements InvocationHandler {
 
     // TODO these are allowed to be void or a supertype
     if (returnType.equals(builderClass)) {
-      if (parameterTypes.length != 1) {
-        throw new IllegalStateException(); // TODO must be single arg
-      }
-      Object argument = args[0];
-
-      boolean isMethodBindsInstance = method.getAnnotation(BindsInstance.class) != null;
-      boolean isParameterBindsInstance =
-          Reflection.hasAnnotation(parameterAnnotations[0], BindsInstance.class);
-      if (isMethodBindsInstance || isParameterBindsInstance) {
-        if (isMethodBindsInstance && isParameterBindsInstance) {
-          throw new IllegalStateException(
-              "@Component.Builder setter method "
-                  + method.getDeclaringClass().getName()
-                  + '.'
-                  + method.getName()
-                  + " may not have @BindsInstance on both the method and its parameter; "
-                  + "choose one or the other");
-        }
-
-        Key key = Key.of(findQualifier(parameterAnnotations[0]), parameterTypes[0]);
-        // TODO most nullable annotations don't have runtime retention. so maybe just always allow?
-        // if (argument == null && !hasNullable(parameterAnnotations[0])) {
-        //  throw new NullPointerException(); // TODO message
-        // }
-        componentScopeBuilder.putBoundInstance(key, argument);
-      } else {
-        Type parameterType = parameterTypes[0];
-        if (parameterType instanceof Class<?>) {
-          Class<?> parameterClass = (Class<?>) parameterType;
-          if (argument == null) {
-            throw new NullPointerException(
-                "@Component.Builder parameter " + parameterClass.getName() + " was null");
-          }
-          if (parameterClass.getAnnotation(Module.class) != null) {
-            try {
-              componentScopeBuilder.setModule(parameterClass, argument);
-            } catch (IllegalArgumentException e) {
-              throw new IllegalStateException(
-                  "@Component.Builder has setters for modules that aren't required: "
-                      + method.getDeclaringClass().getName()
-                      + '.'
-                      + method.getName(),
-                  e);
-            }
-          } else {
-            try {
-              componentScopeBuilder.setDependency(parameterClass, argument);
-            } catch (IllegalArgumentException e) {
-              throw new IllegalStateException(
-                  "@Component.Builder has setters for dependencies that aren't required: "
-                      + method.getDeclaringClass().getName()
-                      + '.'
-                      + method.getName(),
-                  e);
-            }
-          }
-        } else {
-          throw new IllegalStateException(
-              method.toString()); // TODO report unsupported method shape
-        }
+      ScopeSetter setter = SETTERS.get(method);
+      if (setter == null) {
+        setter = parseSetter(method);
+        SETTERS.putIfAbsent(method, setter);
       }
+      setter.set(componentScopeBuilder, args[0]);
       return proxy;
     }
 
     throw new IllegalStateException(method.toString()); // TODO report unsupported method shape
   }
+
+  private static ScopeSetter parseSetter(Method method) {
+    Type[] parameterTypes = method.getGenericParameterTypes();
+    if (parameterTypes.length != 1) {
+      throw new IllegalStateException(); // TODO must be single arg
+    }
+    Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+
+    boolean isMethodBindsInstance = method.getAnnotation(BindsInstance.class) != null;
+    boolean isParameterBindsInstance =
+        Reflection.hasAnnotation(parameterAnnotations[0], BindsInstance.class);
+    if (isMethodBindsInstance || isParameterBindsInstance) {
+      if (isMethodBindsInstance && isParameterBindsInstance) {
+        throw new IllegalStateException(
+            "@Component.Builder setter method "
+                + method.getDeclaringClass().getName()
+                + '.'
+                + method.getName()
+                + " may not have @BindsInstance on both the method and its parameter; "
+                + "choose one or the other");
+      }
+
+      // TODO most nullable annotations don't have runtime retention. so maybe just always allow?
+      // if (argument == null && !hasNullable(parameterAnnotations[0])) {
+      //  throw new NullPointerException(); // TODO message
+      // }
+      return ScopeSetter.boundInstance(
+          Key.of(findQualifier(parameterAnnotations[0]), parameterTypes[0]));
+    }
+
+    Type parameterType = parameterTypes[0];
+    if (parameterType instanceof Class<?>) {
+      Class<?> parameterClass = (Class<?>) parameterType;
+      String nullMessage = "@Component.Builder parameter " + parameterClass.getName() + " was null";
+      if (parameterClass.getAnnotation(Module.class) != null) {
+        return ScopeSetter.module(
+            parameterClass,
+            nullMessage,
+            "@Component.Builder has setters for modules that aren't required: "
+                + method.getDeclaringClass().getName()
+                + '.'
+                + method.getName());
+      }
+      return ScopeSetter.dependency(
+          parameterClass,
+          nullMessage,
+          "@Component.Builder has setters for dependencies that aren't required: "
+              + method.getDeclaringClass().getName()
+              + '.'
+              + method.getName());
+    }
+    throw new IllegalStateException(method.toString()); // TODO report unsupported method shape
+  }
 }
@@ -2,9 +2,9 @@ package dagger.reflect;
 
 import static dagger.reflect.Reflection.findQualifier;
 import static dagger.reflect.Reflection.hasAnnotation;
-import static dagger.reflect.Reflection.newProxy;
 import static dagger.reflect.Reflection.requireAnnotation;
 import static dagger.reflect.Reflection.requireEnclosingClass;
+import static dagger.reflect.RuntimeClasses.newInstance;
 
 import dagger.BindsInstance;
 import dagger.Component;
@@ -15,6 +15,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.inject.Provider;
 
 final class ComponentFactoryInvocationHandler implements InvocationHandler {
@@ -22,16 +23,18 @@ final class ComponentFactoryInvocationHandler implements InvocationHandler {
     requireAnnotation(factoryClass, Component.Factory.class);
 
     Class<?> componentClass = requireEnclosingClass(factoryClass);
-    if (!Modifier.isPublic(componentClass.getModifiers())) {
+    if (!Modifier.isPublic(componentClass.getModifiers())
+        && !GeneratedComponents.isGenerated(componentClass)) {
       // Instances of proxies cannot create another proxy instance where the second interface is
       // not public. This prevents proxies of builders from creating proxies of the component.
+      // Generated implementations are created with their constructor so are not affected.
       throw new IllegalArgumentException(
           "Component interface "
               + componentClass.getCanonicalName()
               + " must be public in order to be reflectively created");
     }
 
-    return newProxy(
+    return newInstance(
         factoryClass,
         new ComponentFactoryInvocationHandler(
             componentClass, () -> ComponentScopeBuilder.buildComponent(componentClass)));
@@ -41,21 +44,31 @@ final class ComponentFactoryInvocationHandler implements InvocationHandler {
     requireAnnotation(factoryClass, Subcomponent.Factory.class);
 
     Class<?> componentClass = requireEnclosingClass(factoryClass);
-    if (!Modifier.isPublic(componentClass.getModifiers())) {
+    if (!Modifier.isPublic(componentClass.getModifiers())
+        && !GeneratedComponents.isGenerated(componentClass)) {
       // Instances of proxies cannot create another proxy instance where the second interface is
       // not public. This prevents proxies of builders from creating proxies of the component.
+      // Generated implementations are created with their constructor so are not affected.
       throw new IllegalArgumentException(
           "Component interface "
               + componentClass.getCanonicalName()
               + " must be public in order to be reflectively created");
     }
 
-    return newProxy(
+    return newInstance(
         factoryClass,
         new ComponentFactoryInvocationHandler(
             componentClass, () -> ComponentScopeBuilder.buildSubcomponent(componentClass, scope)));
   }
 
+  /**
+   * Setters for the parameters of factory methods, and of subcomponent factory methods on a
+   * component, shared by every instance of their factory or component. Keyed by the class which
+   * declares each method.
+   */
+  private static final ClassCache<ConcurrentHashMap<Method, ScopeSetter[]>> SETTERS =
+      ClassCache.create(cls -> new ConcurrentHashMap<>());
+
   private final Class<?> componentClass;
   private final Provider<ComponentScopeBuilder> componentScopeBuilderProvider;
 
@@ -82,45 +95,53 @@ final class ComponentFactoryInvocationHandler implements InvocationHandler {
   }
 
   static void parseFactoryMethod(Method method, Object[] args, ComponentScopeBuilder scopeBuilder) {
+    ConcurrentHashMap<Method, ScopeSetter[]> declaredSetters =
+        SETTERS.get(method.getDeclaringClass());
+    ScopeSetter[] setters = declaredSetters.get(method);
+    if (setters == null) {
+      setters = parseSetters(method);
+      declaredSetters.putIfAbsent(method, setters);
+    }
+    for (int i = 0; i < setters.length; i++) {
+      setters[i].set(scopeBuilder, args[i]);
+    }
+  }
+
+  private static ScopeSetter[] parseSetters(Method method) {
     Type[] parameterTypes = method.getGenericParameterTypes();
     Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+    ScopeSetter[] setters = new ScopeSetter[parameterTypes.length];
     for (int i = 0; i < parameterTypes.length; i++) {
       Type parameterType = parameterTypes[i];
-      Object argument = args[i];
 
       if (hasAnnotation(parameterAnnotations[i], BindsInstance.class)) {
         Annotation qualifier = findQualifier(parameterAnnotations[i]);
-        scopeBuilder.putBoundInstance(Key.of(qualifier, parameterType), argument);
+        setters[i] = ScopeSetter.boundInstance(Key.of(qualifier, parameterType));
       } else if (parameterType instanceof Class<?>) {
         Class<?> parameterClass = (Class<?>) parameterType;
-        if (argument == null) {
-          throw new NullPointerException(
-              "@Component.Factory parameter " + parameterClass.getName() + " was null");
-        }
+        String nullMessage =
+            "@Component.Factory parameter " + parameterClass.getName() + " was null";
         if (parameterClass.getAnnotation(Module.class) != null) {
-          try {
-            scopeBuilder.setModule(parameterClass, argument);
-          } catch (IllegalArgumentException e) {
-            throw new IllegalStateException(
-                "@Component.Factory has a parameter for module + "
-                    + parameterClass.getName()
-                    + " that isn't required",
-                e);
-          }
+          setters[i] =
+              ScopeSetter.module(
+                  parameterClass,
+                  nullMessage,
+                  "@Component.Factory has a parameter for module + "
+                      + parameterClass.getName()
+                      + " that isn't required");
         } else {
-          try {
-            scopeBuilder.setDependency(parameterClass, argument);
-          } catch (IllegalArgumentException e) {
-            throw new IllegalStateException(
-                "@Component.Factory has a parameter for dependency "
-                    + parameterClass.getName()
-                    + " that isn't required",
-                e);
-          }
+          setters[i] =
+              ScopeSetter.dependency(
+                  parameterClass,
+                  nullMessage,
+                  "@Component.Factory has a parameter for dependency "
+                      + parameterClass.getName()
+                      + " that isn't required");
         }
       } else {
         throw new IllegalStateException(parameterType.toString()); // TODO unknown argument type
       }
     }
+    return setters;
   }
 }
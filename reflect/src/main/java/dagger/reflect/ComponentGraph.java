@@ -0,0 +1,485 @@
+package dagger.reflect;
+
+import dagger.reflect.Binding.LinkedBinding;
+import dagger.reflect.StatisticsTracer.MeasuredBinding;
+import dagger.reflect.Tracer.TracingBinding;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A snapshot of the bindings of a component and of its ancestors which can be rendered as JSON or
+ * as Graphviz DOT.
+ *
+ * <p>Bindings are linked lazily, so only those which have been requested at the time of the
+ * snapshot have their dependencies included. Link and provision times are only available when the
+ * {@code dagger.reflect.stats} system property is {@code true}.
+ *
+ * @see DaggerReflect#graph(Object)
+ */
+public final class ComponentGraph {
+  static ComponentGraph of(Scope scope) {
+    List<Scope> scopes = new ArrayList<>();
+    for (Scope ancestor = scope; ancestor != null; ancestor = ancestor.parent()) {
+      scopes.add(0, ancestor);
+    }
+
+    List<Node> nodes = new ArrayList<>();
+    Map<Object, Node> bindingNodes = new IdentityHashMap<>();
+    Map<Scope, Map<Key, Node>> keyNodes = new IdentityHashMap<>();
+    for (int i = 0; i < scopes.size(); i++) {
+      Scope current = scopes.get(i);
+      Map<Key, Node> scopeKeyNodes = new LinkedHashMap<>();
+      keyNodes.put(current, scopeKeyNodes);
+
+      List<Map.Entry<Key, Binding>> entries = new ArrayList<>(current.bindings().entrySet());
+      Collections.sort(entries, (a, b) -> a.getKey().toString().compareTo(b.getKey().toString()));
+      for (Map.Entry<Key, Binding> entry : entries) {
+        Binding binding = entry.getValue();
+        Node node = bindingNodes.get(binding);
+        if (node == null || node.scope != i) {
+          // Bindings shared with an ancestor scope are rendered once per scope as an alias.
+          Node target = node;
+          node = new Node(nodes.size(), i, binding);
+          nodes.add(node);
+          if (target == null) {
+            bindingNodes.put(binding, node);
+          } else {
+            node.kind = "@Binds";
+            node.linked = binding instanceof LinkedBinding<?>;
+            node.dependencies.add(new Edge(target, null, "instance"));
+          }
+        }
+        node.keys.add(entry.getKey());
+        scopeKeyNodes.put(entry.getKey(), node);
+      }
+    }
+
+    // Resolving dependencies may append anonymous nodes which must also be resolved.
+    for (int i = 0; i < nodes.size(); i++) {
+      Node node = nodes.get(i);
+      if (node.kind == null) {
+        resolve(node, nodes, bindingNodes, keyNodes);
+      }
+    }
+    for (Node node : nodes) {
+      for (Edge edge : node.dependencies) {
+        if (edge.target != null) {
+          edge.target.dependents++;
+        }
+      }
+    }
+    return new ComponentGraph(scopes, nodes);
+  }
+
+  private static void resolve(
+      Node node,
+      List<Node> nodes,
+      Map<Object, Node> bindingNodes,
+      Map<Scope, Map<Key, Node>> keyNodes) {
+    if (!(node.binding instanceof LinkedBinding<?>)) {
+      node.kind = node.binding.toString();
+      return;
+    }
+    node.linked = true;
+
+    LinkedBinding<?> binding = (LinkedBinding<?>) node.binding;
+    while (true) {
+      if (binding instanceof TracingBinding<?>) {
+        if (binding instanceof MeasuredBinding<?> && node.statistics == null) {
+          node.statistics = (MeasuredBinding<?>) binding;
+        }
+        binding = ((TracingBinding<?>) binding).delegate;
+      } else if (binding instanceof LinkedScopedBinding<?>) {
+        node.scoped = true;
+        binding = ((LinkedScopedBinding<?>) binding).unscoped();
+      } else {
+        break;
+      }
+      Node target = bindingNodes.get(binding);
+      if (target != null && target != node) {
+        // A @Binds method delegates directly to the linked binding of another key.
+        node.kind = "@Binds";
+        node.dependencies.add(new Edge(target, null, "instance"));
+        return;
+      }
+    }
+
+    node.kind = binding.toString();
+    for (LinkedBinding<?> dependency : binding.dependencies()) {
+      if (dependency instanceof LinkedProviderBinding<?>) {
+        LinkedProviderBinding<?> provider = (LinkedProviderBinding<?>) dependency;
+        Node target = find(keyNodes, provider.scope(), provider.key());
+        node.dependencies.add(new Edge(target, provider.key(), "provider"));
+      } else if (dependency instanceof LinkedLazyBinding<?>) {
+        LinkedLazyBinding<?> lazy = (LinkedLazyBinding<?>) dependency;
+        Node target = find(keyNodes, lazy.scope(), lazy.key());
+        node.dependencies.add(new Edge(target, lazy.key(), "lazy"));
+      } else {
+        Node target = bindingNodes.get(dependency);
+        if (target == null) {
+          // Bindings which are not bound to a key, such as the elements of a multibinding.
+          target = new Node(nodes.size(), node.scope, dependency);
+          nodes.add(target);
+          bindingNodes.put(dependency, target);
+        }
+        node.dependencies.add(new Edge(target, null, "instance"));
+      }
+    }
+  }
+
+  private static @Nullable Node find(Map<Scope, Map<Key, Node>> keyNodes, Scope scope, Key key) {
+    for (Scope current = scope; current != null; current = current.parent()) {
+      Map<Key, Node> scopeKeyNodes = keyNodes.get(current);
+      if (scopeKeyNodes != null) {
+        Node node = scopeKeyNodes.get(key);
+        if (node != null) {
+          return node;
+        }
+      }
+    }
+    return null;
+  }
+
+  private final List<Scope> scopes;
+  private final List<Node> nodes;
+
+  private ComponentGraph(List<Scope> scopes, List<Node> nodes) {
+    this.scopes = scopes;
+    this.nodes = nodes;
+  }
+
+  /**
+   * The number of times linking a binding or looking up a just-in-time binding in any of the
+   * captured scopes was thrown away because another thread finished the same work first.
+   */
+  public int discardedLinks() {
+    int discardedLinks = 0;
+    for (Scope scope : scopes) {
+      discardedLinks += scope.discardedLinks();
+    }
+    return discardedLinks;
+  }
+
+  /**
+   * Render as a JSON object with a {@code scopes} array, ordered from the root component, and a
+   * {@code bindings} array. Each binding references its scope and dependencies by index.
+   */
+  public String toJson() {
+    StringBuilder builder = new StringBuilder();
+    builder.append("{\n  \"scopes\": [");
+    for (int i = 0; i < scopes.size(); i++) {
+      Scope scope = scopes.get(i);
+      builder.append(i == 0 ? "\n    " : ",\n    ");
+      builder.append("{\"id\": ").append(i);
+      builder.append(", \"component\": ");
+      appendJsonString(builder, scope.componentClass().getName());
+      builder.append(", \"annotations\": [");
+      boolean first = true;
+      for (Annotation annotation : scope.annotations()) {
+        if (!first) builder.append(", ");
+        first = false;
+        appendJsonString(builder, annotation.toString());
+      }
+      builder.append("], \"parent\": ").append(i == 0 ? "null" : String.valueOf(i - 1));
+      builder.append(", \"discardedLinks\": ").append(scope.discardedLinks());
+      builder.append('}');
+    }
+    builder.append("\n  ],\n  \"bindings\": [");
+    for (Node node : nodes) {
+      builder.append(node.id == 0 ? "\n    " : ",\n    ");
+      builder.append("{\"id\": ").append(node.id);
+      builder.append(", \"scope\": ").append(node.scope);
+      builder.append(", \"keys\": [");
+      for (int i = 0; i < node.keys.size(); i++) {
+        if (i > 0) builder.append(", ");
+        appendJsonString(builder, node.keys.get(i).toString());
+      }
+      builder.append("], \"kind\": ");
+      appendJsonString(builder, node.kind());
+      builder.append(", \"linked\": ").append(node.linked);
+      builder.append(", \"scoped\": ").append(node.scoped);
+      builder.append(", \"dependents\": ").append(node.dependents);
+      builder.append(", \"dependencies\": [");
+      for (int i = 0; i < node.dependencies.size(); i++) {
+        Edge edge = node.dependencies.get(i);
+        if (i > 0) builder.append(", ");
+        builder.append("{\"binding\": ");
+        builder.append(edge.target != null ? String.valueOf(edge.target.id) : "null");
+        if (edge.key != null) {
+          builder.append(", \"key\": ");
+          appendJsonString(builder, edge.key.toString());
+        }
+        builder.append(", \"request\": \"").append(edge.request).append("\"}");
+      }
+      builder.append(']');
+      MeasuredBinding<?> statistics = node.statistics;
+      if (statistics != null) {
+        builder.append(", \"linkNanos\": ").append(statistics.linkNanos);
+        builder.append(", \"provisions\": ").append(statistics.provisions());
+        builder.append(", \"provisionNanos\": ").append(statistics.provisionNanos());
+      }
+      builder.append('}');
+    }
+    builder.append("\n  ]\n}\n");
+    return builder.toString();
+  }
+
+  /**
+   * Render as a Graphviz directed graph with a cluster per scope. Scoped bindings have a double
+   * border, unlinked bindings are dotted, and {@code Provider} or {@code Lazy} requests are dashed.
+   */
+  public String toDot() {
+    StringBuilder builder = new StringBuilder();
+    builder.append("digraph ");
+    appendDotString(builder, scopes.get(scopes.size() - 1).componentClass().getName());
+    builder.append(" {\n  node [shape=box];\n");
+    for (int i = 0; i < scopes.size(); i++) {
+      Scope scope = scopes.get(i);
+      builder.append("  subgraph cluster_").append(i).append(" {\n    label=");
+      appendDotString(builder, scope.componentClass().getName() + ' ' + scope.annotations());
+      builder.append(";\n");
+      for (Node node : nodes) {
+        if (node.scope != i) continue;
+        StringBuilder label = new StringBuilder();
+        for (Key key : node.keys) {
+          label.append(key).append('\n');
+        }
+        label.append(node.kind());
+        MeasuredBinding<?> statistics = node.statistics;
+        if (statistics != null) {
+          label
+              .append("\nlink ")
+              .append(statistics.linkNanos / 1000)
+              .append(" us, ")
+              .append(statistics.provisions())
+              .append(" provisions in ")
+              .append(statistics.provisionNanos() / 1000)
+              .append(" us");
+        }
+        builder.append("    n").append(node.id).append(" [label=");
+        appendDotString(builder, label.toString());
+        if (node.scoped) builder.append(", peripheries=2");
+        if (!node.linked) builder.append(", style=dotted");
+        builder.append("];\n");
+      }
+      builder.append("  }\n");
+    }
+    int unbound = 0;
+    for (Node node : nodes) {
+      for (Edge edge : node.dependencies) {
+        String target;
+        if (edge.target != null) {
+          target = "n" + edge.target.id;
+        } else {
+          // Provider and Lazy requests whose key has not yet been bound.
+          target = "u" + unbound++;
+          builder.append("  ").append(target).append(" [label=");
+          appendDotString(builder, String.valueOf(edge.key));
+          builder.append(", style=dotted];\n");
+        }
+        builder.append("  n").append(node.id).append(" -> ").append(target);
+        if (!"instance".equals(edge.request)) {
+          builder.append(" [style=dashed, label=\"").append(edge.request).append("\"]");
+        }
+        builder.append(";\n");
+      }
+    }
+    builder.append("}\n");
+    return builder.toString();
+  }
+
+  /**
+   * Render a plain text report which ranks unscoped bindings by the total time spent provisioning
+   * them, which is their number of provisions multiplied by the mean duration, and suggests
+   * {@code @Reusable} for those whose instances were identical, equal, or immutable. Scoped
+   * bindings which were requested at most once are listed after. Requires the {@code
+   * dagger.reflect.stats} system property to be {@code true}.
+   */
+  public String toScopingReport() {
+    List<Node> unscoped = new ArrayList<>();
+    List<Node> scoped = new ArrayList<>();
+    boolean measured = false;
+    for (Node node : nodes) {
+      MeasuredBinding<?> statistics = node.statistics;
+      if (statistics == null) continue;
+      measured = true;
+      if (node.scoped) {
+        if (statistics.provisions() <= 1) {
+          scoped.add(node);
+        }
+      } else if (statistics.provisions() > 1 && !"@Binds".equals(node.kind)) {
+        unscoped.add(node);
+      }
+    }
+    if (!measured) {
+      return "No statistics were recorded. Set the dagger.reflect.stats system property to true.\n";
+    }
+    Collections.sort(unscoped, (a, b) -> Long.compare(provisionNanos(b), provisionNanos(a)));
+
+    StringBuilder builder = new StringBuilder();
+    builder.append("Unscoped bindings provisioned more than once, by total provision time:\n");
+    for (Node node : unscoped) {
+      MeasuredBinding<?> statistics = node.statistics;
+      if (statistics == null) throw new AssertionError();
+      long provisions = statistics.provisions();
+      long provisionNanos = statistics.provisionNanos();
+      builder
+          .append("  ")
+          .append(node.keys.isEmpty() ? node.kind() : node.keys.get(0).toString())
+          .append("\n    ")
+          .append(provisions)
+          .append(" provisions, ")
+          .append(provisionNanos / 1000)
+          .append(" us total, ")
+          .append(provisionNanos / provisions / 1000)
+          .append(" us mean: ");
+      Class<?> instanceClass = statistics.instanceClass();
+      if (statistics.sameInstances()) {
+        builder.append("returned the same instance each time, consider @Reusable");
+      } else if (statistics.equalInstances()) {
+        builder.append("returned equal instances, consider @Reusable");
+      } else if (instanceClass != null && isImmutable(instanceClass)) {
+        builder.append("instances are immutable, consider @Reusable");
+      } else {
+        builder.append("consider a scope if instances can be shared");
+      }
+      builder.append('\n');
+    }
+    builder.append("Scoped bindings requested at most once:\n");
+    for (Node node : scoped) {
+      MeasuredBinding<?> statistics = node.statistics;
+      if (statistics == null) throw new AssertionError();
+      builder
+          .append("  ")
+          .append(node.keys.isEmpty() ? node.kind() : node.keys.get(0).toString())
+          .append("\n    ")
+          .append(statistics.provisions() == 0 ? "never requested" : "requested once")
+          .append(" in ")
+          .append(scopes.get(node.scope).componentClass().getName())
+          .append(", the scope only retains its instance\n");
+    }
+    return builder.toString();
+  }
+
+  private static long provisionNanos(Node node) {
+    MeasuredBinding<?> statistics = node.statistics;
+    return statistics != null ? statistics.provisionNanos() : 0;
+  }
+
+  /** True when every instance field of {@code cls} and of its superclasses is final. */
+  private static boolean isImmutable(Class<?> cls) {
+    if (cls.isArray()) {
+      return false;
+    }
+    for (Class<?> current = cls; current != Object.class; current = current.getSuperclass()) {
+      if (current == null) break; // Interfaces and primitives have no superclass.
+      for (Field field : current.getDeclaredFields()) {
+        int modifiers = field.getModifiers();
+        if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "ComponentGraph{scopes=" + scopes.size() + ", bindings=" + nodes.size() + '}';
+  }
+
+  private static void appendJsonString(StringBuilder builder, String value) {
+    builder.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          builder.append("\\\"");
+          break;
+        case '\\':
+          builder.append("\\\\");
+          break;
+        case '\n':
+          builder.append("\\n");
+          break;
+        default:
+          if (c < 0x20) {
+            builder.append(String.format("\\u%04x", (int) c));
+          } else {
+            builder.append(c);
+          }
+      }
+    }
+    builder.append('"');
+  }
+
+  private static void appendDotString(StringBuilder builder, String value) {
+    builder.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          builder.append("\\\"");
+          break;
+        case '\\':
+          builder.append("\\\\");
+          break;
+        case '\n':
+          builder.append("\\n");
+          break;
+        default:
+          builder.append(c);
+      }
+    }
+    builder.append('"');
+  }
+
+  private static final class Node {
+    final int id;
+    /** Index of the owning scope, where zero is the root component. */
+    final int scope;
+
+    final Object binding;
+    final List<Key> keys = new ArrayList<>();
+    final List<Edge> dependencies = new ArrayList<>();
+    @Nullable String kind;
+    boolean linked;
+    boolean scoped;
+    int dependents;
+    @Nullable MeasuredBinding<?> statistics;
+
+    Node(int id, int scope, Object binding) {
+      this.id = id;
+      this.scope = scope;
+      this.binding = binding;
+    }
+
+    String kind() {
+      String kind = this.kind;
+      if (kind == null) throw new IllegalStateException("Unresolved binding " + binding);
+      return kind;
+    }
+  }
+
+  private static final class Edge {
+    final @Nullable Node target;
+    /** The requested key, only present for {@code Provider} and {@code Lazy} requests. */
+    final @Nullable Key key;
+
+    final String request;
+
+    Edge(@Nullable Node target, @Nullable Key key, String request) {
+      this.target = target;
+      this.key = key;
+      this.request = request;
+    }
+  }
+}
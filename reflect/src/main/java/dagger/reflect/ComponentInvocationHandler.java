@@ -15,7 +15,6 @@
  */
 package dagger.reflect;
 
-import static dagger.reflect.Reflection.findQualifier;
 import static dagger.reflect.Reflection.newProxy;
 
 import dagger.MembersInjector;
@@ -23,7 +22,7 @@ import dagger.Subcomponent;
 import dagger.reflect.Binding.LinkedBinding;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.lang.reflect.Type;
+import java.lang.reflect.Proxy;
 import java.util.concurrent.ConcurrentHashMap;
 import org.jetbrains.annotations.Nullable;
 
@@ -39,12 +38,91 @@ final class ComponentInvocationHandler implements InvocationHandler {
     scopeBuilder.addBinding(componentKey, componentBinding);
 
     Scope scope = scopeBuilder.build();
-    C instance = newProxy(cls, new ComponentInvocationHandler(scope));
-    componentBinding.setValue(instance);
+    C instance = instantiate(cls, scope, componentBinding);
 
+    ProfileTracer profile = ProfileTracer.INSTANCE;
+    if (profile != null) {
+      profile.warmUp(scope);
+    }
+    LeakDetector leaks = LeakDetector.INSTANCE;
+    if (leaks != null) {
+      leaks.track(scope);
+    }
     return instance;
   }
 
+  /**
+   * Create another instance of {@code component} whose scope initially shares the bindings and
+   * scoped instances of its scope which cannot differ between the two.
+   *
+   * @throws IllegalArgumentException if {@code component} is a subcomponent or was not created by
+   *     this library.
+   */
+  static <C> C fork(C component) {
+    Scope scope = scopeOf(component);
+    if (scope.parent() != null) {
+      throw new IllegalArgumentException(
+          scope.componentClass().getName() + " is a subcomponent. Only components can be forked.");
+    }
+    @SuppressWarnings("unchecked") // The component implements the class of its scope.
+    Class<C> cls = (Class<C>) scope.componentClass();
+    LinkedLateInstanceBinding<C> componentBinding = new LinkedLateInstanceBinding<>();
+    Scope forked = scope.fork(Key.of(null, cls), componentBinding);
+    return instantiate(cls, forked, componentBinding);
+  }
+
+  private static <C> C instantiate(
+      Class<C> cls, Scope scope, LinkedLateInstanceBinding<C> componentBinding) {
+    C instance = GeneratedComponents.create(cls, scope);
+    if (instance == null) {
+      instance = newProxy(cls, new ComponentInvocationHandler(scope));
+    }
+    componentBinding.setValue(instance);
+    return instance;
+  }
+
+  /**
+   * Returns the scope backing {@code component}.
+   *
+   * @throws IllegalArgumentException if {@code component} was not created by this library.
+   */
+  static Scope scopeOf(Object component) {
+    Scope scope = findScope(component);
+    if (scope == null) {
+      throw new IllegalArgumentException(
+          component.getClass().getName() + " is not a component created by dagger-reflect");
+    }
+    return scope;
+  }
+
+  /** Returns the scope backing {@code component}, or null if it was not created by this library. */
+  static @Nullable Scope findScope(Object component) {
+    if (Proxy.isProxyClass(component.getClass())) {
+      InvocationHandler handler = Proxy.getInvocationHandler(component);
+      if (handler instanceof ComponentInvocationHandler) {
+        return ((ComponentInvocationHandler) handler).scope;
+      }
+      return null;
+    }
+    return GeneratedComponents.scopeOf(component);
+  }
+
+  /**
+   * The number of methods of {@code component} which have been called and had a handler created, or
+   * -1 if it was not created by this library. For diagnostics only.
+   */
+  static int handlerCount(Object component) {
+    if (Proxy.isProxyClass(component.getClass())) {
+      InvocationHandler handler = Proxy.getInvocationHandler(component);
+      if (handler instanceof ComponentInvocationHandler) {
+        return ((ComponentInvocationHandler) handler).handlers.size();
+      }
+      return -1;
+    }
+    ComponentSlots slots = GeneratedComponents.slotsOf(component);
+    return slots != null ? slots.resolvedSlots() : -1;
+  }
+
   private final Scope scope;
   private final ConcurrentHashMap<Method, MethodInvocationHandler> handlers =
       new ConcurrentHashMap<>();
@@ -70,41 +148,36 @@ final class ComponentInvocationHandler implements InvocationHandler {
     return handler.invoke(args);
   }
 
-  private static ComponentInvocationHandler.MethodInvocationHandler createMethodInvocationHandler(
-      Method method, Scope scope) {
-    Type returnType = method.getGenericReturnType();
+  static MethodInvocationHandler createMethodInvocationHandler(Method method, Scope scope) {
+    Class<?> returnClass = method.getReturnType();
     Class<?>[] parameterTypes = method.getParameterTypes();
 
-    if (returnType instanceof Class<?>) {
-      Class<?> returnClass = (Class<?>) returnType;
-      if (returnClass.getAnnotation(Subcomponent.class) != null) {
-        return new SubcomponentMethodInvocationHandler(method, returnClass, scope);
-      }
-      if (returnClass.getAnnotation(Subcomponent.Builder.class) != null) {
-        if (parameterTypes.length != 0) {
-          throw new IllegalStateException(method.toString()); // TODO
-        }
-        return new SubcomponentBuilderMethodInvocationHandler(returnClass, scope);
+    if (returnClass.getAnnotation(Subcomponent.class) != null) {
+      return new SubcomponentMethodInvocationHandler(method, returnClass, scope);
+    }
+    if (returnClass.getAnnotation(Subcomponent.Builder.class) != null) {
+      if (parameterTypes.length != 0) {
+        throw new IllegalStateException(method.toString()); // TODO
       }
-      if (returnClass.getAnnotation(Subcomponent.Factory.class) != null) {
-        if (parameterTypes.length != 0) {
-          throw new IllegalStateException(method.toString()); // TODO
-        }
-        return new SubcomponentFactoryMethodInvocationHandler(returnClass, scope);
+      return new SubcomponentBuilderMethodInvocationHandler(returnClass, scope);
+    }
+    if (returnClass.getAnnotation(Subcomponent.Factory.class) != null) {
+      if (parameterTypes.length != 0) {
+        throw new IllegalStateException(method.toString()); // TODO
       }
+      return new SubcomponentFactoryMethodInvocationHandler(returnClass, scope);
     }
 
     if (parameterTypes.length == 0) {
-      Key key = Key.of(findQualifier(method.getDeclaredAnnotations()), returnType);
-      LinkedBinding<?> binding = scope.getBinding(key);
+      LinkedBinding<?> binding = scope.getBinding(MemberMetadata.returnKey(method));
       return new ProvisionMethodInvocationHandler(binding);
     }
 
     if (parameterTypes.length == 1) {
       boolean returnInstance;
-      if (returnType == void.class) {
+      if (returnClass == void.class) {
         returnInstance = false;
-      } else if (method.getReturnType().equals(parameterTypes[0])) {
+      } else if (returnClass.equals(parameterTypes[0])) {
         returnInstance = true;
       } else {
         throw new IllegalStateException(
@@ -124,13 +197,13 @@ final class ComponentInvocationHandler implements InvocationHandler {
     throw new IllegalStateException(method.toString()); // TODO unsupported method shape
   }
 
-  private interface MethodInvocationHandler {
+  interface MethodInvocationHandler {
     @Nullable
     Object invoke(Object[] args);
   }
 
-  private static final class ProvisionMethodInvocationHandler implements MethodInvocationHandler {
-    private final LinkedBinding<?> binding;
+  static final class ProvisionMethodInvocationHandler implements MethodInvocationHandler {
+    final LinkedBinding<?> binding;
 
     ProvisionMethodInvocationHandler(LinkedBinding<?> binding) {
       this.binding = binding;
@@ -18,69 +18,91 @@ import java.util.Set;
 import org.jetbrains.annotations.Nullable;
 
 final class ComponentScopeBuilder {
+  /** The modules, dependencies, and scope declared by each component class. */
+  private static final ClassCache<Declaration> COMPONENT_DECLARATIONS =
+      ClassCache.create(
+          componentClass -> {
+            Component component = requireAnnotation(componentClass, Component.class);
+            Set<Annotation> scopeAnnotations = findScopes(componentClass.getDeclaredAnnotations());
+            return new Declaration(
+                ModuleClosure.of(component.modules()), component.dependencies(), scopeAnnotations);
+          });
+  /** The modules and scope declared by each subcomponent class. */
+  private static final ClassCache<Declaration> SUBCOMPONENT_DECLARATIONS =
+      ClassCache.create(
+          subcomponentClass -> {
+            Subcomponent subcomponent = requireAnnotation(subcomponentClass, Subcomponent.class);
+            Set<Annotation> scopeAnnotations =
+                findScopes(subcomponentClass.getDeclaredAnnotations());
+            return new Declaration(
+                ModuleClosure.of(subcomponent.modules()), new Class<?>[0], scopeAnnotations);
+          });
+
   static ComponentScopeBuilder buildComponent(Class<?> componentClass) {
-    Component component = requireAnnotation(componentClass, Component.class);
-    Set<Annotation> scopeAnnotation = findScopes(componentClass.getDeclaredAnnotations());
-    return create(component.modules(), component.dependencies(), scopeAnnotation, null);
+    return new ComponentScopeBuilder(
+        componentClass, COMPONENT_DECLARATIONS.get(componentClass), null);
   }
 
   static ComponentScopeBuilder buildSubcomponent(Class<?> subcomponentClass, Scope parent) {
-    Subcomponent subcomponent = requireAnnotation(subcomponentClass, Subcomponent.class);
-    Set<Annotation> scopeAnnotation = findScopes(subcomponentClass.getDeclaredAnnotations());
-    return create(subcomponent.modules(), new Class<?>[0], scopeAnnotation, parent);
+    return new ComponentScopeBuilder(
+        subcomponentClass, SUBCOMPONENT_DECLARATIONS.get(subcomponentClass), parent);
   }
 
   static ComponentScopeBuilder create(
+      Class<?> componentClass,
       Class<?>[] moduleClasses,
       Class<?>[] dependencyClasses,
       Set<Annotation> scopeAnnotations,
       @Nullable Scope parent) {
-    Map<Class<?>, Object> moduleInstances = new LinkedHashMap<>();
-    Set<Class<?>> subcomponentClasses = new LinkedHashSet<>();
-
-    Deque<Class<?>> moduleClassQueue = new ArrayDeque<>();
-    Collections.addAll(moduleClassQueue, moduleClasses);
-    while (!moduleClassQueue.isEmpty()) {
-      Class<?> moduleClass = moduleClassQueue.removeFirst();
-      Module module = requireAnnotation(moduleClass, Module.class);
+    Declaration declaration =
+        new Declaration(ModuleClosure.of(moduleClasses), dependencyClasses, scopeAnnotations);
+    return new ComponentScopeBuilder(componentClass, declaration, parent);
+  }
 
-      Collections.addAll(moduleClassQueue, module.includes());
-      Collections.addAll(subcomponentClasses, module.subcomponents());
+  private final Class<?> componentClass;
+  private final Map<Key, Object> boundInstances;
+  private final Map<Class<?>, Object> moduleInstances;
+  private final Map<Class<?>, Object> dependencyInstances;
+  private final Class<?>[] subcomponentClasses;
+  private final Set<Annotation> scopeAnnotations;
+  private final @Nullable Scope parent;
 
-      // Start with all modules bound to null. Any remaining nulls will be assumed stateless.
+  private ComponentScopeBuilder(
+      Class<?> componentClass, Declaration declaration, @Nullable Scope parent) {
+    Class<?>[] moduleClasses = declaration.modules.modules;
+    // Start with all modules bound to null. Any remaining nulls will be assumed stateless.
+    Map<Class<?>, Object> moduleInstances =
+        new LinkedHashMap<>((int) (moduleClasses.length / 0.75f) + 1);
+    for (Class<?> moduleClass : moduleClasses) {
       moduleInstances.put(moduleClass, null);
     }
 
     Map<Class<?>, Object> dependencyInstances = new LinkedHashMap<>();
-    for (Class<?> dependencyClass : dependencyClasses) {
+    for (Class<?> dependencyClass : declaration.dependencies) {
       // Start with all dependencies as null. Any remaining nulls at creation time is an error.
       dependencyInstances.put(dependencyClass, null);
     }
 
-    return new ComponentScopeBuilder(
-        moduleInstances, dependencyInstances, subcomponentClasses, scopeAnnotations, parent);
-  }
-
-  private final Map<Key, Object> boundInstances = new LinkedHashMap<>();
-  private final Map<Class<?>, Object> moduleInstances;
-  private final Map<Class<?>, Object> dependencyInstances;
-  private final Set<Class<?>> subcomponentClasses;
-  private final Set<Annotation> scopeAnnotations;
-  private final @Nullable Scope parent;
-
-  private ComponentScopeBuilder(
-      Map<Class<?>, Object> moduleInstances,
-      Map<Class<?>, Object> dependencyInstances,
-      Set<Class<?>> subcomponentClasses,
-      Set<Annotation> scopeAnnotations,
-      @Nullable Scope parent) {
+    this.componentClass = componentClass;
+    this.boundInstances = new LinkedHashMap<>();
     this.moduleInstances = moduleInstances;
     this.dependencyInstances = dependencyInstances;
-    this.subcomponentClasses = subcomponentClasses;
-    this.scopeAnnotations = scopeAnnotations;
+    this.subcomponentClasses = declaration.modules.subcomponents;
+    this.scopeAnnotations = declaration.scopeAnnotations;
     this.parent = parent;
   }
 
+  /** A copy which is unaffected when a component builder goes on to change {@code original}. */
+  private ComponentScopeBuilder(ComponentScopeBuilder original) {
+    this.componentClass = original.componentClass;
+    this.boundInstances = new LinkedHashMap<>(original.boundInstances);
+    this.moduleInstances = new LinkedHashMap<>(original.moduleInstances);
+    this.dependencyInstances = new LinkedHashMap<>(original.dependencyInstances);
+    this.subcomponentClasses = original.subcomponentClasses;
+    this.scopeAnnotations = original.scopeAnnotations;
+    this.parent = original.parent;
+  }
+
   void putBoundInstance(Key key, Object instance) {
     boundInstances.put(key, instance);
   }
@@ -112,10 +134,15 @@ final class ComponentScopeBuilder {
   }
 
   Scope.Builder get() {
+    Object trace = Tracer.INSTANCE.beginComponent();
     Scope.Builder scopeBuilder =
-        new Scope.Builder(parent, scopeAnnotations)
+        new Scope.Builder(componentClass, parent, scopeAnnotations)
             .addJustInTimeLookupFactory(new ReflectiveJustInTimeLookupFactory())
             .addJustInTimeLookupFactory(new MembersInjectorJustInTimeFactory());
+    if (parent == null) {
+      // Only the few instances passed in are copied. Forks parse the modules again.
+      scopeBuilder.keepSource(new ComponentScopeBuilder(this));
+    }
 
     for (Map.Entry<Key, Object> entry : boundInstances.entrySet()) {
       scopeBuilder.addInstance(entry.getKey(), entry.getValue());
@@ -161,6 +188,53 @@ final class ComponentScopeBuilder {
       }
     }
 
+    Tracer.INSTANCE.endComponent(trace, componentClass, moduleInstances.size());
     return scopeBuilder;
   }
+
+  private static final class Declaration {
+    final ModuleClosure modules;
+    final Class<?>[] dependencies;
+    final Set<Annotation> scopeAnnotations;
+
+    Declaration(ModuleClosure modules, Class<?>[] dependencies, Set<Annotation> scopeAnnotations) {
+      this.modules = modules;
+      this.dependencies = dependencies;
+      this.scopeAnnotations = scopeAnnotations;
+    }
+  }
+
+  /** The modules transitively included by a set of modules, and the subcomponents they declare. */
+  private static final class ModuleClosure {
+    static ModuleClosure of(Class<?>[] moduleClasses) {
+      Set<Class<?>> modules = new LinkedHashSet<>();
+      Set<Class<?>> subcomponents = new LinkedHashSet<>();
+
+      Deque<Class<?>> moduleClassQueue = new ArrayDeque<>();
+      Collections.addAll(moduleClassQueue, moduleClasses);
+      while (!moduleClassQueue.isEmpty()) {
+        Class<?> moduleClass = moduleClassQueue.removeFirst();
+        if (!modules.add(moduleClass)) {
+          continue; // Already reached through another include. Its includes are already queued.
+        }
+        Module module = requireAnnotation(moduleClass, Module.class);
+
+        Collections.addAll(moduleClassQueue, module.includes());
+        Collections.addAll(subcomponents, module.subcomponents());
+      }
+
+      return new ModuleClosure(
+          modules.toArray(new Class<?>[0]), subcomponents.toArray(new Class<?>[0]));
+    }
+
+    /** In breadth-first order, which determines the order of multibinding contributions. */
+    final Class<?>[] modules;
+
+    final Class<?>[] subcomponents;
+
+    private ModuleClosure(Class<?>[] modules, Class<?>[] subcomponents) {
+      this.modules = modules;
+      this.subcomponents = subcomponents;
+    }
+  }
 }
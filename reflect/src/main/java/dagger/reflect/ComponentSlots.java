@@ -0,0 +1,94 @@
+package dagger.reflect;
+
+import dagger.reflect.Binding.LinkedBinding;
+import dagger.reflect.ComponentInvocationHandler.MethodInvocationHandler;
+import dagger.reflect.ComponentInvocationHandler.ProvisionMethodInvocationHandler;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The methods of a component implementation generated by reflect-compiler when its {@code
+ * dagger.reflect.generateComponents} option is {@code enabled}. Each abstract method of the
+ * component is assigned a slot which the generated method reads directly instead of being
+ * dispatched through a {@link java.lang.reflect.Proxy}.
+ *
+ * <p>Like the methods of a proxied component, each slot is resolved against the component's scope
+ * on first use.
+ */
+public final class ComponentSlots {
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  final Scope scope;
+  private final Method[] methods;
+  private final AtomicReferenceArray<MethodInvocationHandler> handlers;
+
+  ComponentSlots(Scope scope, Method[] methods) {
+    this.scope = scope;
+    this.methods = methods;
+    this.handlers = new AtomicReferenceArray<>(methods.length);
+  }
+
+  /** Invoke the method in {@code slot} which has no parameters. */
+  public @Nullable Object get(int slot) {
+    return handler(slot).invoke(NO_ARGUMENTS);
+  }
+
+  /** Invoke the method in {@code slot} which has no parameters and returns {@code int}. */
+  public int getInt(int slot) {
+    MethodInvocationHandler handler = handler(slot);
+    if (handler instanceof ProvisionMethodInvocationHandler) {
+      LinkedBinding<?> binding = ((ProvisionMethodInvocationHandler) handler).binding;
+      if (binding.providesInt()) {
+        return binding.getInt();
+      }
+    }
+    return (Integer) requireValue(handler.invoke(NO_ARGUMENTS), slot);
+  }
+
+  /** Invoke the method in {@code slot} which has no parameters and returns {@code long}. */
+  public long getLong(int slot) {
+    MethodInvocationHandler handler = handler(slot);
+    if (handler instanceof ProvisionMethodInvocationHandler) {
+      LinkedBinding<?> binding = ((ProvisionMethodInvocationHandler) handler).binding;
+      if (binding.providesLong()) {
+        return binding.getLong();
+      }
+    }
+    return (Long) requireValue(handler.invoke(NO_ARGUMENTS), slot);
+  }
+
+  /** Invoke the method in {@code slot} with {@code arguments}. */
+  public @Nullable Object invoke(int slot, Object[] arguments) {
+    return handler(slot).invoke(arguments);
+  }
+
+  /** The number of slots which have been used. For diagnostics only. */
+  int resolvedSlots() {
+    int resolved = 0;
+    for (int i = 0; i < handlers.length(); i++) {
+      if (handlers.get(i) != null) {
+        resolved++;
+      }
+    }
+    return resolved;
+  }
+
+  private Object requireValue(@Nullable Object value, int slot) {
+    if (value == null) {
+      throw new NullPointerException("Null returned for primitive from " + methods[slot]);
+    }
+    return value;
+  }
+
+  private MethodInvocationHandler handler(int slot) {
+    MethodInvocationHandler handler = handlers.get(slot);
+    if (handler == null) {
+      handler = ComponentInvocationHandler.createMethodInvocationHandler(methods[slot], scope);
+      if (!handlers.compareAndSet(slot, null, handler)) {
+        handler = handlers.get(slot);
+      }
+    }
+    return handler;
+  }
+}
@@ -15,6 +15,16 @@
  */
 package dagger.reflect;
 
+import dagger.reflect.Binding.LinkedBinding;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.inject.Provider;
+import javax.inject.Qualifier;
+import org.jetbrains.annotations.Nullable;
+
 public final class DaggerReflect {
   public static <C> C create(Class<C> componentClass) {
     return ComponentInvocationHandler.forComponent(componentClass);
@@ -32,6 +42,192 @@ public final class DaggerReflect {
     return ComponentFactoryInvocationHandler.forComponentFactory(factoryClass);
   }
 
+  /**
+   * Create another instance of {@code component} from the same modules and instances, without
+   * linking its bindings again. The new instance shares the linked bindings and the scoped
+   * instances which {@code component} has already created, as well as anything which only depends
+   * on those. Scoped instances which neither has created yet are created separately by each, as is
+   * anything which depends on them. The new instance can be forked in turn.
+   *
+   * @param component A component created by this library. Subcomponents cannot be forked.
+   */
+  public static <C> C fork(C component) {
+    return ComponentInvocationHandler.fork(component);
+  }
+
+  /**
+   * Link the binding for {@code type} in {@code component} and return a provider which calls it
+   * directly. Unlike a component method or an injected {@link Provider}, it never looks the binding
+   * up again, so obtain it once and keep it for frequent calls.
+   *
+   * @param component A component or subcomponent created by this library.
+   * @throws IllegalArgumentException if {@code component} has no binding for {@code type}.
+   */
+  @SuppressWarnings("unchecked") // The binding for a key provides instances of its type.
+  public static <T> Provider<T> provider(Object component, Class<T> type) {
+    return (Provider<T>) provider(component, null, type);
+  }
+
+  /**
+   * Link the binding for {@code type} with {@code qualifier} in {@code component} and return a
+   * provider which calls it directly.
+   *
+   * @param component A component or subcomponent created by this library.
+   * @param qualifier An annotation whose type is annotated with {@link Qualifier}, or null.
+   * @throws IllegalArgumentException if {@code component} has no binding for the key.
+   */
+  public static Provider<?> provider(Object component, @Nullable Annotation qualifier, Type type) {
+    Scope scope = ComponentInvocationHandler.scopeOf(component);
+    return link(scope, BindingKey.of(qualifier, type).key, new Linker(scope));
+  }
+
+  /**
+   * Link the bindings for each of {@code keys} in {@code component} together and return a provider
+   * which calls each directly, in the same order.
+   *
+   * @param component A component or subcomponent created by this library.
+   * @throws IllegalArgumentException if {@code component} has no binding for one of the keys.
+   */
+  public static List<Provider<?>> providers(Object component, BindingKey... keys) {
+    Scope scope = ComponentInvocationHandler.scopeOf(component);
+    Linker linker = new Linker(scope);
+    List<Provider<?>> providers = new ArrayList<>(keys.length);
+    for (BindingKey key : keys) {
+      if (key == null) throw new NullPointerException("key == null");
+      providers.add(link(scope, key.key, linker));
+    }
+    return Collections.unmodifiableList(providers);
+  }
+
+  private static Provider<?> link(Scope scope, Key key, Linker linker) {
+    LinkedBinding<?> binding = scope.findBinding(key, linker);
+    if (binding == null) {
+      throw new IllegalArgumentException("No provider available for " + key);
+    }
+    return new LinkedProvider<>(binding);
+  }
+
+  /** Only exposes {@link Provider#get()} of a binding, which is otherwise internal. */
+  private static final class LinkedProvider<T> implements Provider<T> {
+    private final LinkedBinding<T> binding;
+
+    LinkedProvider(LinkedBinding<T> binding) {
+      this.binding = binding;
+    }
+
+    @Override
+    public @Nullable T get() {
+      return binding.get();
+    }
+
+    @Override
+    public String toString() {
+      return binding.toString();
+    }
+  }
+
+  /**
+   * Link the bindings for the injectable fields and methods of {@code cls} and its superclasses in
+   * {@code component} and return an injector for its instances, including batches of them.
+   *
+   * @param component A component or subcomponent created by this library.
+   * @throws IllegalArgumentException if {@code component} has no binding for one of the members.
+   */
+  public static <T> BatchMembersInjector<T> membersInjector(Object component, Class<T> cls) {
+    if (cls == null) throw new NullPointerException("cls == null");
+    return ReflectiveMembersInjector.create(cls, ComponentInvocationHandler.scopeOf(component));
+  }
+
+  /**
+   * Create a pool of instances of {@code subcomponentClass} whose parent is {@code parent}. The
+   * subcomponent must not require any arguments to be created.
+   *
+   * @param parent A component or subcomponent created by this library.
+   * @param maxIdle The number of released subcomponents to keep for reuse.
+   */
+  public static <S> SubcomponentPool<S> pool(
+      Object parent, Class<S> subcomponentClass, int maxIdle) {
+    return new SubcomponentPool<>(
+        ComponentInvocationHandler.scopeOf(parent), subcomponentClass, maxIdle, null);
+  }
+
+  /**
+   * Create a pool of instances of {@code subcomponentClass} whose parent is {@code parent}. Each
+   * scoped instance forgotten when a subcomponent is released is passed to {@code recycler}.
+   *
+   * @param parent A component or subcomponent created by this library.
+   * @param maxIdle The number of released subcomponents to keep for reuse.
+   */
+  public static <S> SubcomponentPool<S> pool(
+      Object parent, Class<S> subcomponentClass, int maxIdle, SubcomponentPool.Recycler recycler) {
+    if (recycler == null) throw new NullPointerException("recycler == null");
+    return new SubcomponentPool<>(
+        ComponentInvocationHandler.scopeOf(parent), subcomponentClass, maxIdle, recycler);
+  }
+
+  /**
+   * Capture the bindings of {@code component} and of its ancestors for rendering as JSON or
+   * Graphviz DOT.
+   *
+   * @param component A component or subcomponent created by this library.
+   */
+  public static ComponentGraph graph(Object component) {
+    return ComponentGraph.of(ComponentInvocationHandler.scopeOf(component));
+  }
+
+  /**
+   * Count the bindings of {@code component} and of its ancestors and estimate the heap they retain,
+   * ordered from the root component.
+   *
+   * @param component A component or subcomponent created by this library.
+   */
+  public static List<ScopeMemory> memory(Object component) {
+    return ScopeMemory.of(ComponentInvocationHandler.scopeOf(component));
+  }
+
+  /**
+   * The total time spent so far in each phase of creating graphs.
+   *
+   * @throws IllegalStateException if the {@code dagger.reflect.stats} system property is not {@code
+   *     true}.
+   */
+  public static PhaseTimes phaseTimes() {
+    StatisticsTracer statistics = StatisticsTracer.INSTANCE;
+    if (statistics == null) {
+      throw new IllegalStateException(
+          "No statistics were recorded. Set the dagger.reflect.stats system property to true.");
+    }
+    return PhaseTimes.of(statistics);
+  }
+
+  /**
+   * Describe the subcomponents which are still reachable, by class. Classes whose live count grew
+   * at each of the last three calls are flagged along with where their live instances were created.
+   * Call this after a garbage collection to avoid counting unreachable instances.
+   *
+   * <p>Subcomponents are only tracked when the {@code dagger.reflect.leaks} system property is
+   * {@code true}.
+   */
+  public static String leakReport() {
+    LeakDetector leaks = LeakDetector.INSTANCE;
+    if (leaks == null) {
+      return "Subcomponents are not tracked. Set the dagger.reflect.leaks system property to true.\n";
+    }
+    return leaks.report();
+  }
+
+  /**
+   * Replace the profile named by the {@code dagger.reflect.profile} system property with the
+   * bindings used so far. This happens automatically when the JVM exits, but Android processes are
+   * usually killed without running shutdown hooks. Does nothing when the property is not set.
+   */
+  public static void writeProfile() {
+    ProfileTracer profile = ProfileTracer.INSTANCE;
+    if (profile != null) {
+      profile.write();
+    }
+  }
+
   private DaggerReflect() {
     throw new AssertionError();
   }
@@ -0,0 +1,59 @@
+package dagger.reflect;
+
+import dagger.reflect.Binding.LinkedBinding;
+import javax.inject.Provider;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Creates the value of an {@code @Inject} constructor or {@code @Provides} method with a direct
+ * call rather than reflection. Implementations are generated by reflect-compiler when its {@code
+ * dagger.reflect.generateFactories} option is {@code enabled}, and are only used when the {@code
+ * dagger.reflect.hybrid} system property is {@code true}.
+ */
+public interface DirectFactory<T> {
+  /**
+   * @param module The module instance for a non-static {@code @Provides} method, otherwise null.
+   * @param dependencies The provider of each parameter in declaration order. The generated code
+   *     calls each one itself so that no array of arguments is allocated per provision.
+   */
+  T create(@Nullable Object module, Provider<?>[] dependencies);
+
+  /**
+   * Implemented alongside {@link DirectFactory} by the factory of a {@code @Provides} method which
+   * returns {@code int} so that its value need not be boxed.
+   */
+  interface OfInt {
+    int createInt(@Nullable Object module, Provider<?>[] dependencies);
+  }
+
+  /**
+   * Implemented alongside {@link DirectFactory} by the factory of a {@code @Provides} method which
+   * returns {@code long} so that its value need not be boxed.
+   */
+  interface OfLong {
+    long createLong(@Nullable Object module, Provider<?>[] dependencies);
+  }
+
+  /**
+   * Reads {@code int} and {@code long} parameters for generated factories without boxing them when
+   * the dependency can provide its value unboxed.
+   */
+  final class Primitives {
+    public static int getInt(Provider<?> dependency) {
+      if (dependency instanceof LinkedBinding<?> && ((LinkedBinding<?>) dependency).providesInt()) {
+        return ((LinkedBinding<?>) dependency).getInt();
+      }
+      return (Integer) dependency.get();
+    }
+
+    public static long getLong(Provider<?> dependency) {
+      if (dependency instanceof LinkedBinding<?>
+          && ((LinkedBinding<?>) dependency).providesLong()) {
+        return ((LinkedBinding<?>) dependency).getLong();
+      }
+      return (Long) dependency.get();
+    }
+
+    private Primitives() {}
+  }
+}
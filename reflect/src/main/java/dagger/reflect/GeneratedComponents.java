@@ -0,0 +1,138 @@
+package dagger.reflect;
+
+import static dagger.reflect.Reflection.tryInstantiate;
+import static dagger.reflect.Reflection.tryInvoke;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Creates components through the implementations which reflect-compiler generates when its {@code
+ * dagger.reflect.generateComponents} option is {@code enabled}. A component named {@code Foo} is
+ * implemented by {@code Foo_ReflectComponent} whose constructor accepts {@link ComponentSlots} and
+ * whose static {@code slots()} method returns the component method in each slot.
+ *
+ * <p>When no implementation was generated and {@link RuntimeClasses} are enabled, one is defined at
+ * runtime instead.
+ */
+final class GeneratedComponents {
+  private static final ClassCache<Implementation> IMPLEMENTATIONS =
+      ClassCache.create(GeneratedComponents::find);
+  /** The field which holds the slots of each class of component, which may not be generated. */
+  private static final ClassCache<SlotsField> SLOTS_FIELDS = ClassCache.create(SlotsField::find);
+
+  static boolean isGenerated(Class<?> cls) {
+    return implementation(cls).constructor != null;
+  }
+
+  /** Returns null when no implementation was generated for {@code cls}. */
+  static <C> @Nullable C create(Class<C> cls, Scope scope) {
+    Implementation implementation = implementation(cls);
+    Constructor<?> constructor = implementation.constructor;
+    if (constructor == null) {
+      return null;
+    }
+    return cls.cast(tryInstantiate(constructor, new ComponentSlots(scope, implementation.methods)));
+  }
+
+  /** Returns null when {@code component} is not a generated implementation. */
+  static @Nullable Scope scopeOf(Object component) {
+    ComponentSlots slots = slotsOf(component);
+    return slots != null ? slots.scope : null;
+  }
+
+  /** Returns null when {@code component} is not a generated implementation. */
+  static @Nullable ComponentSlots slotsOf(Object component) {
+    Field field = SLOTS_FIELDS.get(component.getClass()).field;
+    if (field == null) {
+      return null;
+    }
+    try {
+      return (ComponentSlots) field.get(component);
+    } catch (IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static Implementation implementation(Class<?> cls) {
+    return IMPLEMENTATIONS.get(cls);
+  }
+
+  private static Implementation find(Class<?> cls) {
+    StringBuilder name = new StringBuilder(cls.getSimpleName()).append("_ReflectComponent");
+    for (Class<?> enclosing = cls.getEnclosingClass();
+        enclosing != null;
+        enclosing = enclosing.getEnclosingClass()) {
+      name.insert(0, '_').insert(0, enclosing.getSimpleName());
+    }
+    Package pkg = cls.getPackage();
+    if (pkg != null && !pkg.getName().isEmpty()) {
+      name.insert(0, '.').insert(0, pkg.getName());
+    }
+
+    Class<?> generated;
+    try {
+      generated = Class.forName(name.toString(), false, cls.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      if (RuntimeClasses.ENABLED) {
+        Implementation implementation = RuntimeClasses.defineComponent(cls);
+        if (implementation != null) {
+          return implementation;
+        }
+      }
+      return Implementation.ABSENT;
+    }
+    if (!cls.isAssignableFrom(generated)) {
+      return Implementation.ABSENT;
+    }
+    Constructor<?> constructor;
+    Method slots;
+    try {
+      constructor = generated.getConstructor(ComponentSlots.class);
+      slots = generated.getMethod("slots");
+    } catch (NoSuchMethodException e) {
+      return Implementation.ABSENT;
+    }
+    Method[] methods = (Method[]) tryInvoke(null, slots);
+    if (methods == null) {
+      return Implementation.ABSENT;
+    }
+    return new Implementation(constructor, methods);
+  }
+
+  static final class Implementation {
+    static final Implementation ABSENT = new Implementation(null, new Method[0]);
+
+    final @Nullable Constructor<?> constructor;
+    final Method[] methods;
+
+    Implementation(@Nullable Constructor<?> constructor, Method[] methods) {
+      this.constructor = constructor;
+      this.methods = methods;
+    }
+  }
+
+  private static final class SlotsField {
+    static final SlotsField ABSENT = new SlotsField(null);
+
+    static SlotsField find(Class<?> cls) {
+      for (Field field : cls.getDeclaredFields()) {
+        if (field.getType() == ComponentSlots.class) {
+          field.setAccessible(true);
+          return new SlotsField(field);
+        }
+      }
+      return ABSENT;
+    }
+
+    final @Nullable Field field;
+
+    private SlotsField(@Nullable Field field) {
+      this.field = field;
+    }
+  }
+
+  private GeneratedComponents() {}
+}
@@ -0,0 +1,294 @@
+package dagger.reflect;
+
+import static dagger.reflect.Reflection.boxIfNecessary;
+import static dagger.reflect.Reflection.maybeInstantiate;
+import static dagger.reflect.Reflection.tryInvoke;
+
+import dagger.Lazy;
+import dagger.MembersInjector;
+import dagger.reflect.Binding.LinkedBinding;
+import dagger.reflect.Tracer.TracingBinding;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Provider;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Links bindings through the factories which dagger-compiler generates for {@code @Inject} types,
+ * {@code @Provides} methods, and members injection. This allows code which is still compiled with
+ * dagger-compiler to be provisioned without reflection. Enabled with the {@code
+ * dagger.reflect.hybrid} system property.
+ *
+ * <p>Each method returns null when the generated class is absent or its {@code create} method does
+ * not have the expected parameters, in which case the caller falls back to reflection.
+ *
+ * <p>The {@link DirectFactory} classes generated by reflect-compiler are found in the same way.
+ * They only replace the reflective call itself so the binding is otherwise linked as usual.
+ *
+ * <p>Each lookup of a generated class is cached, including those which found nothing, since most
+ * bindings have no generated class.
+ */
+final class GeneratedFactories {
+  static final boolean ENABLED = Boolean.getBoolean("dagger.reflect.hybrid");
+
+  /** The generated classes which were looked up for each origin class, by name. */
+  private static final ClassCache<ConcurrentHashMap<String, Generated>> GENERATED =
+      ClassCache.create(origin -> new ConcurrentHashMap<>());
+
+  static <T> @Nullable LinkedBinding<T> linkJustInTime(
+      Class<T> cls,
+      Type[] dependencyTypes,
+      LinkedBinding<?>[] dependencies,
+      ReflectiveMembersInjector<T> membersInjector,
+      String description) {
+    List<Type> types = new ArrayList<>();
+    Collections.addAll(types, dependencyTypes);
+    types.addAll(membersInjector.dependencyTypes());
+    List<LinkedBinding<?>> bindings = new ArrayList<>();
+    Collections.addAll(bindings, dependencies);
+    bindings.addAll(membersInjector.dependencies());
+
+    String name = generatedName(cls, "_Factory");
+    int[] groups = new int[types.size()];
+    int[] memberGroups = membersInjector.dependencyGroups();
+    System.arraycopy(memberGroups, 0, groups, dependencies.length, memberGroups.length);
+    Object factory = create(cls, name, null, types, bindings, groups);
+    if (factory == null) {
+      return null;
+    }
+    // Dagger generates a Factory<T> for an @Inject constructor of T.
+    @SuppressWarnings("unchecked")
+    Provider<T> provider = (Provider<T>) factory;
+    return new LinkedGeneratedBinding<>(provider, bindings, description);
+  }
+
+  static @Nullable LinkedBinding<?> linkProvides(
+      @Nullable Object instance,
+      Method method,
+      Type[] dependencyTypes,
+      LinkedBinding<?>[] dependencies,
+      String description) {
+    Class<?> moduleClass = method.getDeclaringClass();
+    boolean isStatic = Modifier.isStatic(method.getModifiers());
+    if (!isStatic && instance == null) {
+      return null;
+    }
+    String name = providesName(method, "Factory");
+    List<Type> types = new ArrayList<>();
+    Collections.addAll(types, dependencyTypes);
+    List<LinkedBinding<?>> bindings = new ArrayList<>();
+    Collections.addAll(bindings, dependencies);
+
+    Object factory =
+        create(
+            moduleClass, name, isStatic ? null : instance, types, bindings, new int[types.size()]);
+    if (factory == null) {
+      return null;
+    }
+    return new LinkedGeneratedBinding<>((Provider<?>) factory, bindings, description);
+  }
+
+  static <T> @Nullable MembersInjector<T> membersInjector(
+      Class<T> cls, ReflectiveMembersInjector<T> reflective) {
+    String name = generatedName(cls, "_MembersInjector");
+    Object injector =
+        create(
+            cls,
+            name,
+            null,
+            reflective.dependencyTypes(),
+            reflective.dependencies(),
+            reflective.dependencyGroups());
+    // Dagger generates a MembersInjector<T> for T.
+    @SuppressWarnings("unchecked")
+    MembersInjector<T> membersInjector = (MembersInjector<T>) injector;
+    return membersInjector;
+  }
+
+  static <T> @Nullable DirectFactory<T> directJustInTime(Class<T> cls) {
+    // reflect-compiler generates a DirectFactory<T> for an @Inject constructor of T.
+    @SuppressWarnings("unchecked")
+    DirectFactory<T> factory = (DirectFactory<T>) direct(cls, generatedName(cls, "_DirectFactory"));
+    return factory;
+  }
+
+  static @Nullable DirectFactory<?> directProvides(Method method) {
+    return direct(method.getDeclaringClass(), providesName(method, "DirectFactory"));
+  }
+
+  private static @Nullable DirectFactory<?> direct(Class<?> origin, String name) {
+    return generated(origin, name).direct;
+  }
+
+  private static Generated generated(Class<?> origin, String name) {
+    ConcurrentHashMap<String, Generated> byName = GENERATED.get(origin);
+    Generated generated = byName.get(name);
+    if (generated == null) {
+      generated = Generated.find(origin, name);
+      byName.put(name, generated);
+    }
+    return generated;
+  }
+
+  /** A generated class, or {@link #ABSENT} when it was not found or cannot be used. */
+  private static final class Generated {
+    static final Generated ABSENT = new Generated(null, null);
+
+    static Generated find(Class<?> origin, String name) {
+      Class<?> cls;
+      try {
+        cls = Class.forName(name, false, origin.getClassLoader());
+      } catch (ClassNotFoundException e) {
+        return ABSENT;
+      }
+      if (DirectFactory.class.isAssignableFrom(cls)) {
+        return new Generated(null, (DirectFactory<?>) maybeInstantiate(cls));
+      }
+      for (Method method : cls.getMethods()) {
+        if (method.getName().equals("create")
+            && Modifier.isStatic(method.getModifiers())
+            && (method.getReturnType() == cls || method.getReturnType() == MembersInjector.class)) {
+          return new Generated(method, null);
+        }
+      }
+      return ABSENT;
+    }
+
+    /** The static {@code create} method of a factory or members injector. */
+    final @Nullable Method create;
+    /** A stateless instance of a {@link DirectFactory}. */
+    final @Nullable DirectFactory<?> direct;
+
+    private Generated(@Nullable Method create, @Nullable DirectFactory<?> direct) {
+      this.create = create;
+      this.direct = direct;
+    }
+  }
+
+  /**
+   * Invoke the static {@code create} method of the generated class {@code name} with a {@link
+   * Provider} for each of {@code bindings}, preceded by {@code module} if present.
+   *
+   * <p>Dagger orders the parameters for members injection by declaration, which reflection does not
+   * guarantee. Parameters at or after {@code membersStart} are therefore only matched when no two
+   * of them have the same type but a different binding.
+   */
+  private static @Nullable Object create(
+      Class<?> origin,
+      String name,
+      @Nullable Object module,
+      List<Type> types,
+      List<LinkedBinding<?>> bindings,
+      int[] groups) {
+    Method create = generated(origin, name).create;
+    if (create == null) {
+      return null;
+    }
+
+    Type[] parameterTypes = create.getGenericParameterTypes();
+    int offset = module != null ? 1 : 0;
+    if (parameterTypes.length != types.size() + offset) {
+      return null;
+    }
+    Object[] arguments = new Object[parameterTypes.length];
+    if (module != null) {
+      if (!Types.getRawType(parameterTypes[0]).isInstance(module)) {
+        return null;
+      }
+      arguments[0] = module;
+    }
+    Type[] providedTypes = new Type[types.size()];
+    Object[] sources = new Object[types.size()];
+    for (int i = 0; i < types.size(); i++) {
+      Type parameterType = parameterTypes[i + offset];
+      if (!(parameterType instanceof ParameterizedType)
+          || ((ParameterizedType) parameterType).getRawType() != Provider.class) {
+        return null;
+      }
+      Type providedType = ((ParameterizedType) parameterType).getActualTypeArguments()[0];
+
+      Type type = types.get(i);
+      LinkedBinding<?> binding = bindings.get(i);
+      Class<?> rawType = Types.getRawType(type);
+      if (rawType == Provider.class || rawType == Lazy.class) {
+        // Generated factories wrap a Provider of the underlying key for these requests.
+        LinkedBinding<?> target = binding;
+        while (target instanceof TracingBinding<?>) {
+          target = ((TracingBinding<?>) target).delegate;
+        }
+        Scope scope;
+        Key key;
+        if (target instanceof LinkedProviderBinding<?>) {
+          scope = ((LinkedProviderBinding<?>) target).scope();
+          key = ((LinkedProviderBinding<?>) target).key();
+        } else if (target instanceof LinkedLazyBinding<?>) {
+          scope = ((LinkedLazyBinding<?>) target).scope();
+          key = ((LinkedLazyBinding<?>) target).key();
+        } else {
+          return null;
+        }
+        if (Types.getRawType(key.type()) == Lazy.class) {
+          return null; // Provider<Lazy<T>> is also generated as a Provider<T>.
+        }
+        type = key.type();
+        sources[i] = key;
+        arguments[i + offset] = new ScopeKeyedProvider<>(scope, key);
+      } else if (rawType == MembersInjector.class) {
+        return null;
+      } else {
+        sources[i] = binding;
+        arguments[i + offset] = binding;
+      }
+      providedTypes[i] = boxIfNecessary(type);
+      if (!Types.equals(providedType, providedTypes[i])) {
+        return null;
+      }
+    }
+    for (int i = 0; i < types.size(); i++) {
+      for (int j = i + 1; j < types.size(); j++) {
+        if (groups[i] != 0
+            && groups[i] == groups[j]
+            && Types.equals(providedTypes[i], providedTypes[j])
+            && !sources[i].equals(sources[j])) {
+          return null;
+        }
+      }
+    }
+    return tryInvoke(null, create, arguments);
+  }
+
+  /**
+   * The name of a class generated for a {@code @Provides} method, such as {@code
+   * Module_ProvideFooFactory}.
+   */
+  private static String providesName(Method method, String suffix) {
+    String methodName = method.getName();
+    return generatedName(method.getDeclaringClass(), "_")
+        + Character.toUpperCase(methodName.charAt(0))
+        + methodName.substring(1)
+        + suffix;
+  }
+
+  /** The name of a class generated for {@code cls} which joins its nested names with '_'. */
+  private static String generatedName(Class<?> cls, String suffix) {
+    StringBuilder name = new StringBuilder(cls.getSimpleName()).append(suffix);
+    for (Class<?> enclosing = cls.getEnclosingClass();
+        enclosing != null;
+        enclosing = enclosing.getEnclosingClass()) {
+      name.insert(0, '_').insert(0, enclosing.getSimpleName());
+    }
+    int lastDot = cls.getName().lastIndexOf('.');
+    if (lastDot != -1) {
+      name.insert(0, cls.getName().substring(0, lastDot + 1));
+    }
+    return name.toString();
+  }
+
+  private GeneratedFactories() {}
+}
@@ -0,0 +1,196 @@
+package dagger.reflect;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tracks the scopes of live subcomponents through weak references so that subcomponent classes
+ * whose live count keeps growing can be reported. Enabled by setting the {@code
+ * dagger.reflect.leaks} system property to {@code true}.
+ *
+ * <p>One in every {@code dagger.reflect.leaks.sampleRate} subcomponents of each class (10 by
+ * default) also has the stack trace of its creation captured. The report groups the sampled stack
+ * traces of instances which are still live.
+ *
+ * @see DaggerReflect#leakReport()
+ */
+final class LeakDetector {
+  /** The number of reports whose live counts are kept to detect growth. */
+  private static final int HISTORY = 3;
+
+  private static final int MAX_SITES = 3;
+  private static final int MAX_FRAMES = 10;
+
+  static final @Nullable LeakDetector INSTANCE =
+      Boolean.getBoolean("dagger.reflect.leaks")
+          ? new LeakDetector(Math.max(1, Integer.getInteger("dagger.reflect.leaks.sampleRate", 10)))
+          : null;
+
+  private final int sampleRate;
+  private final ConcurrentHashMap<Class<?>, Tracked> tracked = new ConcurrentHashMap<>();
+  private final ReferenceQueue<Scope> queue = new ReferenceQueue<>();
+
+  private LeakDetector(int sampleRate) {
+    this.sampleRate = sampleRate;
+  }
+
+  /** Track {@code scope} when it belongs to a subcomponent. */
+  void track(Scope scope) {
+    if (scope.parent() == null) {
+      return;
+    }
+    expunge();
+
+    Class<?> componentClass = scope.componentClass();
+    Tracked tracked = this.tracked.get(componentClass);
+    if (tracked == null) {
+      tracked = new Tracked();
+      Tracked replaced = this.tracked.putIfAbsent(componentClass, tracked);
+      if (replaced != null) {
+        tracked = replaced;
+      }
+    }
+    int created = tracked.created.incrementAndGet();
+    StackTraceElement[] site = null;
+    if ((created - 1) % sampleRate == 0) {
+      site = new Throwable().getStackTrace();
+    }
+    tracked.live.add(new TrackedScope(scope, queue, tracked, site));
+  }
+
+  private void expunge() {
+    TrackedScope reference;
+    while ((reference = (TrackedScope) queue.poll()) != null) {
+      reference.tracked.live.remove(reference);
+    }
+  }
+
+  /**
+   * Describe each tracked subcomponent class, and flag those whose live count grew in each of the
+   * last few reports along with where their live instances were created.
+   */
+  synchronized String report() {
+    expunge();
+
+    List<Map.Entry<Class<?>, Tracked>> entries = new ArrayList<>(tracked.entrySet());
+    Collections.sort(
+        entries, (a, b) -> Integer.compare(b.getValue().live.size(), a.getValue().live.size()));
+
+    StringBuilder builder = new StringBuilder();
+    for (Map.Entry<Class<?>, Tracked> entry : entries) {
+      Tracked tracked = entry.getValue();
+      List<StackTraceElement[]> sites = new ArrayList<>();
+      int live = 0;
+      for (TrackedScope reference : tracked.live) {
+        if (reference.get() != null) {
+          live++;
+          if (reference.site != null) {
+            sites.add(reference.site);
+          }
+        }
+      }
+      boolean growing = tracked.record(live);
+
+      builder
+          .append(entry.getKey().getName())
+          .append(": ")
+          .append(live)
+          .append(" live of ")
+          .append(tracked.created.get())
+          .append(" created, history ")
+          .append(tracked.history);
+      if (!growing) {
+        builder.append('\n');
+        continue;
+      }
+      builder.append(", GROWING\n");
+      appendSites(builder, sites);
+    }
+    if (builder.length() == 0) {
+      builder.append("No subcomponents have been created.\n");
+    }
+    return builder.toString();
+  }
+
+  private static void appendSites(StringBuilder builder, List<StackTraceElement[]> sites) {
+    Map<List<StackTraceElement>, Integer> counts = new LinkedHashMap<>();
+    for (StackTraceElement[] site : sites) {
+      List<StackTraceElement> frames = applicationFrames(site);
+      Integer count = counts.get(frames);
+      counts.put(frames, count == null ? 1 : count + 1);
+    }
+    List<Map.Entry<List<StackTraceElement>, Integer>> sorted = new ArrayList<>(counts.entrySet());
+    Collections.sort(sorted, (a, b) -> Integer.compare(b.getValue(), a.getValue()));
+    for (int i = 0; i < sorted.size() && i < MAX_SITES; i++) {
+      Map.Entry<List<StackTraceElement>, Integer> site = sorted.get(i);
+      builder.append("  ").append(site.getValue()).append(" sampled live instances created at\n");
+      for (StackTraceElement frame : site.getKey()) {
+        builder.append("    at ").append(frame).append('\n');
+      }
+    }
+  }
+
+  /** The frames below those of this library and of proxies, limited to the innermost few. */
+  private static List<StackTraceElement> applicationFrames(StackTraceElement[] site) {
+    int start = 0;
+    while (start < site.length) {
+      String className = site[start].getClassName();
+      if (!className.startsWith("dagger.reflect.") && !className.contains("$Proxy")) {
+        break;
+      }
+      start++;
+    }
+    int end = Math.min(site.length, start + MAX_FRAMES);
+    return Arrays.asList(Arrays.copyOfRange(site, start, end));
+  }
+
+  private static final class Tracked {
+    final AtomicInteger created = new AtomicInteger();
+    final Set<TrackedScope> live =
+        Collections.newSetFromMap(new ConcurrentHashMap<TrackedScope, Boolean>());
+    /** The live count at each of the most recent reports, oldest first. */
+    final List<Integer> history = new ArrayList<>();
+
+    /** Returns true when the live count grew at each of the most recent reports. */
+    boolean record(int live) {
+      history.add(live);
+      if (history.size() > HISTORY) {
+        history.remove(0);
+      }
+      if (history.size() < HISTORY) {
+        return false;
+      }
+      for (int i = 1; i < history.size(); i++) {
+        if (history.get(i) <= history.get(i - 1)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static final class TrackedScope extends WeakReference<Scope> {
+    final Tracked tracked;
+    final @Nullable StackTraceElement[] site;
+
+    TrackedScope(
+        Scope scope,
+        ReferenceQueue<Scope> queue,
+        Tracked tracked,
+        @Nullable StackTraceElement[] site) {
+      super(scope, queue);
+      this.tracked = tracked;
+      this.site = site;
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package dagger.reflect;
+
+import dagger.reflect.Binding.LinkedBinding;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Provider;
+import org.jetbrains.annotations.Nullable;
+
+/** A binding whose instances are created by a factory which dagger-compiler generated. */
+final class LinkedGeneratedBinding<T> extends LinkedBinding<T> {
+  private final Provider<T> factory;
+  private final LinkedBinding<?>[] dependencies;
+  private final String description;
+
+  LinkedGeneratedBinding(
+      Provider<T> factory, List<LinkedBinding<?>> dependencies, String description) {
+    this.factory = factory;
+    this.dependencies = dependencies.toArray(NO_DEPENDENCIES);
+    this.description = description;
+  }
+
+  @Override
+  public @Nullable T get() {
+    return factory.get();
+  }
+
+  @Override
+  LinkedBinding<?>[] dependencies() {
+    return dependencies.clone();
+  }
+
+  @Override
+  boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+    return dependenciesAreShareable(original, known);
+  }
+
+  @Override
+  public String toString() {
+    return description;
+  }
+}
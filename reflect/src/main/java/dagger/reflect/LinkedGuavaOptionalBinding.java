@@ -2,6 +2,7 @@ package dagger.reflect;
 
 import com.google.common.base.Optional;
 import dagger.reflect.Binding.LinkedBinding;
+import java.util.Map;
 import org.jetbrains.annotations.Nullable;
 
 final class LinkedGuavaOptionalBinding<T> extends LinkedBinding<Optional<T>> {
@@ -24,6 +25,16 @@ final class LinkedGuavaOptionalBinding<T> extends LinkedBinding<Optional<T>> {
     return Optional.of(value);
   }
 
+  @Override
+  LinkedBinding<?>[] dependencies() {
+    return dependency != null ? new LinkedBinding<?>[] {dependency} : NO_DEPENDENCIES;
+  }
+
+  @Override
+  boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+    return dependenciesAreShareable(original, known);
+  }
+
   @Override
   public String toString() {
     return "@BindsOptionalOf[" + dependency + ']';
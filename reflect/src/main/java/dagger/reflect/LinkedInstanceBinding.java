@@ -1,13 +1,24 @@
 package dagger.reflect;
 
 import dagger.reflect.Binding.LinkedBinding;
+import java.util.Map;
 import org.jetbrains.annotations.Nullable;
 
 final class LinkedInstanceBinding<T> extends LinkedBinding<T> {
   private final @Nullable T value;
+  /**
+   * True for an instance bound when its scope was built. Those created by linking, such as for
+   * subcomponent builders, may reference the scope which linked them.
+   */
+  private final boolean declared;
 
   LinkedInstanceBinding(@Nullable T value) {
+    this(value, false);
+  }
+
+  LinkedInstanceBinding(@Nullable T value, boolean declared) {
     this.value = value;
+    this.declared = declared;
   }
 
   @Override
@@ -15,6 +26,16 @@ final class LinkedInstanceBinding<T> extends LinkedBinding<T> {
     return value;
   }
 
+  @Override
+  boolean isConstant() {
+    return true;
+  }
+
+  @Override
+  boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+    return declared;
+  }
+
   @Override
   public String toString() {
     return "@BindsInstance[" + value + ']';
@@ -0,0 +1,58 @@
+package dagger.reflect;
+
+import dagger.reflect.Binding.LinkedBinding;
+import java.lang.reflect.Method;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@code @Provides} method returning {@code int} whose generated factory can produce the value
+ * without boxing it.
+ */
+final class LinkedIntProvidesBinding extends LinkedBinding<Integer> {
+  private final @Nullable Object instance;
+  private final Method method;
+  private final DirectFactory.OfInt factory;
+  private final LinkedBinding<?>[] dependencies;
+
+  LinkedIntProvidesBinding(
+      @Nullable Object instance,
+      Method method,
+      DirectFactory.OfInt factory,
+      LinkedBinding<?>[] dependencies) {
+    this.instance = instance;
+    this.method = method;
+    this.factory = factory;
+    this.dependencies = dependencies;
+  }
+
+  @Override
+  boolean providesInt() {
+    return true;
+  }
+
+  @Override
+  int getInt() {
+    return factory.createInt(instance, dependencies);
+  }
+
+  @Override
+  public Integer get() {
+    return getInt();
+  }
+
+  @Override
+  LinkedBinding<?>[] dependencies() {
+    return dependencies.clone();
+  }
+
+  @Override
+  boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+    return dependenciesAreShareable(original, known);
+  }
+
+  @Override
+  public String toString() {
+    return "@Provides[" + method.getDeclaringClass().getName() + '.' + method.getName() + "(…)]";
+  }
+}
@@ -1,6 +1,7 @@
 package dagger.reflect;
 
 import dagger.reflect.Binding.LinkedBinding;
+import java.util.Map;
 import java.util.Optional;
 import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
 import org.jetbrains.annotations.Nullable;
@@ -26,6 +27,16 @@ final class LinkedJavaOptionalBinding<T> extends LinkedBinding<Optional<T>> {
     return Optional.of(value);
   }
 
+  @Override
+  LinkedBinding<?>[] dependencies() {
+    return dependency != null ? new LinkedBinding<?>[] {dependency} : NO_DEPENDENCIES;
+  }
+
+  @Override
+  boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+    return dependenciesAreShareable(original, known);
+  }
+
   @Override
   public String toString() {
     return "@BindsOptionalOf[" + dependency + ']';
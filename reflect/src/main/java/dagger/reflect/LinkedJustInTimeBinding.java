@@ -5,32 +5,61 @@ import static dagger.reflect.Reflection.tryInstantiate;
 import dagger.MembersInjector;
 import dagger.reflect.Binding.LinkedBinding;
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
 
 public final class LinkedJustInTimeBinding<T> extends LinkedBinding<T> {
   private final Constructor<T> constructor;
+  private final @Nullable DirectFactory<T> factory;
   private final LinkedBinding<?>[] dependencies;
   private final MembersInjector<T> membersInjector;
 
   LinkedJustInTimeBinding(
       Constructor<T> constructor,
+      @Nullable DirectFactory<T> factory,
       LinkedBinding<?>[] dependencies,
       MembersInjector<T> membersInjector) {
     this.constructor = constructor;
+    this.factory = factory;
     this.dependencies = dependencies;
     this.membersInjector = membersInjector;
   }
 
   @Override
   public T get() {
-    Object[] arguments = new Object[dependencies.length];
-    for (int i = 0; i < dependencies.length; i++) {
-      arguments[i] = dependencies[i].get();
+    T instance;
+    if (factory != null) {
+      instance = factory.create(null, dependencies);
+    } else {
+      Object[] arguments = new Object[dependencies.length];
+      for (int i = 0; i < dependencies.length; i++) {
+        arguments[i] = dependencies[i].get();
+      }
+      instance = tryInstantiate(constructor, arguments);
     }
-    T instance = tryInstantiate(constructor, arguments);
     membersInjector.injectMembers(instance);
     return instance;
   }
 
+  @Override
+  LinkedBinding<?>[] dependencies() {
+    if (membersInjector instanceof ReflectiveMembersInjector<?>) {
+      List<LinkedBinding<?>> all = new ArrayList<>();
+      Collections.addAll(all, dependencies);
+      all.addAll(((ReflectiveMembersInjector<?>) membersInjector).dependencies());
+      return all.toArray(NO_DEPENDENCIES);
+    }
+    return dependencies.clone();
+  }
+
+  @Override
+  boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+    return dependenciesAreShareable(original, known);
+  }
+
   @Override
   public String toString() {
     return "@Inject[" + constructor.getDeclaringClass().getName() + ".<init>(…)]";
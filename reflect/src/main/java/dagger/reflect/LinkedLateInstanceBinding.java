@@ -21,4 +21,14 @@ final class LinkedLateInstanceBinding<T> extends LinkedBinding<T> {
     if (value == null) throw new IllegalStateException();
     return value;
   }
+
+  @Override
+  boolean isConstant() {
+    return value != null;
+  }
+
+  @Override
+  public String toString() {
+    return "@Component[" + value + ']';
+  }
 }
@@ -2,6 +2,7 @@ package dagger.reflect;
 
 import dagger.Lazy;
 import dagger.reflect.Binding.LinkedBinding;
+import java.util.Map;
 
 final class LinkedLazyBinding<T> extends LinkedBinding<Lazy<T>> {
   private final Scope scope;
@@ -16,4 +17,25 @@ final class LinkedLazyBinding<T> extends LinkedBinding<Lazy<T>> {
   public Lazy<T> get() {
     return new ScopeKeyedLazy<>(scope, key);
   }
+
+  /** The scope in which {@link #key()} is lazily resolved. */
+  Scope scope() {
+    return scope;
+  }
+
+  /** The key whose binding is lazily resolved by the returned instances. */
+  Key key() {
+    return key;
+  }
+
+  /** Resolving its key in the original scope would bypass the fork. */
+  @Override
+  boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+    return scope != original;
+  }
+
+  @Override
+  public String toString() {
+    return "Lazy[" + key + ']';
+  }
 }
@@ -0,0 +1,58 @@
+package dagger.reflect;
+
+import dagger.reflect.Binding.LinkedBinding;
+import java.lang.reflect.Method;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@code @Provides} method returning {@code long} whose generated factory can produce the value
+ * without boxing it.
+ */
+final class LinkedLongProvidesBinding extends LinkedBinding<Long> {
+  private final @Nullable Object instance;
+  private final Method method;
+  private final DirectFactory.OfLong factory;
+  private final LinkedBinding<?>[] dependencies;
+
+  LinkedLongProvidesBinding(
+      @Nullable Object instance,
+      Method method,
+      DirectFactory.OfLong factory,
+      LinkedBinding<?>[] dependencies) {
+    this.instance = instance;
+    this.method = method;
+    this.factory = factory;
+    this.dependencies = dependencies;
+  }
+
+  @Override
+  boolean providesLong() {
+    return true;
+  }
+
+  @Override
+  long getLong() {
+    return factory.createLong(instance, dependencies);
+  }
+
+  @Override
+  public Long get() {
+    return getLong();
+  }
+
+  @Override
+  LinkedBinding<?>[] dependencies() {
+    return dependencies.clone();
+  }
+
+  @Override
+  boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+    return dependenciesAreShareable(original, known);
+  }
+
+  @Override
+  public String toString() {
+    return "@Provides[" + method.getDeclaringClass().getName() + '.' + method.getName() + "(…)]";
+  }
+}
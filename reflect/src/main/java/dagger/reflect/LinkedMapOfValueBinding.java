@@ -1,12 +1,16 @@
 package dagger.reflect;
 
 import dagger.reflect.Binding.LinkedBinding;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import javax.inject.Provider;
+import org.jetbrains.annotations.Nullable;
 
 final class LinkedMapOfValueBinding<K, V> extends LinkedBinding<Map<K, V>> {
   private final LinkedBinding<Map<K, Provider<V>>> mapOfProviderBinding;
+  /** The map returned for every request once all contributions are constant. */
+  private volatile @Nullable Map<K, V> constant;
 
   LinkedMapOfValueBinding(LinkedBinding<Map<K, Provider<V>>> mapOfProviderBinding) {
     this.mapOfProviderBinding = mapOfProviderBinding;
@@ -14,13 +18,54 @@ final class LinkedMapOfValueBinding<K, V> extends LinkedBinding<Map<K, V>> {
 
   @Override
   public Map<K, V> get() {
+    Map<K, V> constant = this.constant;
+    if (constant != null) {
+      return constant;
+    }
+
     Map<K, Provider<V>> mapOfProvider = mapOfProviderBinding.get();
     assert mapOfProvider != null;
 
-    Map<K, V> mapOfValue = new LinkedHashMap<>(mapOfProvider.size());
+    boolean isConstant = mapOfProviderBinding.isConstant();
+    Map<K, V> mapOfValue = new LinkedHashMap<>((int) (mapOfProvider.size() / 0.75f) + 1);
     for (Map.Entry<K, Provider<V>> entry : mapOfProvider.entrySet()) {
-      mapOfValue.put(entry.getKey(), entry.getValue().get());
+      Provider<V> provider = entry.getValue();
+      mapOfValue.put(entry.getKey(), provider.get());
+      // Checked after get() since a scoped binding only becomes constant once initialized.
+      isConstant &=
+          provider instanceof ScopeBindingProvider<?>
+              && ((ScopeBindingProvider<?>) provider).isConstant();
     }
-    return mapOfValue;
+
+    Map<K, V> map = Collections.unmodifiableMap(mapOfValue);
+    if (isConstant) {
+      this.constant = map;
+    }
+    return map;
+  }
+
+  /** Stop returning the cached map once its contributions may have changed. */
+  void clearConstant() {
+    constant = null;
+  }
+
+  @Override
+  boolean isConstant() {
+    return constant != null;
+  }
+
+  @Override
+  LinkedBinding<?>[] dependencies() {
+    return new LinkedBinding<?>[] {mapOfProviderBinding};
+  }
+
+  @Override
+  boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+    return dependenciesAreShareable(original, known);
+  }
+
+  @Override
+  public String toString() {
+    return "Map[" + mapOfProviderBinding + ']';
   }
 }
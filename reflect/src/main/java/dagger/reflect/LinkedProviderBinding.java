@@ -1,6 +1,7 @@
 package dagger.reflect;
 
 import dagger.reflect.Binding.LinkedBinding;
+import java.util.Map;
 import javax.inject.Provider;
 
 final class LinkedProviderBinding<T> extends LinkedBinding<Provider<T>> {
@@ -16,4 +17,25 @@ final class LinkedProviderBinding<T> extends LinkedBinding<Provider<T>> {
   public Provider<T> get() {
     return new ScopeKeyedProvider<>(scope, key);
   }
+
+  /** The scope in which {@link #key()} is lazily resolved. */
+  Scope scope() {
+    return scope;
+  }
+
+  /** The key whose binding is lazily resolved by the returned providers. */
+  Key key() {
+    return key;
+  }
+
+  /** Resolving its key in the original scope would bypass the fork. */
+  @Override
+  boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+    return scope != original;
+  }
+
+  @Override
+  public String toString() {
+    return "Provider[" + key + ']';
+  }
 }
@@ -4,31 +4,53 @@ import static dagger.reflect.Reflection.tryInvoke;
 
 import dagger.reflect.Binding.LinkedBinding;
 import java.lang.reflect.Method;
+import java.util.Map;
 import org.jetbrains.annotations.Nullable;
 
 public final class LinkedProvidesBinding<T> extends LinkedBinding<T> {
   private final @Nullable Object instance;
   private final Method method;
+  private final @Nullable DirectFactory<?> factory;
   private final LinkedBinding<?>[] dependencies;
 
-  LinkedProvidesBinding(@Nullable Object instance, Method method, LinkedBinding<?>[] dependencies) {
+  LinkedProvidesBinding(
+      @Nullable Object instance,
+      Method method,
+      @Nullable DirectFactory<?> factory,
+      LinkedBinding<?>[] dependencies) {
     this.instance = instance;
     this.method = method;
+    this.factory = factory;
     this.dependencies = dependencies;
   }
 
   @Override
   public @Nullable T get() {
+    if (factory != null) {
+      // The binding is associated with the return type of method as key.
+      @SuppressWarnings("unchecked")
+      T value = (T) factory.create(instance, dependencies);
+      return value;
+    }
     Object[] arguments = new Object[dependencies.length];
     for (int i = 0; i < arguments.length; i++) {
       arguments[i] = dependencies[i].get();
     }
-    // The binding is associated with the return type of method as key.
     @SuppressWarnings("unchecked")
     T value = (T) tryInvoke(instance, method, arguments);
     return value;
   }
 
+  @Override
+  LinkedBinding<?>[] dependencies() {
+    return dependencies.clone();
+  }
+
+  @Override
+  boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+    return dependenciesAreShareable(original, known);
+  }
+
   @Override
   public String toString() {
     return "@Provides[" + method.getDeclaringClass().getName() + '.' + method.getName() + "(…)]";
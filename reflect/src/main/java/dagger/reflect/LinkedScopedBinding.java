@@ -1,6 +1,7 @@
 package dagger.reflect;
 
 import dagger.reflect.Binding.LinkedBinding;
+import java.util.Map;
 import org.jetbrains.annotations.Nullable;
 
 final class LinkedScopedBinding<T> extends LinkedBinding<T> {
@@ -29,4 +30,42 @@ final class LinkedScopedBinding<T> extends LinkedBinding<T> {
     }
     return (T) instance;
   }
+
+  @Override
+  boolean isConstant() {
+    return instance != this;
+  }
+
+  /**
+   * Forget the retained instance so that the next request creates another. Only used when a pooled
+   * subcomponent is released.
+   *
+   * @return The forgotten instance, or null if none had been created.
+   */
+  synchronized @Nullable Object clear() {
+    Object instance = this.instance;
+    this.instance = this;
+    return instance != this ? instance : null;
+  }
+
+  /** The unscoped binding whose first instance is retained. For diagnostics only. */
+  LinkedBinding<T> unscoped() {
+    return binding;
+  }
+
+  @Override
+  LinkedBinding<?>[] dependencies() {
+    return binding.dependencies();
+  }
+
+  /** Once its instance was created, a fork shares it rather than creating its own. */
+  @Override
+  boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+    return isConstant();
+  }
+
+  @Override
+  public String toString() {
+    return "@Scoped[" + binding + ']';
+  }
 }
@@ -1,28 +1,81 @@
 package dagger.reflect;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import org.jetbrains.annotations.Nullable;
 
 final class LinkedSetBinding<T> extends Binding.LinkedBinding<Set<T>> {
   private final List<LinkedBinding<T>> elementBindings;
   private final List<LinkedBinding<Set<T>>> elementsBindings;
+  /** The set returned for every request once all contributions are constant. */
+  private volatile @Nullable Set<T> constant;
+  /** The size of the last set created, used to size the next one. */
+  private int lastSize;
 
   LinkedSetBinding(
       List<LinkedBinding<T>> elementBindings, List<LinkedBinding<Set<T>>> elementsBindings) {
     this.elementBindings = elementBindings;
     this.elementsBindings = elementsBindings;
+    this.lastSize = elementBindings.size();
   }
 
   @Override
   public Set<T> get() {
-    Set<T> elements = new LinkedHashSet<>();
-    for (LinkedBinding<T> elementBinding : elementBindings) {
+    Set<T> constant = this.constant;
+    if (constant != null) {
+      return constant;
+    }
+
+    boolean isConstant = true;
+    Set<T> elements = new LinkedHashSet<>((int) (lastSize / 0.75f) + 1);
+    for (int i = 0, size = elementBindings.size(); i < size; i++) {
+      LinkedBinding<T> elementBinding = elementBindings.get(i);
       elements.add(elementBinding.get());
+      // Checked after get() since a scoped binding only becomes constant once initialized.
+      isConstant &= elementBinding.isConstant();
     }
-    for (LinkedBinding<Set<T>> elementsBinding : elementsBindings) {
+    for (int i = 0, size = elementsBindings.size(); i < size; i++) {
+      LinkedBinding<Set<T>> elementsBinding = elementsBindings.get(i);
       elements.addAll(elementsBinding.get());
+      isConstant &= elementsBinding.isConstant();
     }
-    return elements;
+    lastSize = elements.size();
+
+    Set<T> set = Collections.unmodifiableSet(elements);
+    if (isConstant) {
+      this.constant = set;
+    }
+    return set;
+  }
+
+  /** Stop returning the cached set once its contributions may have changed. */
+  void clearConstant() {
+    constant = null;
+  }
+
+  @Override
+  boolean isConstant() {
+    return constant != null;
+  }
+
+  @Override
+  LinkedBinding<?>[] dependencies() {
+    List<LinkedBinding<?>> dependencies = new ArrayList<>(elementBindings);
+    dependencies.addAll(elementsBindings);
+    return dependencies.toArray(NO_DEPENDENCIES);
+  }
+
+  @Override
+  boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+    return dependenciesAreShareable(original, known);
+  }
+
+  @Override
+  public String toString() {
+    return "Set" + elementBindings;
   }
 }
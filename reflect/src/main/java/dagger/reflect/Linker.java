@@ -31,11 +31,13 @@ final class Linker {
     if (chain.containsKey(key)) {
       throw failure(key, "Dependency cycle", "forms a cycle");
     }
+    Object trace = Tracer.INSTANCE.beginLink();
+    int depth = chain.size();
     chain.put(key, unlinkedBinding);
     LinkedBinding<?> linkedBinding = unlinkedBinding.link(this, scope);
     chain.remove(key);
 
-    return linkedBinding;
+    return Tracer.INSTANCE.endLink(trace, scope, key, depth, linkedBinding);
   }
 
   private RuntimeException failure(Key key, String reason, String cause) {
@@ -0,0 +1,177 @@
+package dagger.reflect;
+
+import static dagger.reflect.Reflection.findQualifier;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Inject;
+
+/**
+ * Keys of constructors, methods, and fields, and the members of a class which are injected. Each is
+ * parsed from reflection once and then shared by every scope, since reading generic signatures and
+ * annotations copies them on each call and re-parses them on Android.
+ *
+ * <p>Metadata is cached per declaring class so that classes can be unloaded along with it. Failures
+ * are not cached so that each request for invalid metadata throws again.
+ */
+final class MemberMetadata {
+  private static final ClassCache<DeclaredMembers> DECLARED_MEMBERS =
+      ClassCache.create(cls -> new DeclaredMembers());
+  private static final ClassCache<InjectedMembers> INJECTED_MEMBERS =
+      ClassCache.create(MemberMetadata::findInjectedMembers);
+
+  static Parameters parameters(Constructor<?> constructor) {
+    ConcurrentHashMap<Member, Parameters> declared =
+        DECLARED_MEMBERS.get(constructor.getDeclaringClass()).parameters;
+    Parameters parameters = declared.get(constructor);
+    if (parameters == null) {
+      parameters =
+          new Parameters(
+              constructor.getGenericParameterTypes(), constructor.getParameterAnnotations());
+      declared.putIfAbsent(constructor, parameters);
+    }
+    return parameters;
+  }
+
+  static Parameters parameters(Method method) {
+    ConcurrentHashMap<Member, Parameters> declared =
+        DECLARED_MEMBERS.get(method.getDeclaringClass()).parameters;
+    Parameters parameters = declared.get(method);
+    if (parameters == null) {
+      parameters =
+          new Parameters(method.getGenericParameterTypes(), method.getParameterAnnotations());
+      declared.putIfAbsent(method, parameters);
+    }
+    return parameters;
+  }
+
+  /** The key of the value returned by a provision method. */
+  static Key returnKey(Method method) {
+    ConcurrentHashMap<Member, Key> declared = DECLARED_MEMBERS.get(method.getDeclaringClass()).keys;
+    Key key = declared.get(method);
+    if (key == null) {
+      key = Key.of(findQualifier(method.getDeclaredAnnotations()), method.getGenericReturnType());
+      declared.putIfAbsent(method, key);
+    }
+    return key;
+  }
+
+  /** The key of the value injected into a field. */
+  static Key fieldKey(Field field) {
+    ConcurrentHashMap<Member, Key> declared = DECLARED_MEMBERS.get(field.getDeclaringClass()).keys;
+    Key key = declared.get(field);
+    if (key == null) {
+      key = Key.of(findQualifier(field.getDeclaredAnnotations()), field.getGenericType());
+      declared.putIfAbsent(field, key);
+    }
+    return key;
+  }
+
+  /** The fields and methods declared by {@code cls} (but not its superclasses) with @Inject. */
+  static InjectedMembers injectedMembers(Class<?> cls) {
+    return INJECTED_MEMBERS.get(cls);
+  }
+
+  private static InjectedMembers findInjectedMembers(Class<?> target) {
+    List<Field> fields = new ArrayList<>();
+    for (Field field : target.getDeclaredFields()) {
+      if (field.getAnnotation(Inject.class) == null) {
+        continue;
+      }
+      if (Modifier.isPrivate(field.getModifiers())) {
+        throw new IllegalArgumentException(
+            "Dagger does not support injection into private fields: "
+                + target.getCanonicalName()
+                + "."
+                + field.getName());
+      }
+      if (Modifier.isStatic(field.getModifiers())) {
+        throw new IllegalArgumentException(
+            "Dagger does not support injection into static fields: "
+                + target.getCanonicalName()
+                + "."
+                + field.getName());
+      }
+      fields.add(field);
+    }
+
+    List<Method> methods = new ArrayList<>();
+    for (Method method : target.getDeclaredMethods()) {
+      if (method.getAnnotation(Inject.class) == null) {
+        continue;
+      }
+      if (Modifier.isPrivate(method.getModifiers())) {
+        throw new IllegalArgumentException(
+            "Dagger does not support injection into private methods: "
+                + target.getCanonicalName()
+                + "."
+                + method.getName()
+                + "()");
+      }
+      if (Modifier.isStatic(method.getModifiers())) {
+        throw new IllegalArgumentException(
+            "Dagger does not support injection into static methods: "
+                + target.getCanonicalName()
+                + "."
+                + method.getName()
+                + "()");
+      }
+      if (Modifier.isAbstract(method.getModifiers())) {
+        throw new IllegalArgumentException(
+            "Methods with @Inject may not be abstract: "
+                + target.getCanonicalName()
+                + "."
+                + method.getName()
+                + "()");
+      }
+      methods.add(method);
+    }
+
+    return new InjectedMembers(fields.toArray(new Field[0]), methods.toArray(new Method[0]));
+  }
+
+  /**
+   * The parameters of a constructor or method. These arrays are shared and must not be modified.
+   */
+  static final class Parameters {
+    /** The declared type of each parameter. */
+    final Type[] types;
+    /** The key requested by each parameter. */
+    final Key[] keys;
+
+    Parameters(Type[] types, Annotation[][] annotations) {
+      Key[] keys = new Key[types.length];
+      for (int i = 0; i < types.length; i++) {
+        keys[i] = Key.of(findQualifier(annotations[i]), types[i]);
+      }
+      this.types = types;
+      this.keys = keys;
+    }
+  }
+
+  /** The metadata of the members of one class, keyed by member. */
+  private static final class DeclaredMembers {
+    final ConcurrentHashMap<Member, Parameters> parameters = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<Member, Key> keys = new ConcurrentHashMap<>();
+  }
+
+  static final class InjectedMembers {
+    final Field[] fields;
+    final Method[] methods;
+
+    InjectedMembers(Field[] fields, Method[] methods) {
+      this.fields = fields;
+      this.methods = methods;
+    }
+  }
+
+  private MemberMetadata() {}
+}
@@ -0,0 +1,64 @@
+package dagger.reflect;
+
+/**
+ * The total time spent so far in each phase of creating graphs. Phases overlap: creating a
+ * component includes parsing its modules, and linking includes any just-in-time lookups it
+ * triggers.
+ *
+ * @see DaggerReflect#phaseTimes()
+ */
+public final class PhaseTimes {
+  static PhaseTimes of(StatisticsTracer statistics) {
+    return new PhaseTimes(
+        statistics.componentNanos.get(),
+        statistics.moduleNanos.get(),
+        statistics.justInTimeLookupNanos.get(),
+        statistics.linkNanos.get());
+  }
+
+  private final long componentNanos;
+  private final long moduleNanos;
+  private final long justInTimeLookupNanos;
+  private final long linkNanos;
+
+  private PhaseTimes(
+      long componentNanos, long moduleNanos, long justInTimeLookupNanos, long linkNanos) {
+    this.componentNanos = componentNanos;
+    this.moduleNanos = moduleNanos;
+    this.justInTimeLookupNanos = justInTimeLookupNanos;
+    this.linkNanos = linkNanos;
+  }
+
+  /** Collecting the modules, dependencies, and bindings of components and subcomponents. */
+  public long componentNanos() {
+    return componentNanos;
+  }
+
+  /** Reflecting on the methods of modules to find their bindings. */
+  public long moduleNanos() {
+    return moduleNanos;
+  }
+
+  /** Searching types for an {@code @Inject} constructor. */
+  public long justInTimeLookupNanos() {
+    return justInTimeLookupNanos;
+  }
+
+  /** Linking bindings, counting each link which was not requested by another link once. */
+  public long linkNanos() {
+    return linkNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "PhaseTimes{componentNanos="
+        + componentNanos
+        + ", moduleNanos="
+        + moduleNanos
+        + ", justInTimeLookupNanos="
+        + justInTimeLookupNanos
+        + ", linkNanos="
+        + linkNanos
+        + '}';
+  }
+}
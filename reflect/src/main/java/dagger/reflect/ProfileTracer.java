@@ -0,0 +1,347 @@
+package dagger.reflect;
+
+import dagger.reflect.Binding.LinkedBinding;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link Tracer} which records the keys each component links and provisions, in the order they
+ * were first used and with the name of the thread which used them. Enabled by setting the {@code
+ * dagger.reflect.profile} system property to the path of a profile file.
+ *
+ * <p>When that file exists on start, each component whose keys it lists has them linked again on a
+ * background thread as soon as it is created. Nothing is provisioned ahead of time. The application
+ * may request a key while it is being linked there. Both threads then link it, and the scope keeps
+ * whichever binding was stored first, so they share the same binding and any scoped instance.
+ *
+ * <p>When the {@code dagger.reflect.profile.instantiate} system property is also {@code true}, the
+ * warm-up instead runs on the thread creating the component, before it is returned. Scoped keys
+ * which were provisioned are then also instantiated, in the order they were first used.
+ *
+ * <p>Keys used during warm-up are recorded with the thread which used them in the profile, so that
+ * they are kept even if they are not used again. The file is replaced by the keys used during this
+ * run when the JVM shuts down or when {@link DaggerReflect#writeProfile()} is called.
+ *
+ * <p>Each line of the file holds the component class, {@code L} for a key which was only linked or
+ * {@code P} for one which was also provisioned, the thread name, and the key, separated by tabs.
+ */
+final class ProfileTracer extends Tracer {
+  private static final String HEADER = "# dagger-reflect profile 1";
+
+  private static final Executor WARM_UP_EXECUTOR =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable, "dagger-reflect-warm-up");
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+
+  static final @Nullable ProfileTracer INSTANCE = create();
+
+  private static @Nullable ProfileTracer create() {
+    String path = System.getProperty("dagger.reflect.profile");
+    if (path == null || path.isEmpty()) {
+      return null;
+    }
+    File file = new File(path);
+    boolean instantiate = Boolean.getBoolean("dagger.reflect.profile.instantiate");
+    final ProfileTracer tracer = new ProfileTracer(file, read(file), instantiate);
+    try {
+      Runtime.getRuntime()
+          .addShutdownHook(
+              new Thread("dagger-reflect-profile") {
+                @Override
+                public void run() {
+                  tracer.write();
+                }
+              });
+    } catch (IllegalStateException | SecurityException ignored) {
+      // Already shutting down or not permitted. The profile can still be written explicitly.
+    }
+    return tracer;
+  }
+
+  private final File file;
+  /** The entries read on start, grouped by the name of their component class. */
+  private final Map<String, List<Entry>> replay;
+
+  private final boolean instantiate;
+  /** The thread which used the key being warmed up on this thread, according to the profile. */
+  private final ThreadLocal<String> profiledThread = new ThreadLocal<>();
+
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  /** The values of {@link #entries} in the order they were first used. */
+  private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+
+  private ProfileTracer(File file, Map<String, List<Entry>> replay, boolean instantiate) {
+    this.file = file;
+    this.replay = replay;
+    this.instantiate = instantiate;
+  }
+
+  @Override
+  LinkedBinding<?> endLink(
+      @Nullable Object token, Scope scope, Key key, int depth, LinkedBinding<?> binding) {
+    String threadName = profiledThread.get();
+    if (threadName == null) {
+      threadName = Thread.currentThread().getName();
+    }
+    Entry entry = record(scope.componentClass().getName(), key.toString(), threadName);
+    if (entry == null || entry.provisioned) {
+      // Nothing left to record, such as for another instance of a component which was used.
+      return binding;
+    }
+    return new RecordingBinding<>(binding, entry);
+  }
+
+  private @Nullable Entry record(String component, String key, String thread) {
+    if (key.indexOf('\t') != -1 || key.indexOf('\n') != -1) {
+      return null; // Cannot be written on a single line.
+    }
+    String id = component + '\t' + key;
+    Entry entry = entries.get(id);
+    if (entry == null) {
+      entry = new Entry(component, key, thread);
+      Entry replaced = entries.putIfAbsent(id, entry);
+      if (replaced != null) {
+        entry = replaced;
+      } else {
+        order.add(entry);
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Link the keys profiled for the component of {@code scope} on a background thread, or link and
+   * instantiate them on this thread when requested.
+   */
+  void warmUp(final Scope scope) {
+    final List<Entry> entries = replay.get(scope.componentClass().getName());
+    if (entries == null) {
+      return;
+    }
+    if (instantiate) {
+      warmUp(scope, entries);
+      return;
+    }
+    WARM_UP_EXECUTOR.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            warmUp(scope, entries);
+          }
+        });
+  }
+
+  private void warmUp(Scope scope, List<Entry> entries) {
+    Map<String, Key> keys = new HashMap<>();
+    for (Scope owner = scope; owner != null; owner = owner.parent()) {
+      for (Key key : owner.bindings().keySet()) {
+        String name = key.toString();
+        if (!keys.containsKey(name)) {
+          keys.put(name, key);
+        }
+      }
+    }
+    ClassLoader classLoader = scope.componentClass().getClassLoader();
+    try {
+      for (Entry entry : entries) {
+        Key key = keys.get(entry.key);
+        if (key == null) {
+          key = justInTimeKey(entry.key, classLoader);
+          if (key == null) {
+            continue;
+          }
+        }
+        profiledThread.set(entry.thread);
+        try {
+          LinkedBinding<?> binding = scope.findBinding(key, null);
+          if (binding == null) {
+            continue;
+          }
+          // Also kept when it was already linked, such as through another component.
+          record(entry.component, entry.key, entry.thread);
+          if (instantiate && entry.provisioned && isScoped(binding)) {
+            binding.get();
+          }
+        } catch (RuntimeException | LinkageError ignored) {
+          // The graph has changed since it was profiled. Any error is thrown again if requested.
+        }
+      }
+    } finally {
+      profiledThread.remove();
+    }
+  }
+
+  /** Only a scoped instance is retained, so instantiating any other binding would be wasted. */
+  private static boolean isScoped(LinkedBinding<?> binding) {
+    while (binding instanceof TracingBinding<?>) {
+      binding = ((TracingBinding<?>) binding).delegate;
+    }
+    return binding instanceof LinkedScopedBinding<?>;
+  }
+
+  /** Keys which are not declared by a scope can only be found again when they name a class. */
+  private static @Nullable Key justInTimeKey(String key, @Nullable ClassLoader classLoader) {
+    if (key.startsWith("@") || key.indexOf('<') != -1 || key.indexOf('[') != -1) {
+      return null;
+    }
+    Type type;
+    try {
+      type = Class.forName(key, false, classLoader);
+    } catch (ClassNotFoundException | LinkageError e) {
+      return null;
+    }
+    return Key.of(null, type);
+  }
+
+  /** Replace the profile file with the keys used so far. */
+  synchronized void write() {
+    File temp = new File(file.getPath() + ".tmp");
+    try {
+      Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8);
+      try {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (Entry entry : order) {
+          writer
+              .append(entry.component)
+              .append('\t')
+              .append(entry.provisioned ? 'P' : 'L')
+              .append('\t')
+              .append(entry.thread.replace('\t', ' ').replace('\n', ' '))
+              .append('\t')
+              .append(entry.key)
+              .append('\n');
+        }
+      } finally {
+        writer.close();
+      }
+    } catch (IOException e) {
+      temp.delete();
+      return;
+    }
+    if (!temp.renameTo(file)) {
+      file.delete();
+      if (!temp.renameTo(file)) {
+        temp.delete();
+      }
+    }
+  }
+
+  private static Map<String, List<Entry>> read(File file) {
+    Map<String, List<Entry>> replay = new LinkedHashMap<>();
+    try {
+      BufferedReader reader =
+          new BufferedReader(
+              new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+      try {
+        if (!HEADER.equals(reader.readLine())) {
+          return Collections.emptyMap();
+        }
+        String line;
+        while ((line = reader.readLine()) != null) {
+          String[] fields = line.split("\t", 4);
+          if (fields.length != 4 || fields[1].length() != 1) {
+            continue;
+          }
+          Entry entry = new Entry(fields[0], fields[3], fields[2]);
+          entry.provisioned = fields[1].charAt(0) == 'P';
+          List<Entry> entries = replay.get(entry.component);
+          //noinspection Java8MapApi Supporting old Android API levels.
+          if (entries == null) {
+            entries = new ArrayList<>();
+            replay.put(entry.component, entries);
+          }
+          entries.add(entry);
+        }
+      } finally {
+        reader.close();
+      }
+    } catch (IOException e) {
+      return Collections.emptyMap(); // Absent or unreadable, so there is nothing to replay.
+    }
+    return replay;
+  }
+
+  private static final class Entry {
+    final String component;
+    final String key;
+    /** The name of the thread which first used the key. */
+    final String thread;
+
+    volatile boolean provisioned;
+
+    Entry(String component, String key, String thread) {
+      this.component = component;
+      this.key = key;
+      this.thread = thread;
+    }
+  }
+
+  /**
+   * A binding which records its first provision. It is only constant once that provision was
+   * recorded, so that a dependent which caches its value cannot skip it.
+   */
+  private static final class RecordingBinding<T> extends TracingBinding<T> {
+    private final Entry entry;
+
+    RecordingBinding(LinkedBinding<T> delegate, Entry entry) {
+      super(delegate);
+      this.entry = entry;
+    }
+
+    @Override
+    public @Nullable T get() {
+      record();
+      return delegate.get();
+    }
+
+    @Override
+    int getInt() {
+      record();
+      return delegate.getInt();
+    }
+
+    @Override
+    long getLong() {
+      record();
+      return delegate.getLong();
+    }
+
+    private void record() {
+      if (!entry.provisioned) {
+        entry.provisioned = true;
+      }
+    }
+
+    @Override
+    boolean isConstant() {
+      return entry.provisioned && delegate.isConstant();
+    }
+  }
+}
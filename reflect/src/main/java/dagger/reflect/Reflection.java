@@ -157,6 +157,28 @@ final class Reflection {
     }
   }
 
+  static void trySetInt(@Nullable Object instance, Field field, int value) {
+    if (!field.isAccessible()) {
+      field.setAccessible(true);
+    }
+    try {
+      field.setInt(instance, value);
+    } catch (IllegalAccessException e) {
+      throw new RuntimeException("Unable to set " + value + " to " + field + " on " + instance, e);
+    }
+  }
+
+  static void trySetLong(@Nullable Object instance, Field field, long value) {
+    if (!field.isAccessible()) {
+      field.setAccessible(true);
+    }
+    try {
+      field.setLong(instance, value);
+    } catch (IllegalAccessException e) {
+      throw new RuntimeException("Unable to set " + value + " to " + field + " on " + instance, e);
+    }
+  }
+
   static @Nullable Object tryInvoke(@Nullable Object instance, Method method, Object... arguments) {
     if (!method.isAccessible()) {
       method.setAccessible(true);
@@ -215,14 +237,48 @@ final class Reflection {
     return types;
   }
 
+  /**
+   * The constructor of the proxy class for each interface. Invoking it directly skips the proxy
+   * class lookup which {@link Proxy#newProxyInstance} performs on every call.
+   */
+  private static final ClassCache<ProxyConstructor> PROXY_CONSTRUCTORS =
+      ClassCache.create(ProxyConstructor::find);
+
   static <T> T newProxy(Class<T> cls, InvocationHandler handler) {
     if (!cls.isInterface()) {
       throw new IllegalArgumentException(
           cls.getCanonicalName() + " is not an interface. Only interfaces are supported.");
     }
+    Constructor<?> constructor = PROXY_CONSTRUCTORS.get(cls).constructor;
+    if (constructor != null) {
+      return cls.cast(tryInstantiate(constructor, handler));
+    }
     return cls.cast(Proxy.newProxyInstance(cls.getClassLoader(), new Class<?>[] {cls}, handler));
   }
 
+  private static final class ProxyConstructor {
+    /** Keep using {@link Proxy#newProxyInstance} for this interface. */
+    static final ProxyConstructor ABSENT = new ProxyConstructor(null);
+
+    @SuppressWarnings("deprecation") // Not deprecated on Android, or in Java 8 which we target.
+    static ProxyConstructor find(Class<?> cls) {
+      try {
+        Constructor<?> constructor =
+            Proxy.getProxyClass(cls.getClassLoader(), cls).getConstructor(InvocationHandler.class);
+        constructor.setAccessible(true);
+        return new ProxyConstructor(constructor);
+      } catch (NoSuchMethodException | RuntimeException ignored) {
+        return ABSENT;
+      }
+    }
+
+    final @Nullable Constructor<?> constructor;
+
+    private ProxyConstructor(@Nullable Constructor<?> constructor) {
+      this.constructor = constructor;
+    }
+  }
+
   static Type boxIfNecessary(Type type) {
     if (type instanceof Class<?>) {
       Class<?> cls = (Class<?>) type;
@@ -37,10 +37,15 @@ final class ReflectiveAndroidInjector<T> implements AndroidInjector<T> {
     @Override
     public AndroidInjector<T> create(T instance) {
       Scope scope =
-          ComponentScopeBuilder.create(moduleClasses, new Class<?>[0], annotations, parent)
+          ComponentScopeBuilder.create(
+                  instanceClass, moduleClasses, new Class<?>[0], annotations, parent)
               .get()
               .addInstance(Key.of(null, instanceClass), instance)
               .build();
+      LeakDetector leaks = LeakDetector.INSTANCE;
+      if (leaks != null) {
+        leaks.track(scope);
+      }
 
       MembersInjector<T> membersInjector = ReflectiveMembersInjector.create(instanceClass, scope);
       return new ReflectiveAndroidInjector<>(membersInjector);
@@ -2,9 +2,11 @@ package dagger.reflect;
 
 import static dagger.reflect.Reflection.findQualifier;
 
+import dagger.Subcomponent;
 import dagger.reflect.Binding.LinkedBinding;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -13,6 +15,10 @@ final class ReflectiveDependencyParser {
   private static final LinkedBinding<?>[] NO_BINDINGS = new LinkedBinding<?>[0];
 
   static void parse(Class<?> cls, Object instance, Scope.Builder scopeBuilder) {
+    // A dependency which is itself a component from this library is bound to that component's own
+    // bindings rather than invoked, which would reflect once to call it and again to handle it.
+    Scope componentScope = ComponentInvocationHandler.findScope(instance);
+
     Set<Key> alreadySeen = new LinkedHashSet<>();
     for (Class<?> target : Reflection.getDistinctTypeHierarchy(cls)) {
       for (Method method : target.getDeclaredMethods()) {
@@ -25,13 +31,30 @@ final class ReflectiveDependencyParser {
         Key key = Key.of(qualifier, type);
 
         if (alreadySeen.add(key)) {
-          Binding binding = new LinkedProvidesBinding<>(instance, method, NO_BINDINGS);
+          Binding binding;
+          if (componentScope != null && isBindingMethod(method)) {
+            binding = new UnlinkedComponentDependencyBinding(componentScope, key, method);
+          } else {
+            binding = new LinkedProvidesBinding<>(instance, method, null, NO_BINDINGS);
+          }
           scopeBuilder.addBinding(key, binding);
         }
       }
     }
   }
 
+  /**
+   * True when a component implements {@code method} by returning its binding for the method's key,
+   * rather than with its own body or by creating a subcomponent.
+   */
+  private static boolean isBindingMethod(Method method) {
+    Class<?> returnType = method.getReturnType();
+    return Modifier.isAbstract(method.getModifiers())
+        && returnType.getAnnotation(Subcomponent.class) == null
+        && returnType.getAnnotation(Subcomponent.Builder.class) == null
+        && returnType.getAnnotation(Subcomponent.Factory.class) == null;
+  }
+
   private ReflectiveDependencyParser() {
     throw new AssertionError();
   }
@@ -16,8 +16,10 @@ final class ReflectiveJustInTimeLookupFactory implements JustInTimeLookup.Factor
       return null; // Qualified types can't be just-in-time satisfied.
     }
 
-    Type type = key.type();
-    return getJustInTimeLookup(type);
+    Object trace = Tracer.INSTANCE.beginJustInTimeLookup();
+    JustInTimeLookup lookup = getJustInTimeLookup(key.type());
+    Tracer.INSTANCE.endJustInTimeLookup(trace, key, lookup != null);
+    return lookup;
   }
 
   private @Nullable <T> JustInTimeLookup getJustInTimeLookup(Type type) {
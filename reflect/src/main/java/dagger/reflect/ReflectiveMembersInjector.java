@@ -15,92 +15,46 @@
  */
 package dagger.reflect;
 
-import static dagger.reflect.Reflection.findQualifier;
 import static dagger.reflect.Reflection.tryInvoke;
 import static dagger.reflect.Reflection.trySet;
+import static dagger.reflect.Reflection.trySetInt;
+import static dagger.reflect.Reflection.trySetLong;
 
 import dagger.MembersInjector;
 import dagger.reflect.Binding.LinkedBinding;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import javax.inject.Inject;
+import org.jetbrains.annotations.Nullable;
 
-final class ReflectiveMembersInjector<T> implements MembersInjector<T> {
-  static <T> MembersInjector<T> create(Class<T> cls, Scope scope) {
+final class ReflectiveMembersInjector<T> implements BatchMembersInjector<T> {
+  static <T> ReflectiveMembersInjector<T> create(Class<T> cls, Scope scope) {
     Deque<ClassInjector<T>> classInjectors = new ArrayDeque<>();
     Class<?> target = cls;
     while (target != Object.class && target != null) {
-      Map<Field, LinkedBinding<?>> fieldBindings = new LinkedHashMap<>();
-      for (Field field : target.getDeclaredFields()) {
-        if (field.getAnnotation(Inject.class) == null) {
-          continue;
-        }
-        if (Modifier.isPrivate(field.getModifiers())) {
-          throw new IllegalArgumentException(
-              "Dagger does not support injection into private fields: "
-                  + target.getCanonicalName()
-                  + "."
-                  + field.getName());
-        }
-        if (Modifier.isStatic(field.getModifiers())) {
-          throw new IllegalArgumentException(
-              "Dagger does not support injection into static fields: "
-                  + target.getCanonicalName()
-                  + "."
-                  + field.getName());
-        }
+      MemberMetadata.InjectedMembers members = MemberMetadata.injectedMembers(target);
 
-        Key key = Key.of(findQualifier(field.getDeclaredAnnotations()), field.getGenericType());
-        LinkedBinding<?> binding = scope.getBinding(key);
-
-        fieldBindings.put(field, binding);
+      Map<Field, LinkedBinding<?>> fieldBindings = new LinkedHashMap<>();
+      for (Field field : members.fields) {
+        fieldBindings.put(field, scope.getBinding(MemberMetadata.fieldKey(field)));
       }
 
       Map<Method, LinkedBinding<?>[]> methodBindings = new LinkedHashMap<>();
-      for (Method method : target.getDeclaredMethods()) {
-        if (method.getAnnotation(Inject.class) == null) {
-          continue;
-        }
-        if (Modifier.isPrivate(method.getModifiers())) {
-          throw new IllegalArgumentException(
-              "Dagger does not support injection into private methods: "
-                  + target.getCanonicalName()
-                  + "."
-                  + method.getName()
-                  + "()");
+      for (Method method : members.methods) {
+        Key[] keys = MemberMetadata.parameters(method).keys;
+        LinkedBinding<?>[] bindings = new LinkedBinding<?>[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+          bindings[i] = scope.getBinding(keys[i]);
         }
-        if (Modifier.isStatic(method.getModifiers())) {
-          throw new IllegalArgumentException(
-              "Dagger does not support injection into static methods: "
-                  + target.getCanonicalName()
-                  + "."
-                  + method.getName()
-                  + "()");
-        }
-        if (Modifier.isAbstract(method.getModifiers())) {
-          throw new IllegalArgumentException(
-              "Methods with @Inject may not be abstract: "
-                  + target.getCanonicalName()
-                  + "."
-                  + method.getName()
-                  + "()");
-        }
-
-        Type[] parameterTypes = method.getGenericParameterTypes();
-        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
-        LinkedBinding<?>[] bindings = new LinkedBinding<?>[parameterTypes.length];
-        for (int i = 0; i < parameterTypes.length; i++) {
-          Key key = Key.of(findQualifier(parameterAnnotations[i]), parameterTypes[i]);
-          bindings[i] = scope.getBinding(key);
-        }
-
         methodBindings.put(method, bindings);
       }
 
@@ -114,22 +68,108 @@ final class ReflectiveMembersInjector<T> implements MembersInjector<T> {
       target = target.getSuperclass();
     }
 
-    return new ReflectiveMembersInjector<>(classInjectors);
+    ReflectiveMembersInjector<T> injector = new ReflectiveMembersInjector<>(classInjectors, null);
+    if (GeneratedFactories.ENABLED && !classInjectors.isEmpty()) {
+      MembersInjector<T> generated = GeneratedFactories.membersInjector(cls, injector);
+      if (generated != null) {
+        return new ReflectiveMembersInjector<>(classInjectors, generated);
+      }
+    }
+    return injector;
   }
 
   private final Iterable<ClassInjector<T>> classInjectors;
+  private final @Nullable MembersInjector<T> generated;
 
-  private ReflectiveMembersInjector(Iterable<ClassInjector<T>> classInjectors) {
+  private ReflectiveMembersInjector(
+      Iterable<ClassInjector<T>> classInjectors, @Nullable MembersInjector<T> generated) {
     this.classInjectors = classInjectors;
+    this.generated = generated;
   }
 
   @Override
   public void injectMembers(T instance) {
+    if (generated != null) {
+      generated.injectMembers(instance);
+      return;
+    }
     for (ClassInjector<T> classInjector : classInjectors) {
       classInjector.injectMembers(instance);
     }
   }
 
+  @Override
+  public void injectAll(Collection<? extends T> instances) {
+    if (instances == null) throw new NullPointerException("instances == null");
+    if (generated != null) {
+      for (T instance : instances) {
+        generated.injectMembers(instance);
+      }
+      return;
+    }
+    for (ClassInjector<T> classInjector : classInjectors) {
+      classInjector.injectAll(instances);
+    }
+  }
+
+  @Override
+  public void injectAll(T[] instances) {
+    if (instances == null) throw new NullPointerException("instances == null");
+    injectAll(Arrays.asList(instances));
+  }
+
+  /** The bindings used to inject fields and methods in the order of their injection. */
+  List<LinkedBinding<?>> dependencies() {
+    List<LinkedBinding<?>> dependencies = new ArrayList<>();
+    for (ClassInjector<T> classInjector : classInjectors) {
+      dependencies.addAll(classInjector.fieldBindings.values());
+      for (LinkedBinding<?>[] bindings : classInjector.methodBindings.values()) {
+        Collections.addAll(dependencies, bindings);
+      }
+    }
+    return dependencies;
+  }
+
+  /** The types requested by each of {@link #dependencies()}. */
+  List<Type> dependencyTypes() {
+    List<Type> types = new ArrayList<>();
+    for (ClassInjector<T> classInjector : classInjectors) {
+      for (Field field : classInjector.fieldBindings.keySet()) {
+        types.add(field.getGenericType());
+      }
+      for (Method method : classInjector.methodBindings.keySet()) {
+        Collections.addAll(types, MemberMetadata.parameters(method).types);
+      }
+    }
+    return types;
+  }
+
+  /**
+   * For each of {@link #dependencies()}, a positive number shared by the requests of the same
+   * class's fields, or of its methods. Reflection does not specify the order within each group.
+   */
+  int[] dependencyGroups() {
+    List<Integer> groups = new ArrayList<>();
+    int group = 0;
+    for (ClassInjector<T> classInjector : classInjectors) {
+      group++;
+      for (int i = 0; i < classInjector.fieldBindings.size(); i++) {
+        groups.add(group);
+      }
+      group++;
+      for (LinkedBinding<?>[] bindings : classInjector.methodBindings.values()) {
+        for (int i = 0; i < bindings.length; i++) {
+          groups.add(group);
+        }
+      }
+    }
+    int[] array = new int[groups.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = groups.get(i);
+    }
+    return array;
+  }
+
   private static final class ClassInjector<T> implements MembersInjector<T> {
     final Map<Field, LinkedBinding<?>> fieldBindings;
     final Map<Method, LinkedBinding<?>[]> methodBindings;
@@ -145,7 +185,15 @@ final class ReflectiveMembersInjector<T> implements MembersInjector<T> {
     public void injectMembers(T instance) {
       // Per JSR 330, fields are injected before methods.
       for (Map.Entry<Field, LinkedBinding<?>> fieldBinding : fieldBindings.entrySet()) {
-        trySet(instance, fieldBinding.getKey(), fieldBinding.getValue().get());
+        Field field = fieldBinding.getKey();
+        LinkedBinding<?> binding = fieldBinding.getValue();
+        if (binding.providesInt() && field.getType() == int.class) {
+          trySetInt(instance, field, binding.getInt());
+        } else if (binding.providesLong() && field.getType() == long.class) {
+          trySetLong(instance, field, binding.getLong());
+        } else {
+          trySet(instance, field, binding.get());
+        }
       }
       for (Map.Entry<Method, LinkedBinding<?>[]> methodBinding : methodBindings.entrySet()) {
         LinkedBinding<?>[] bindings = methodBinding.getValue();
@@ -156,5 +204,54 @@ final class ReflectiveMembersInjector<T> implements MembersInjector<T> {
         tryInvoke(instance, methodBinding.getKey(), arguments);
       }
     }
+
+    /**
+     * Inject each member into all of {@code instances} before the next. Once a binding is constant
+     * its value is reused for the rest of the batch rather than requested again.
+     */
+    void injectAll(Collection<? extends T> instances) {
+      for (Map.Entry<Field, LinkedBinding<?>> fieldBinding : fieldBindings.entrySet()) {
+        Field field = fieldBinding.getKey();
+        LinkedBinding<?> binding = fieldBinding.getValue();
+        if (binding.providesInt() && field.getType() == int.class) {
+          for (T instance : instances) {
+            trySetInt(instance, field, binding.getInt());
+          }
+        } else if (binding.providesLong() && field.getType() == long.class) {
+          for (T instance : instances) {
+            trySetLong(instance, field, binding.getLong());
+          }
+        } else {
+          Object value = null;
+          boolean constant = false;
+          for (T instance : instances) {
+            if (!constant) {
+              value = binding.get();
+              constant = binding.isConstant();
+            }
+            trySet(instance, field, value);
+          }
+        }
+      }
+      for (Map.Entry<Method, LinkedBinding<?>[]> methodBinding : methodBindings.entrySet()) {
+        LinkedBinding<?>[] bindings = methodBinding.getValue();
+        Object[] constantArguments = null;
+        for (T instance : instances) {
+          Object[] arguments = constantArguments;
+          if (arguments == null) {
+            arguments = new Object[bindings.length];
+            boolean constant = true;
+            for (int i = 0; i < bindings.length; i++) {
+              arguments[i] = bindings[i].get();
+              constant &= bindings[i].isConstant();
+            }
+            if (constant) {
+              constantArguments = arguments;
+            }
+          }
+          tryInvoke(instance, methodBinding.getKey(), arguments);
+        }
+      }
+    }
   }
 }
@@ -33,6 +33,7 @@ import org.jetbrains.annotations.Nullable;
 
 final class ReflectiveModuleParser {
   static void parse(Class<?> moduleClass, @Nullable Object instance, Scope.Builder scopeBuilder) {
+    Object trace = Tracer.INSTANCE.beginModule();
     for (Class<?> target : Reflection.getDistinctTypeHierarchy(moduleClass)) {
       for (Method method : target.getDeclaredMethods()) {
         Type returnType = method.getGenericReturnType();
@@ -106,6 +107,7 @@ final class ReflectiveModuleParser {
         }
       }
     }
+    Tracer.INSTANCE.endModule(trace, moduleClass);
   }
 
   private static void addBinding(
@@ -0,0 +1,689 @@
+package dagger.reflect;
+
+import dagger.reflect.GeneratedComponents.Implementation;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Defines implementations of components, builders, and factories at runtime instead of using a
+ * {@link java.lang.reflect.Proxy}. Enabled with the {@code dagger.reflect.runtimeClasses} system
+ * property on the JVM. On Android, or when a class cannot be defined, the proxy is used instead.
+ *
+ * <p>A component implementation has the same shape as the one reflect-compiler generates with
+ * {@code dagger.reflect.generateComponents}: each abstract method reads a slot of {@link
+ * ComponentSlots}. Builders and factories instead invoke their {@link InvocationHandler} with the
+ * method of each slot. Both may be abstract classes and need not be public since the class is
+ * defined in their package.
+ */
+final class RuntimeClasses {
+  static final boolean ENABLED =
+      Boolean.getBoolean("dagger.reflect.runtimeClasses")
+          && !"Dalvik".equals(System.getProperty("java.vm.name"));
+
+  private static final ClassCache<Implementation> HANDLER_IMPLEMENTATIONS =
+      ClassCache.create(
+          cls -> {
+            Implementation implementation = define(cls, "$$ReflectHandler", true);
+            return implementation != null ? implementation : Implementation.ABSENT;
+          });
+  /**
+   * The implementations defined for each class, by suffix. Only accessed while holding the lock of
+   * this class so that concurrent callers never define the same class twice.
+   */
+  private static final ClassCache<Map<String, Implementation>> DEFINED =
+      ClassCache.create(cls -> new HashMap<>());
+
+  /**
+   * Define a subclass of the component {@code cls} whose constructor accepts {@link
+   * ComponentSlots}. Returns null when it cannot be defined.
+   */
+  static @Nullable Implementation defineComponent(Class<?> cls) {
+    return define(cls, "$$ReflectComponent", false);
+  }
+
+  /**
+   * Create an instance of {@code cls} which dispatches its abstract methods to {@code handler}, or
+   * of a proxy when one cannot be defined.
+   */
+  static <T> T newInstance(Class<T> cls, InvocationHandler handler) {
+    if (ENABLED) {
+      Implementation implementation = HANDLER_IMPLEMENTATIONS.get(cls);
+      Constructor<?> constructor = implementation.constructor;
+      if (constructor != null) {
+        return cls.cast(Reflection.tryInstantiate(constructor, handler, implementation.methods));
+      }
+    }
+    return Reflection.newProxy(cls, handler);
+  }
+
+  private static synchronized @Nullable Implementation define(
+      Class<?> cls, String suffix, boolean handler) {
+    Map<String, Implementation> defined = DEFINED.get(cls);
+    Implementation implementation = defined.get(suffix);
+    if (implementation == null) {
+      implementation = defineImplementation(cls, suffix, handler);
+      if (implementation != null) {
+        defined.put(suffix, implementation);
+      }
+    }
+    return implementation;
+  }
+
+  private static @Nullable Implementation defineImplementation(
+      Class<?> cls, String suffix, boolean handler) {
+    if (Modifier.isFinal(cls.getModifiers()) || cls.isPrimitive() || cls.isArray()) {
+      return null;
+    }
+    Constructor<?> superConstructor = null;
+    if (!cls.isInterface()) {
+      try {
+        superConstructor = cls.getDeclaredConstructor();
+      } catch (NoSuchMethodException e) {
+        return null;
+      }
+      if (Modifier.isPrivate(superConstructor.getModifiers())) {
+        return null;
+      }
+    }
+    List<Method> methods = abstractMethods(cls);
+    if (methods == null) {
+      return null;
+    }
+    String name = cls.getName() + suffix;
+    byte[] bytes;
+    try {
+      bytes = new ClassWriter(cls, name, handler).write(methods);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    Class<?> defined = defineClass(cls, name, bytes);
+    if (defined == null) {
+      defined = findDefinedClass(cls, name);
+      if (defined == null) {
+        return null;
+      }
+    }
+    try {
+      Constructor<?> constructor =
+          handler
+              ? defined.getConstructor(InvocationHandler.class, Method[].class)
+              : defined.getConstructor(ComponentSlots.class);
+      return new Implementation(constructor, methods.toArray(new Method[0]));
+    } catch (NoSuchMethodException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * The abstract methods which a subclass of {@code cls} must implement, or null when one of them
+   * cannot be overridden or refers to a type which is not accessible from the package of {@code
+   * cls}.
+   */
+  private static @Nullable List<Method> abstractMethods(Class<?> cls) {
+    // Keyed by name and parameter types. Concrete methods are recorded to hide abstract ones which
+    // they implement. A covariant override is found first when walking up the hierarchy.
+    Map<String, Method> methods = new LinkedHashMap<>();
+    List<Class<?>> interfaces = new ArrayList<>();
+    if (cls.isInterface()) {
+      interfaces.add(cls);
+      collectInterfaces(cls, interfaces);
+    }
+    for (Class<?> type = cls.isInterface() ? Object.class : cls;
+        type != null;
+        type = type.getSuperclass()) {
+      collectInterfaces(type, interfaces);
+      for (Method method : type.getDeclaredMethods()) {
+        if (!Modifier.isStatic(method.getModifiers()) && !method.isSynthetic()) {
+          String key = methodKey(method);
+          if (!methods.containsKey(key)) {
+            methods.put(key, method);
+          }
+        }
+      }
+    }
+    for (Class<?> type : interfaces) {
+      for (Method method : type.getDeclaredMethods()) {
+        if (!Modifier.isStatic(method.getModifiers()) && !method.isSynthetic()) {
+          String key = methodKey(method);
+          Method existing = methods.get(key);
+          if (existing == null
+              || (Modifier.isAbstract(existing.getModifiers())
+                  && existing.getReturnType() != method.getReturnType()
+                  && existing.getReturnType().isAssignableFrom(method.getReturnType()))) {
+            methods.put(key, method);
+          }
+        }
+      }
+    }
+
+    List<Method> result = new ArrayList<>();
+    for (Method method : methods.values()) {
+      if (!Modifier.isAbstract(method.getModifiers())) {
+        continue;
+      }
+      int modifiers = method.getModifiers();
+      if (!Modifier.isPublic(modifiers)
+          && !Modifier.isProtected(modifiers)
+          && !samePackage(method.getDeclaringClass(), cls)) {
+        return null; // A package-private method of another package cannot be overridden.
+      }
+      if (!isAccessible(method.getReturnType(), cls)) {
+        return null;
+      }
+      for (Class<?> parameterType : method.getParameterTypes()) {
+        if (!isAccessible(parameterType, cls)) {
+          return null;
+        }
+      }
+      result.add(method);
+    }
+    return result;
+  }
+
+  private static void collectInterfaces(Class<?> type, List<Class<?>> interfaces) {
+    for (Class<?> implemented : type.getInterfaces()) {
+      if (!interfaces.contains(implemented)) {
+        interfaces.add(implemented);
+        collectInterfaces(implemented, interfaces);
+      }
+    }
+  }
+
+  private static String methodKey(Method method) {
+    StringBuilder key = new StringBuilder(method.getName()).append('(');
+    for (Class<?> parameterType : method.getParameterTypes()) {
+      key.append(descriptor(parameterType));
+    }
+    return key.append(')').toString();
+  }
+
+  /** Mirrors the class access check of the VM which only considers the flags of {@code type}. */
+  private static boolean isAccessible(Class<?> type, Class<?> from) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+    int modifiers = type.getModifiers();
+    return type.isPrimitive()
+        || Modifier.isPublic(modifiers)
+        || Modifier.isProtected(modifiers)
+        || (samePackage(type, from) && type.getClassLoader() == from.getClassLoader());
+  }
+
+  private static boolean samePackage(Class<?> a, Class<?> b) {
+    String aName = a.getName();
+    String bName = b.getName();
+    int aDot = aName.lastIndexOf('.');
+    int bDot = bName.lastIndexOf('.');
+    return aDot == bDot && (aDot == -1 || aName.regionMatches(0, bName, 0, aDot));
+  }
+
+  private static @Nullable Method privateLookupIn;
+  private static @Nullable Method lookupDefineClass;
+  private static @Nullable Method classLoaderDefineClass;
+  private static boolean resolved;
+
+  /** Define {@code bytes} in the package and class loader of {@code host}. */
+  private static @Nullable Class<?> defineClass(Class<?> host, String name, byte[] bytes) {
+    if (!resolved) {
+      resolved = true;
+      try {
+        privateLookupIn =
+            MethodHandles.class.getMethod(
+                "privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        lookupDefineClass = MethodHandles.Lookup.class.getMethod("defineClass", byte[].class);
+      } catch (NoSuchMethodException | NoClassDefFoundError e) {
+        try {
+          // Java 8 has no public API for defining a class in an existing package.
+          Method defineClass =
+              ClassLoader.class.getDeclaredMethod(
+                  "defineClass",
+                  String.class,
+                  byte[].class,
+                  int.class,
+                  int.class,
+                  java.security.ProtectionDomain.class);
+          defineClass.setAccessible(true);
+          classLoaderDefineClass = defineClass;
+        } catch (NoSuchMethodException | RuntimeException ignored) {
+        }
+      }
+    }
+    try {
+      if (privateLookupIn != null && lookupDefineClass != null) {
+        return (Class<?>)
+            lookupDefineClass.invoke(privateLookupIn.invoke(null, host, lookup()), bytes);
+      }
+      ClassLoader classLoader = host.getClassLoader();
+      if (classLoaderDefineClass != null && classLoader != null) {
+        return (Class<?>)
+            classLoaderDefineClass.invoke(
+                classLoader, name, bytes, 0, bytes.length, host.getProtectionDomain());
+      }
+    } catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
+      // Fall back to a proxy.
+    }
+    return null;
+  }
+
+  /**
+   * The class {@code name} when it was already defined in the class loader of {@code host}, since
+   * defining it again fails. Such a failure must not make the caller fall back to a proxy.
+   */
+  private static @Nullable Class<?> findDefinedClass(Class<?> host, String name) {
+    try {
+      return Class.forName(name, false, host.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+  }
+
+  @IgnoreJRERequirement // Only called on the JVM.
+  private static MethodHandles.Lookup lookup() {
+    return MethodHandles.lookup();
+  }
+
+  static String descriptor(Class<?> type) {
+    if (type == void.class) return "V";
+    if (type == boolean.class) return "Z";
+    if (type == byte.class) return "B";
+    if (type == char.class) return "C";
+    if (type == short.class) return "S";
+    if (type == int.class) return "I";
+    if (type == long.class) return "J";
+    if (type == float.class) return "F";
+    if (type == double.class) return "D";
+    if (type.isArray()) return type.getName().replace('.', '/');
+    return 'L' + type.getName().replace('.', '/') + ';';
+  }
+
+  private static String internalName(Class<?> type) {
+    return type.isArray() ? descriptor(type) : type.getName().replace('.', '/');
+  }
+
+  private static String methodDescriptor(Class<?> returnType, Class<?>... parameterTypes) {
+    StringBuilder descriptor = new StringBuilder("(");
+    for (Class<?> parameterType : parameterTypes) {
+      descriptor.append(descriptor(parameterType));
+    }
+    return descriptor.append(')').append(descriptor(returnType)).toString();
+  }
+
+  /**
+   * Writes the class file of an implementation. Method bodies have no branches so no stack map
+   * frames are needed.
+   */
+  private static final class ClassWriter {
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_PROTECTED = 0x0004;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String SLOTS = internalName(ComponentSlots.class);
+    private static final String HANDLER = internalName(InvocationHandler.class);
+    private static final String METHOD = internalName(Method.class);
+
+    private final Class<?> cls;
+    private final String name;
+    private final boolean handler;
+    private final ByteArrayOutputStream constantBytes = new ByteArrayOutputStream();
+    private final DataOutputStream constants = new DataOutputStream(constantBytes);
+    private final Map<String, Integer> constantIndices = new HashMap<>();
+    private int constantCount = 1;
+
+    ClassWriter(Class<?> cls, String name, boolean handler) {
+      this.cls = cls;
+      this.name = name.replace('.', '/');
+      this.handler = handler;
+    }
+
+    byte[] write(List<Method> methods) throws IOException {
+      String superName = cls.isInterface() ? OBJECT : internalName(cls);
+
+      ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+      DataOutputStream body = new DataOutputStream(bodyBytes);
+      body.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC);
+      body.writeShort(classConstant(name));
+      body.writeShort(classConstant(superName));
+      if (cls.isInterface()) {
+        body.writeShort(1);
+        body.writeShort(classConstant(internalName(cls)));
+      } else {
+        body.writeShort(0);
+      }
+
+      if (handler) {
+        body.writeShort(2);
+        writeField(body, "handler", "L" + HANDLER + ";");
+        writeField(body, "methods", "[L" + METHOD + ";");
+      } else {
+        body.writeShort(1);
+        writeField(body, "slots", "L" + SLOTS + ";");
+      }
+
+      body.writeShort(methods.size() + 1);
+      writeConstructor(body, superName);
+      for (int slot = 0; slot < methods.size(); slot++) {
+        writeMethod(body, methods.get(slot), slot);
+      }
+      body.writeShort(0); // Attributes.
+
+      ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(classBytes);
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(52); // Java 8.
+      out.writeShort(constantCount);
+      constantBytes.writeTo(out);
+      bodyBytes.writeTo(out);
+      return classBytes.toByteArray();
+    }
+
+    private void writeField(DataOutputStream out, String fieldName, String descriptor)
+        throws IOException {
+      out.writeShort(ACC_PRIVATE | ACC_FINAL);
+      out.writeShort(utf8(fieldName));
+      out.writeShort(utf8(descriptor));
+      out.writeShort(0);
+    }
+
+    private void writeConstructor(DataOutputStream out, String superName) throws IOException {
+      Code code = new Code();
+      code.op(0x2a); // aload_0
+      code.op(0xb7).u2(methodConstant(superName, "<init>", "()V", false)); // invokespecial
+      if (handler) {
+        code.op(0x2a).op(0x2b); // aload_0, aload_1
+        code.op(0xb5).u2(fieldConstant("handler", "L" + HANDLER + ";")); // putfield
+        code.op(0x2a).op(0x2c); // aload_0, aload_2
+        code.op(0xb5).u2(fieldConstant("methods", "[L" + METHOD + ";")); // putfield
+      } else {
+        code.op(0x2a).op(0x2b); // aload_0, aload_1
+        code.op(0xb5).u2(fieldConstant("slots", "L" + SLOTS + ";")); // putfield
+      }
+      code.op(0xb1); // return
+      String descriptor =
+          handler
+              ? methodDescriptor(void.class, InvocationHandler.class, Method[].class)
+              : methodDescriptor(void.class, ComponentSlots.class);
+      writeCode(out, ACC_PUBLIC, "<init>", descriptor, code, 3, 3);
+    }
+
+    private void writeMethod(DataOutputStream out, Method method, int slot) throws IOException {
+      Class<?>[] parameterTypes = method.getParameterTypes();
+      Class<?> returnType = method.getReturnType();
+      // ComponentSlots returns these primitives without boxing them.
+      String unboxedGetter = null;
+      if (!handler && parameterTypes.length == 0) {
+        if (returnType == int.class) {
+          unboxedGetter = "getInt";
+        } else if (returnType == long.class) {
+          unboxedGetter = "getLong";
+        }
+      }
+      Code code = new Code();
+      if (handler) {
+        code.op(0x2a); // aload_0
+        code.op(0xb4).u2(fieldConstant("handler", "L" + HANDLER + ";")); // getfield
+        code.op(0x2a); // aload_0
+        code.op(0x2a); // aload_0
+        code.op(0xb4).u2(fieldConstant("methods", "[L" + METHOD + ";")); // getfield
+        code.pushInt(slot);
+        code.op(0x32); // aaload
+      } else {
+        code.op(0x2a); // aload_0
+        code.op(0xb4).u2(fieldConstant("slots", "L" + SLOTS + ";")); // getfield
+        code.pushInt(slot);
+      }
+
+      int local = 1;
+      if (parameterTypes.length == 0) {
+        if (handler) {
+          code.op(0x01); // aconst_null, as passed by a proxy.
+        }
+      } else {
+        code.pushInt(parameterTypes.length);
+        code.op(0xbd).u2(classConstant(OBJECT)); // anewarray
+        for (int i = 0; i < parameterTypes.length; i++) {
+          code.op(0x59); // dup
+          code.pushInt(i);
+          local += code.load(parameterTypes[i], local);
+          box(code, parameterTypes[i]);
+          code.op(0x53); // aastore
+        }
+      }
+      if (local > 255) {
+        throw new IOException("Too many parameters: " + method);
+      }
+
+      if (handler) {
+        String descriptor =
+            methodDescriptor(Object.class, Object.class, Method.class, Object[].class);
+        code.op(0xb9).u2(methodConstant(HANDLER, "invoke", descriptor, true)).u1(4).u1(0);
+      } else if (unboxedGetter != null) {
+        String descriptor = methodDescriptor(returnType, int.class);
+        code.op(0xb6).u2(methodConstant(SLOTS, unboxedGetter, descriptor, false)); // invokevirtual
+      } else if (parameterTypes.length == 0) {
+        String descriptor = methodDescriptor(Object.class, int.class);
+        code.op(0xb6).u2(methodConstant(SLOTS, "get", descriptor, false)); // invokevirtual
+      } else {
+        String descriptor = methodDescriptor(Object.class, int.class, Object[].class);
+        code.op(0xb6).u2(methodConstant(SLOTS, "invoke", descriptor, false)); // invokevirtual
+      }
+      if (unboxedGetter != null) {
+        code.op(returnType == long.class ? 0xad : 0xac); // lreturn or ireturn
+      } else {
+        unboxAndReturn(code, returnType);
+      }
+
+      int access = method.getModifiers() & (ACC_PUBLIC | ACC_PROTECTED);
+      String descriptor = methodDescriptor(returnType, parameterTypes);
+      writeCode(out, access, method.getName(), descriptor, code, 10, local);
+    }
+
+    private void box(Code code, Class<?> type) throws IOException {
+      if (type.isPrimitive()) {
+        Class<?> boxed = (Class<?>) Reflection.boxIfNecessary(type);
+        String descriptor = methodDescriptor(boxed, type);
+        code.op(0xb8).u2(methodConstant(internalName(boxed), "valueOf", descriptor, false));
+      }
+    }
+
+    private void unboxAndReturn(Code code, Class<?> type) throws IOException {
+      if (type == void.class) {
+        code.op(0x57).op(0xb1); // pop, return
+      } else if (type.isPrimitive()) {
+        String boxed = internalName((Class<?>) Reflection.boxIfNecessary(type));
+        code.op(0xc0).u2(classConstant(boxed)); // checkcast
+        String unbox = type.getName() + "Value";
+        code.op(0xb6).u2(methodConstant(boxed, unbox, methodDescriptor(type), false));
+        if (type == long.class) {
+          code.op(0xad); // lreturn
+        } else if (type == float.class) {
+          code.op(0xae); // freturn
+        } else if (type == double.class) {
+          code.op(0xaf); // dreturn
+        } else {
+          code.op(0xac); // ireturn
+        }
+      } else {
+        if (type != Object.class) {
+          code.op(0xc0).u2(classConstant(internalName(type))); // checkcast
+        }
+        code.op(0xb0); // areturn
+      }
+    }
+
+    private void writeCode(
+        DataOutputStream out,
+        int access,
+        String methodName,
+        String descriptor,
+        Code code,
+        int maxStack,
+        int maxLocals)
+        throws IOException {
+      out.writeShort(access);
+      out.writeShort(utf8(methodName));
+      out.writeShort(utf8(descriptor));
+      out.writeShort(1);
+      out.writeShort(utf8("Code"));
+      byte[] bytes = code.bytes.toByteArray();
+      out.writeInt(12 + bytes.length);
+      out.writeShort(maxStack);
+      out.writeShort(maxLocals);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+      out.writeShort(0); // Exception table.
+      out.writeShort(0); // Attributes.
+    }
+
+    private int utf8(String value) throws IOException {
+      String key = "U" + value;
+      Integer index = constantIndices.get(key);
+      if (index == null) {
+        constants.writeByte(1);
+        constants.writeUTF(value);
+        index = constantCount++;
+        constantIndices.put(key, index);
+      }
+      return index;
+    }
+
+    private int integer(int value) throws IOException {
+      String key = "I" + value;
+      Integer index = constantIndices.get(key);
+      if (index == null) {
+        constants.writeByte(3);
+        constants.writeInt(value);
+        index = constantCount++;
+        constantIndices.put(key, index);
+      }
+      return index;
+    }
+
+    private int classConstant(String internalName) throws IOException {
+      String key = "C" + internalName;
+      Integer index = constantIndices.get(key);
+      if (index == null) {
+        int nameIndex = utf8(internalName);
+        constants.writeByte(7);
+        constants.writeShort(nameIndex);
+        index = constantCount++;
+        constantIndices.put(key, index);
+      }
+      return index;
+    }
+
+    private int nameAndType(String memberName, String descriptor) throws IOException {
+      String key = "N" + memberName + ' ' + descriptor;
+      Integer index = constantIndices.get(key);
+      if (index == null) {
+        int nameIndex = utf8(memberName);
+        int descriptorIndex = utf8(descriptor);
+        constants.writeByte(12);
+        constants.writeShort(nameIndex);
+        constants.writeShort(descriptorIndex);
+        index = constantCount++;
+        constantIndices.put(key, index);
+      }
+      return index;
+    }
+
+    private int fieldConstant(String fieldName, String descriptor) throws IOException {
+      return memberConstant(9, name, fieldName, descriptor);
+    }
+
+    private int methodConstant(
+        String owner, String methodName, String descriptor, boolean isInterface)
+        throws IOException {
+      return memberConstant(isInterface ? 11 : 10, owner, methodName, descriptor);
+    }
+
+    private int memberConstant(int tag, String owner, String memberName, String descriptor)
+        throws IOException {
+      String key = "M" + tag + owner + '.' + memberName + ' ' + descriptor;
+      Integer index = constantIndices.get(key);
+      if (index == null) {
+        int classIndex = classConstant(owner);
+        int nameAndTypeIndex = nameAndType(memberName, descriptor);
+        constants.writeByte(tag);
+        constants.writeShort(classIndex);
+        constants.writeShort(nameAndTypeIndex);
+        index = constantCount++;
+        constantIndices.put(key, index);
+      }
+      return index;
+    }
+
+    private final class Code {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+      Code op(int opcode) {
+        bytes.write(opcode);
+        return this;
+      }
+
+      Code u1(int value) {
+        bytes.write(value);
+        return this;
+      }
+
+      Code u2(int value) {
+        bytes.write(value >>> 8);
+        bytes.write(value);
+        return this;
+      }
+
+      void pushInt(int value) throws IOException {
+        if (value <= 5) {
+          op(0x03 + value); // iconst_<n>
+        } else if (value <= Byte.MAX_VALUE) {
+          op(0x10).u1(value); // bipush
+        } else if (value <= Short.MAX_VALUE) {
+          op(0x11).u2(value); // sipush
+        } else {
+          op(0x13).u2(integer(value)); // ldc_w
+        }
+      }
+
+      /** Load the parameter of {@code type} at {@code local}, returning the slots it occupies. */
+      int load(Class<?> type, int local) {
+        int opcode;
+        int size = 1;
+        if (type == long.class) {
+          opcode = 0x16; // lload
+          size = 2;
+        } else if (type == double.class) {
+          opcode = 0x18; // dload
+          size = 2;
+        } else if (type == float.class) {
+          opcode = 0x17; // fload
+        } else if (type.isPrimitive()) {
+          opcode = 0x15; // iload
+        } else {
+          opcode = 0x19; // aload
+        }
+        op(opcode).u1(local);
+        return size;
+      }
+    }
+  }
+
+  private RuntimeClasses() {}
+}
@@ -8,31 +8,51 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import javax.inject.Provider;
 import org.jetbrains.annotations.Nullable;
 
 final class Scope {
+  private static final AtomicIntegerFieldUpdater<Scope> DISCARDED_LINKS =
+      AtomicIntegerFieldUpdater.newUpdater(Scope.class, "discardedLinks");
+
+  private final Class<?> componentClass;
   private final ConcurrentHashMap<Key, Binding> bindings;
   private final List<JustInTimeLookup.Factory> jitLookupFactories;
   /** The annotations denoting {@linkplain javax.inject.Scope scoped} bindings for this instance. */
   private final Set<Annotation> annotations;
 
   private final @Nullable Scope parent;
+  /**
+   * A copy of the builder of a component's scope, kept so that the component can be {@linkplain
+   * #fork forked}. Null for the scope of a subcomponent.
+   */
+  private final @Nullable ComponentScopeBuilder source;
+  /** The number of bindings declared when this scope was built, before any just-in-time lookup. */
+  private final int declaredBindings;
+  /** The number of links or lookups which lost a race with another thread and were thrown away. */
+  private volatile int discardedLinks;
 
   private Scope(
+      Class<?> componentClass,
       ConcurrentHashMap<Key, Binding> bindings,
       List<JustInTimeLookup.Factory> jitLookupFactories,
       Set<Annotation> annotations,
-      @Nullable Scope parent) {
+      @Nullable Scope parent,
+      @Nullable ComponentScopeBuilder source) {
+    this.componentClass = componentClass;
     this.bindings = bindings;
     this.jitLookupFactories = jitLookupFactories;
     this.annotations = annotations;
     this.parent = parent;
+    this.source = source;
+    this.declaredBindings = bindings.size();
   }
 
   @Override
@@ -40,6 +60,64 @@ final class Scope {
     return "Scope" + annotations;
   }
 
+  /** The component or subcomponent class whose bindings are held by this scope. */
+  Class<?> componentClass() {
+    return componentClass;
+  }
+
+  Set<Annotation> annotations() {
+    return annotations;
+  }
+
+  @Nullable
+  Scope parent() {
+    return parent;
+  }
+
+  int declaredBindings() {
+    return declaredBindings;
+  }
+
+  int discardedLinks() {
+    return discardedLinks;
+  }
+
+  void recordDiscardedLink() {
+    DISCARDED_LINKS.incrementAndGet(this);
+  }
+
+  /** A live view of the linked and unlinked bindings owned by this scope. For diagnostics only. */
+  Map<Key, Binding> bindings() {
+    return bindings;
+  }
+
+  /**
+   * Create a scope for another instance of this component. Its declarations are built again from
+   * the same modules, instances, and dependencies. It then shares each linked binding of this scope
+   * whose instances cannot differ between the two, as decided by {@link LinkedBinding#isShareable}.
+   * Every other binding starts unlinked in the new scope, or is looked up again, so that each scope
+   * links and creates its own from then on.
+   *
+   * @param componentKey The key of the component, bound to {@code componentBinding} instead.
+   * @throws IllegalStateException if this is the scope of a subcomponent.
+   */
+  Scope fork(Key componentKey, LinkedBinding<?> componentBinding) {
+    ComponentScopeBuilder source = this.source;
+    if (source == null) {
+      throw new IllegalStateException("Only the scope of a component can be forked");
+    }
+    Scope forked = source.get().addBinding(componentKey, componentBinding).build();
+    Map<LinkedBinding<?>, Boolean> known = new IdentityHashMap<>();
+    for (Map.Entry<Key, Binding> entry : bindings.entrySet()) {
+      Binding binding = entry.getValue();
+      if (binding instanceof LinkedBinding<?>
+          && LinkedBinding.isShareable((LinkedBinding<?>) binding, this, known)) {
+        forked.bindings.put(entry.getKey(), binding);
+      }
+    }
+    return forked;
+  }
+
   LinkedBinding<?> getBinding(Key key) {
     LinkedBinding<?> binding = findBinding(key, null);
     if (binding != null) {
@@ -130,10 +208,13 @@ final class Scope {
     }
 
     Binding replaced = bindings.putIfAbsent(key, jitBinding);
-    Binding binding =
-        replaced != null
-            ? replaced // You raced another thread and lost.
-            : jitBinding;
+    Binding binding;
+    if (replaced != null) {
+      binding = replaced; // You raced another thread and lost.
+      recordDiscardedLink();
+    } else {
+      binding = jitBinding;
+    }
 
     return binding instanceof LinkedBinding<?>
         ? (LinkedBinding<?>) binding
@@ -150,20 +231,23 @@ final class Scope {
       // If replace() returned false we raced another thread and lost. Return the winner.
       LinkedBinding<?> race = (LinkedBinding<?>) bindings.get(key);
       if (race == null) throw new AssertionError();
+      recordDiscardedLink();
       return race;
     }
     return linkedBinding;
   }
 
   static final class Builder {
+    private final Class<?> componentClass;
     private final @Nullable Scope parent;
     final Set<Annotation> annotations;
     private final Map<Key, Binding> keyToBinding = new LinkedHashMap<>();
     private final Map<Key, SetBindings> keyToSetBindings = new LinkedHashMap<>();
     private final Map<Key, Map<Object, Binding>> keyToMapBindings = new LinkedHashMap<>();
     private final List<JustInTimeLookup.Factory> jitLookupFactories = new ArrayList<>();
+    private @Nullable ComponentScopeBuilder source;
 
-    Builder(@Nullable Scope parent, Set<Annotation> annotations) {
+    Builder(Class<?> componentClass, @Nullable Scope parent, Set<Annotation> annotations) {
       if (!annotations.isEmpty() && parent != null) {
         if (parent.annotations.isEmpty()) {
           throw new IllegalStateException(
@@ -194,10 +278,20 @@ final class Scope {
           }
         }
       }
+      this.componentClass = componentClass;
       this.parent = parent;
       this.annotations = annotations;
     }
 
+    /**
+     * Keep {@code source} in the built scope so that it can be {@linkplain Scope#fork forked}. Only
+     * used for the scope of a component.
+     */
+    Builder keepSource(ComponentScopeBuilder source) {
+      this.source = source;
+      return this;
+    }
+
     Builder addJustInTimeLookupFactory(JustInTimeLookup.Factory jitLookupFactory) {
       if (jitLookupFactory == null) throw new NullPointerException("jitLookupFactory == null");
       this.jitLookupFactories.add(jitLookupFactory);
@@ -343,7 +437,7 @@ final class Scope {
     }
 
     Builder addInstance(Key key, @Nullable Object instance) {
-      return addBinding(key, new LinkedInstanceBinding<>(instance));
+      return addBinding(key, new LinkedInstanceBinding<>(instance, true));
     }
 
     Scope build() {
@@ -398,7 +492,8 @@ final class Scope {
         }
       }
 
-      return new Scope(allBindings, jitLookupFactories, annotations, parent);
+      return new Scope(
+          componentClass, allBindings, jitLookupFactories, annotations, parent, source);
     }
 
     private static final class SetBindings {
@@ -3,6 +3,7 @@ package dagger.reflect;
 import dagger.reflect.Binding.LinkedBinding;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.inject.Provider;
+import org.jetbrains.annotations.Nullable;
 
 final class ScopeBindingProvider<T> implements Provider<T> {
   private final Scope scope;
@@ -23,11 +24,25 @@ final class ScopeBindingProvider<T> implements Provider<T> {
     if (linked == null) {
       linked = (LinkedBinding<T>) binding.link(new Linker(scope), scope);
 
-      LinkedBinding<T> replaced = linkedRef.getAndSet(linked);
-      if (replaced != null) {
-        linked = replaced; // You raced another thread and lost.
+      if (!linkedRef.compareAndSet(null, linked)) {
+        linked = linkedRef.get(); // You raced another thread and lost.
+        scope.recordDiscardedLink();
       }
     }
     return linked.get();
   }
+
+  /** The linked binding, or null if it has not been requested yet. */
+  @Nullable
+  LinkedBinding<T> linked() {
+    return linkedRef.get();
+  }
+
+  /**
+   * True once the binding has been linked and is {@linkplain LinkedBinding#isConstant constant}.
+   */
+  boolean isConstant() {
+    LinkedBinding<T> linked = linkedRef.get();
+    return linked != null && linked.isConstant();
+  }
 }
@@ -0,0 +1,241 @@
+package dagger.reflect;
+
+import dagger.reflect.Binding.LinkedBinding;
+import dagger.reflect.Tracer.TracingBinding;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The bindings of a component or subcomponent and an estimate of the heap they retain.
+ *
+ * <p>Sizes assume a 64-bit JVM with compressed references and only count the shallow size of each
+ * object. Scoped instances are attributed to the scope which holds them even if they are also
+ * referenced elsewhere, and objects they reference are not included.
+ *
+ * @see DaggerReflect#memory(Object)
+ */
+public final class ScopeMemory {
+  private static final int REFERENCE = 4;
+  private static final int HEADER = 12;
+  private static final int ARRAY_HEADER = 16;
+  private static final int ALIGNMENT = 8;
+  /** A {@link ConcurrentHashMap} itself, without its table. */
+  private static final int MAP = 64;
+  /** A {@link ConcurrentHashMap} entry with its hash, key, value, and next references. */
+  private static final int MAP_ENTRY = 32;
+
+  private static final ClassCache<Long> INSTANCE_SIZES =
+      ClassCache.create(
+          cls -> {
+            long fields = 0;
+            for (Class<?> current = cls; current != null; current = current.getSuperclass()) {
+              for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                  fields += size(field.getType());
+                }
+              }
+            }
+            return align(HEADER + fields);
+          });
+
+  /** Measure {@code scope} and its ancestors, ordered from the root component. */
+  static List<ScopeMemory> of(Scope scope) {
+    List<ScopeMemory> memory = new ArrayList<>();
+    for (Scope ancestor = scope; ancestor != null; ancestor = ancestor.parent()) {
+      memory.add(0, measure(ancestor));
+    }
+    return Collections.unmodifiableList(memory);
+  }
+
+  private static ScopeMemory measure(Scope scope) {
+    Map<Key, Binding> bindings = scope.bindings();
+    int linkedBindings = 0;
+    long bindingTableBytes = MAP + tableSize(bindings.size());
+    long linkedArrayBytes = 0;
+    long scopedInstanceBytes = 0;
+    for (Map.Entry<Key, Binding> entry : bindings.entrySet()) {
+      bindingTableBytes += MAP_ENTRY + shallowSize(entry.getKey());
+      Binding binding = entry.getValue();
+      bindingTableBytes += shallowSize(binding);
+      if (!(binding instanceof LinkedBinding<?>)) {
+        continue;
+      }
+      linkedBindings++;
+
+      LinkedBinding<?> linked = (LinkedBinding<?>) binding;
+      while (linked instanceof TracingBinding<?>) {
+        linked = ((TracingBinding<?>) linked).delegate;
+        bindingTableBytes += shallowSize(linked);
+      }
+      if (linked instanceof LinkedScopedBinding<?>) {
+        if (linked.isConstant()) {
+          Object instance = linked.get();
+          if (instance != null) {
+            scopedInstanceBytes += shallowSize(instance);
+          }
+        }
+        linked = ((LinkedScopedBinding<?>) linked).unscoped();
+        bindingTableBytes += shallowSize(linked);
+      }
+      int dependencies = linked.dependencies().length;
+      if (dependencies > 0) {
+        linkedArrayBytes += align(ARRAY_HEADER + (long) dependencies * REFERENCE);
+      }
+    }
+
+    int handlers = 0;
+    Binding componentBinding = bindings.get(Key.of(null, scope.componentClass()));
+    if (componentBinding instanceof LinkedLateInstanceBinding<?>
+        && ((LinkedLateInstanceBinding<?>) componentBinding).isConstant()) {
+      Object component = ((LinkedLateInstanceBinding<?>) componentBinding).get();
+      handlers = Math.max(0, ComponentInvocationHandler.handlerCount(component));
+    }
+    // Each handler holds at least the binding or scope it dispatches to.
+    long handlerBytes =
+        MAP + tableSize(handlers) + (long) handlers * (MAP_ENTRY + align(HEADER + 2 * REFERENCE));
+
+    return new ScopeMemory(
+        scope.componentClass(),
+        scope.declaredBindings(),
+        linkedBindings,
+        bindings.size() - scope.declaredBindings(),
+        handlers,
+        bindingTableBytes,
+        linkedArrayBytes,
+        handlerBytes,
+        scopedInstanceBytes);
+  }
+
+  /** The size of the table of a {@link ConcurrentHashMap} holding {@code size} entries. */
+  private static long tableSize(int size) {
+    int capacity = 16;
+    while (capacity * 3 / 4 < size) {
+      capacity <<= 1;
+    }
+    return align(ARRAY_HEADER + (long) capacity * REFERENCE);
+  }
+
+  private static long shallowSize(Object instance) {
+    Class<?> cls = instance.getClass();
+    if (cls.isArray()) {
+      return align(ARRAY_HEADER + (long) Array.getLength(instance) * size(cls.getComponentType()));
+    }
+    return INSTANCE_SIZES.get(cls);
+  }
+
+  private static int size(Class<?> type) {
+    if (type == long.class || type == double.class) return 8;
+    if (type == int.class || type == float.class) return 4;
+    if (type == short.class || type == char.class) return 2;
+    if (type == byte.class || type == boolean.class) return 1;
+    return REFERENCE;
+  }
+
+  private static long align(long size) {
+    return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+  }
+
+  private final Class<?> componentClass;
+  private final int declaredBindings;
+  private final int linkedBindings;
+  private final int justInTimeBindings;
+  private final int handlers;
+  private final long bindingTableBytes;
+  private final long linkedArrayBytes;
+  private final long handlerBytes;
+  private final long scopedInstanceBytes;
+
+  private ScopeMemory(
+      Class<?> componentClass,
+      int declaredBindings,
+      int linkedBindings,
+      int justInTimeBindings,
+      int handlers,
+      long bindingTableBytes,
+      long linkedArrayBytes,
+      long handlerBytes,
+      long scopedInstanceBytes) {
+    this.componentClass = componentClass;
+    this.declaredBindings = declaredBindings;
+    this.linkedBindings = linkedBindings;
+    this.justInTimeBindings = justInTimeBindings;
+    this.handlers = handlers;
+    this.bindingTableBytes = bindingTableBytes;
+    this.linkedArrayBytes = linkedArrayBytes;
+    this.handlerBytes = handlerBytes;
+    this.scopedInstanceBytes = scopedInstanceBytes;
+  }
+
+  /** The component or subcomponent class whose bindings are held by this scope. */
+  public Class<?> componentClass() {
+    return componentClass;
+  }
+
+  /** The number of bindings declared by modules, dependencies, and bound instances. */
+  public int declaredBindings() {
+    return declaredBindings;
+  }
+
+  /** The number of declared or just-in-time bindings which have been linked. */
+  public int linkedBindings() {
+    return linkedBindings;
+  }
+
+  /** The number of bindings inserted into this scope by just-in-time lookups. */
+  public int justInTimeBindings() {
+    return justInTimeBindings;
+  }
+
+  /** The number of component methods which have been called and had a handler created. */
+  public int componentMethodHandlers() {
+    return handlers;
+  }
+
+  /** The map of bindings, its keys, and the binding objects themselves. */
+  public long bindingTableBytes() {
+    return bindingTableBytes;
+  }
+
+  /** The arrays of dependencies which linked bindings hold. */
+  public long linkedArrayBytes() {
+    return linkedArrayBytes;
+  }
+
+  /** The handlers created for component methods and the map which holds them. */
+  public long componentMethodHandlerBytes() {
+    return handlerBytes;
+  }
+
+  /** The shallow size of the instances retained by initialized scoped bindings. */
+  public long scopedInstanceBytes() {
+    return scopedInstanceBytes;
+  }
+
+  /** The sum of every estimate. */
+  public long retainedBytes() {
+    return bindingTableBytes + linkedArrayBytes + handlerBytes + scopedInstanceBytes;
+  }
+
+  @Override
+  public String toString() {
+    return "ScopeMemory{component="
+        + componentClass.getName()
+        + ", declaredBindings="
+        + declaredBindings
+        + ", linkedBindings="
+        + linkedBindings
+        + ", justInTimeBindings="
+        + justInTimeBindings
+        + ", componentMethodHandlers="
+        + handlers
+        + ", retainedBytes="
+        + retainedBytes()
+        + '}';
+  }
+}
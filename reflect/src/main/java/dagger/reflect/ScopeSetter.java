@@ -0,0 +1,82 @@
+package dagger.reflect;
+
+/**
+ * What a builder setter or a factory method parameter does with its argument. These are parsed once
+ * per method so that repeated calls do not re-read its parameter types and annotations.
+ */
+abstract class ScopeSetter {
+  static ScopeSetter boundInstance(Key key) {
+    return new BoundInstance(key);
+  }
+
+  static ScopeSetter module(Class<?> cls, String nullMessage, String notRequiredMessage) {
+    return new Module(cls, nullMessage, notRequiredMessage);
+  }
+
+  static ScopeSetter dependency(Class<?> cls, String nullMessage, String notRequiredMessage) {
+    return new Dependency(cls, nullMessage, notRequiredMessage);
+  }
+
+  abstract void set(ComponentScopeBuilder scopeBuilder, Object argument);
+
+  private static final class BoundInstance extends ScopeSetter {
+    private final Key key;
+
+    BoundInstance(Key key) {
+      this.key = key;
+    }
+
+    @Override
+    void set(ComponentScopeBuilder scopeBuilder, Object argument) {
+      scopeBuilder.putBoundInstance(key, argument);
+    }
+  }
+
+  private static final class Module extends ScopeSetter {
+    private final Class<?> cls;
+    private final String nullMessage;
+    private final String notRequiredMessage;
+
+    Module(Class<?> cls, String nullMessage, String notRequiredMessage) {
+      this.cls = cls;
+      this.nullMessage = nullMessage;
+      this.notRequiredMessage = notRequiredMessage;
+    }
+
+    @Override
+    void set(ComponentScopeBuilder scopeBuilder, Object argument) {
+      if (argument == null) {
+        throw new NullPointerException(nullMessage);
+      }
+      try {
+        scopeBuilder.setModule(cls, argument);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalStateException(notRequiredMessage, e);
+      }
+    }
+  }
+
+  private static final class Dependency extends ScopeSetter {
+    private final Class<?> cls;
+    private final String nullMessage;
+    private final String notRequiredMessage;
+
+    Dependency(Class<?> cls, String nullMessage, String notRequiredMessage) {
+      this.cls = cls;
+      this.nullMessage = nullMessage;
+      this.notRequiredMessage = notRequiredMessage;
+    }
+
+    @Override
+    void set(ComponentScopeBuilder scopeBuilder, Object argument) {
+      if (argument == null) {
+        throw new NullPointerException(nullMessage);
+      }
+      try {
+        scopeBuilder.setDependency(cls, argument);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalStateException(notRequiredMessage, e);
+      }
+    }
+  }
+}
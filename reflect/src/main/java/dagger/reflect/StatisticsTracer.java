@@ -0,0 +1,192 @@
+package dagger.reflect;
+
+import dagger.reflect.Binding.LinkedBinding;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link Tracer} which records how long each binding took to link and to provision, along with
+ * the total time spent in each phase of creating graphs.
+ */
+final class StatisticsTracer extends Tracer {
+  static final @Nullable StatisticsTracer INSTANCE =
+      Boolean.getBoolean("dagger.reflect.stats") ? new StatisticsTracer() : null;
+
+  final AtomicLong componentNanos = new AtomicLong();
+  final AtomicLong moduleNanos = new AtomicLong();
+  final AtomicLong justInTimeLookupNanos = new AtomicLong();
+  /** Only counts links which were not requested by another link to avoid counting twice. */
+  final AtomicLong linkNanos = new AtomicLong();
+
+  private StatisticsTracer() {}
+
+  @Override
+  Object beginComponent() {
+    return System.nanoTime();
+  }
+
+  @Override
+  void endComponent(@Nullable Object token, Class<?> componentClass, int moduleCount) {
+    componentNanos.addAndGet(elapsed(token));
+  }
+
+  @Override
+  Object beginModule() {
+    return System.nanoTime();
+  }
+
+  @Override
+  void endModule(@Nullable Object token, Class<?> moduleClass) {
+    moduleNanos.addAndGet(elapsed(token));
+  }
+
+  @Override
+  Object beginLink() {
+    return System.nanoTime();
+  }
+
+  @Override
+  LinkedBinding<?> endLink(
+      @Nullable Object token, Scope scope, Key key, int depth, LinkedBinding<?> binding) {
+    long linkNanos = elapsed(token);
+    if (depth == 0) {
+      this.linkNanos.addAndGet(linkNanos);
+    }
+    return new MeasuredBinding<>(binding, linkNanos);
+  }
+
+  @Override
+  Object beginJustInTimeLookup() {
+    return System.nanoTime();
+  }
+
+  @Override
+  void endJustInTimeLookup(@Nullable Object token, Key key, boolean found) {
+    justInTimeLookupNanos.addAndGet(elapsed(token));
+  }
+
+  private static long elapsed(@Nullable Object token) {
+    if (token == null) throw new NullPointerException("token == null");
+    return System.nanoTime() - (Long) token;
+  }
+
+  /**
+   * A binding which counts its provisions and their total duration. Durations include the time
+   * spent provisioning any dependencies. It also tracks whether every provision returned the same
+   * or an equal instance, which {@link ComponentGraph#toScopingReport()} uses to suggest a scope.
+   */
+  @SuppressWarnings("rawtypes") // Field updaters cannot be created for a parameterized type.
+  static final class MeasuredBinding<T> extends TracingBinding<T> {
+    private static final AtomicLongFieldUpdater<MeasuredBinding> PROVISIONS =
+        AtomicLongFieldUpdater.newUpdater(MeasuredBinding.class, "provisions");
+    private static final AtomicLongFieldUpdater<MeasuredBinding> PROVISION_NANOS =
+        AtomicLongFieldUpdater.newUpdater(MeasuredBinding.class, "provisionNanos");
+
+    final long linkNanos;
+    private volatile long provisions;
+    private volatile long provisionNanos;
+    /** The most recent instance, only held weakly so that it is not retained by diagnostics. */
+    private volatile @Nullable WeakReference<Object> last;
+    /** The most recent value of an {@code int} or {@code long} binding provided unboxed. */
+    private volatile long lastPrimitive;
+
+    private volatile @Nullable Class<?> instanceClass;
+    private volatile boolean sameInstances = true;
+    private volatile boolean equalInstances = true;
+
+    MeasuredBinding(LinkedBinding<T> delegate, long linkNanos) {
+      super(delegate);
+      this.linkNanos = linkNanos;
+    }
+
+    long provisions() {
+      return provisions;
+    }
+
+    long provisionNanos() {
+      return provisionNanos;
+    }
+
+    /** The class of the first non-null instance, or null if none was provisioned. */
+    @Nullable
+    Class<?> instanceClass() {
+      return instanceClass;
+    }
+
+    /** True when every provision so far returned the same instance. */
+    boolean sameInstances() {
+      return sameInstances;
+    }
+
+    /** True when every provision so far returned an instance equal to the one before it. */
+    boolean equalInstances() {
+      return equalInstances;
+    }
+
+    @Override
+    public @Nullable T get() {
+      long start = System.nanoTime();
+      T value = delegate.get();
+      measure(start);
+      compare(value);
+      return value;
+    }
+
+    @Override
+    int getInt() {
+      long start = System.nanoTime();
+      int value = delegate.getInt();
+      compare(value, measure(start));
+      return value;
+    }
+
+    @Override
+    long getLong() {
+      long start = System.nanoTime();
+      long value = delegate.getLong();
+      compare(value, measure(start));
+      return value;
+    }
+
+    /** Returns the number of provisions including this one. */
+    private long measure(long start) {
+      PROVISION_NANOS.addAndGet(this, System.nanoTime() - start);
+      return PROVISIONS.incrementAndGet(this);
+    }
+
+    /** A primitive has no identity, so only whether each value equals the one before counts. */
+    private void compare(long value, long provisions) {
+      sameInstances = false;
+      if (provisions > 1 && value != lastPrimitive) {
+        equalInstances = false;
+      }
+      lastPrimitive = value;
+    }
+
+    private void compare(@Nullable T value) {
+      if (value == null) {
+        return;
+      }
+      WeakReference<Object> last = this.last;
+      Object previous = last != null ? last.get() : null;
+      if (previous == null) {
+        if (instanceClass == null) {
+          instanceClass = value.getClass();
+        } else if (last != null) {
+          // The previous instance was collected, so it was not the same as this one.
+          sameInstances = false;
+        }
+      } else if (previous != value) {
+        sameInstances = false;
+        if (equalInstances && !previous.equals(value)) {
+          equalInstances = false;
+        }
+      }
+      if (previous != value) {
+        this.last = new WeakReference<Object>(value);
+      }
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package dagger.reflect;
+
+import dagger.reflect.Binding.LinkedBinding;
+import dagger.reflect.Tracer.TracingBinding;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Recycles the instances of a subcomponent which requires no arguments to create. A released
+ * subcomponent keeps its linked bindings, but forgets the instances of its scoped bindings and the
+ * multibindings cached from them. Acquiring it again is then much cheaper than building a new one.
+ *
+ * <p>Scoped instances held by the parent and its ancestors are unaffected. A subcomponent, and any
+ * {@code Provider} or {@code Lazy} obtained from it, must not be used after being released.
+ *
+ * @see DaggerReflect#pool(Object, Class, int)
+ */
+public final class SubcomponentPool<S> {
+  /** Receives each scoped instance which a released subcomponent forgets, such as to close it. */
+  public interface Recycler {
+    void discard(Object instance);
+  }
+
+  private final Scope parent;
+  private final Class<S> subcomponentClass;
+  private final int maxIdle;
+  private final @Nullable Recycler recycler;
+  private final ArrayDeque<S> idle = new ArrayDeque<>();
+  private final Set<S> idleInstances = Collections.newSetFromMap(new IdentityHashMap<S, Boolean>());
+  /** The scopes of every subcomponent created by this pool. Guarded by {@link #idle}. */
+  private final Set<Scope> created = Collections.newSetFromMap(new WeakHashMap<Scope, Boolean>());
+
+  SubcomponentPool(
+      Scope parent, Class<S> subcomponentClass, int maxIdle, @Nullable Recycler recycler) {
+    if (maxIdle < 0) {
+      throw new IllegalArgumentException("maxIdle < 0: " + maxIdle);
+    }
+    ComponentScopeBuilder.buildSubcomponent(subcomponentClass, parent); // Fail fast if invalid.
+    this.parent = parent;
+    this.subcomponentClass = subcomponentClass;
+    this.maxIdle = maxIdle;
+    this.recycler = recycler;
+  }
+
+  /** Return an idle subcomponent, or create one when none are idle. */
+  public S acquire() {
+    synchronized (idle) {
+      S subcomponent = idle.pollFirst();
+      if (subcomponent != null) {
+        idleInstances.remove(subcomponent);
+        return subcomponent;
+      }
+    }
+    ComponentScopeBuilder scopeBuilder =
+        ComponentScopeBuilder.buildSubcomponent(subcomponentClass, parent);
+    S subcomponent = ComponentInvocationHandler.create(subcomponentClass, scopeBuilder.get());
+    Scope scope = ComponentInvocationHandler.scopeOf(subcomponent);
+    synchronized (idle) {
+      created.add(scope);
+    }
+    return subcomponent;
+  }
+
+  /**
+   * Forget the scoped instances of {@code subcomponent} and keep it for the next {@link
+   * #acquire()}, unless {@code maxIdle} subcomponents are already idle.
+   *
+   * @throws IllegalArgumentException if {@code subcomponent} was not acquired from this pool.
+   * @throws IllegalStateException if {@code subcomponent} was already released.
+   */
+  public void release(S subcomponent) {
+    Scope scope = ComponentInvocationHandler.findScope(subcomponent);
+    synchronized (idle) {
+      if (scope == null || !created.contains(scope)) {
+        throw new IllegalArgumentException(
+            subcomponent + " was not acquired from this pool of " + subcomponentClass.getName());
+      }
+      if (idleInstances.contains(subcomponent)) {
+        throw new IllegalStateException(subcomponent + " was already released");
+      }
+    }
+
+    Reset reset = new Reset(scope);
+    for (Binding binding : scope.bindings().values()) {
+      if (binding instanceof LinkedBinding<?>) {
+        reset.binding((LinkedBinding<?>) binding, false);
+      }
+    }
+    Recycler recycler = this.recycler;
+    if (recycler != null) {
+      for (Object instance : reset.discarded) {
+        recycler.discard(instance);
+      }
+    }
+
+    synchronized (idle) {
+      if (idle.size() < maxIdle && idleInstances.add(subcomponent)) {
+        idle.addLast(subcomponent);
+      }
+    }
+  }
+
+  /**
+   * Forgets what the bindings owned by a subcomponent's scope retain. Those are the bindings in its
+   * map and the contributions to its multibindings, except for contributions bound with
+   * {@code @Binds} to a binding of an ancestor.
+   */
+  private static final class Reset {
+    private final Scope scope;
+    final List<Object> discarded = new ArrayList<>();
+    private @Nullable Set<Object> ancestorBindings;
+
+    Reset(Scope scope) {
+      this.scope = scope;
+    }
+
+    void binding(LinkedBinding<?> binding, boolean contribution) {
+      while (binding instanceof TracingBinding<?>) {
+        binding = ((TracingBinding<?>) binding).delegate;
+      }
+      if (binding instanceof LinkedScopedBinding<?>) {
+        if (contribution && isOwnedByAncestor(binding)) {
+          return;
+        }
+        Object instance = ((LinkedScopedBinding<?>) binding).clear();
+        if (instance != null) {
+          discarded.add(instance);
+        }
+      } else if (binding instanceof LinkedSetBinding<?>) {
+        ((LinkedSetBinding<?>) binding).clearConstant();
+        for (LinkedBinding<?> element : binding.dependencies()) {
+          binding(element, true);
+        }
+      } else if (binding instanceof LinkedMapOfValueBinding<?, ?>) {
+        ((LinkedMapOfValueBinding<?, ?>) binding).clearConstant();
+      } else if (binding instanceof LinkedInstanceBinding<?>) {
+        Object instance = binding.get();
+        if (instance instanceof Map<?, ?>) {
+          // The providers of a Map<K, Provider<V>> multibinding link its contributions lazily.
+          for (Object value : ((Map<?, ?>) instance).values()) {
+            if (!(value instanceof ScopeBindingProvider<?>)) {
+              break; // Not a multibinding.
+            }
+            LinkedBinding<?> linked = ((ScopeBindingProvider<?>) value).linked();
+            if (linked != null) {
+              binding(linked, true);
+            }
+          }
+        }
+      }
+    }
+
+    private boolean isOwnedByAncestor(LinkedBinding<?> binding) {
+      Set<Object> ancestorBindings = this.ancestorBindings;
+      if (ancestorBindings == null) {
+        ancestorBindings = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (Scope ancestor = scope.parent(); ancestor != null; ancestor = ancestor.parent()) {
+          for (Binding value : ancestor.bindings().values()) {
+            while (value instanceof TracingBinding<?>) {
+              value = ((TracingBinding<?>) value).delegate;
+            }
+            ancestorBindings.add(value);
+          }
+        }
+        this.ancestorBindings = ancestorBindings;
+      }
+      return ancestorBindings.contains(binding);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SubcomponentPool[" + subcomponentClass.getName() + ']';
+  }
+}
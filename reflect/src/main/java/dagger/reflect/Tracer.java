@@ -0,0 +1,236 @@
+package dagger.reflect;
+
+import dagger.reflect.Binding.LinkedBinding;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Observes the expensive phases of creating and using a graph. Each {@code begin} method returns an
+ * opaque token which must be passed to the matching {@code end} method.
+ *
+ * <p>The default instance does nothing. Tracers are enabled with system properties:
+ *
+ * <ul>
+ *   <li>{@code dagger.reflect.jfr} emits JDK Flight Recorder events on JVMs which support it.
+ *   <li>{@code dagger.reflect.stats} records link and provision times for {@link ComponentGraph}.
+ *   <li>{@code dagger.reflect.profile} records the keys used by each component to a file.
+ * </ul>
+ */
+abstract class Tracer {
+  static final Tracer NONE = new Tracer() {};
+  static final Tracer INSTANCE = create();
+
+  private static Tracer create() {
+    List<Tracer> tracers = new ArrayList<>();
+    if (Boolean.getBoolean("dagger.reflect.jfr")) {
+      Tracer jfr = createJfrTracer();
+      if (jfr != null) {
+        tracers.add(jfr);
+      }
+    }
+    if (ProfileTracer.INSTANCE != null) {
+      tracers.add(ProfileTracer.INSTANCE);
+    }
+    // Must be last so that its bindings are the outermost and visible to ComponentGraph.
+    if (StatisticsTracer.INSTANCE != null) {
+      tracers.add(StatisticsTracer.INSTANCE);
+    }
+    switch (tracers.size()) {
+      case 0:
+        return NONE;
+      case 1:
+        return tracers.get(0);
+      default:
+        return new CompositeTracer(tracers.toArray(new Tracer[0]));
+    }
+  }
+
+  /** Returns null when Flight Recorder is unavailable or the library was built without it. */
+  private static @Nullable Tracer createJfrTracer() {
+    try {
+      Class.forName("jdk.jfr.Event");
+      return (Tracer)
+          Class.forName("dagger.reflect.JfrTracer").getDeclaredConstructor().newInstance();
+    } catch (ClassNotFoundException | LinkageError ignored) {
+      return null;
+    } catch (ReflectiveOperationException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Nullable
+  Object beginComponent() {
+    return null;
+  }
+
+  void endComponent(@Nullable Object token, Class<?> componentClass, int moduleCount) {}
+
+  @Nullable
+  Object beginModule() {
+    return null;
+  }
+
+  void endModule(@Nullable Object token, Class<?> moduleClass) {}
+
+  @Nullable
+  Object beginLink() {
+    return null;
+  }
+
+  /**
+   * Called once {@code binding} has been linked for {@code key}. The returned binding will be used
+   * in its place which allows wrapping it in a {@link TracingBinding} to observe its provisions.
+   *
+   * @param scope The scope which requested {@code key}. It may be a descendant of the scope which
+   *     owns the binding.
+   * @param depth The number of keys being linked which transitively requested {@code key}.
+   */
+  LinkedBinding<?> endLink(
+      @Nullable Object token, Scope scope, Key key, int depth, LinkedBinding<?> binding) {
+    return binding;
+  }
+
+  @Nullable
+  Object beginJustInTimeLookup() {
+    return null;
+  }
+
+  void endJustInTimeLookup(@Nullable Object token, Key key, boolean found) {}
+
+  /** A binding which forwards to another in order to observe its provisions. */
+  abstract static class TracingBinding<T> extends LinkedBinding<T> {
+    final LinkedBinding<T> delegate;
+
+    TracingBinding(LinkedBinding<T> delegate) {
+      this.delegate = delegate;
+    }
+
+    /**
+     * Dependents may cache the value of a constant binding, such as in a multibinding collection,
+     * and then stop calling {@link #get()}. Tracing must not change that, so only the first
+     * provisions of a constant binding are observed.
+     */
+    @Override
+    boolean isConstant() {
+      return delegate.isConstant();
+    }
+
+    /** Primitive values stay unboxed while tracing, so each tracer observes them as well. */
+    @Override
+    boolean providesInt() {
+      return delegate.providesInt();
+    }
+
+    @Override
+    abstract int getInt();
+
+    @Override
+    boolean providesLong() {
+      return delegate.providesLong();
+    }
+
+    @Override
+    abstract long getLong();
+
+    @Override
+    boolean isShareable(Scope original, Map<LinkedBinding<?>, Boolean> known) {
+      return isShareable(delegate, original, known);
+    }
+
+    @Override
+    LinkedBinding<?>[] dependencies() {
+      return new LinkedBinding<?>[] {delegate};
+    }
+
+    @Override
+    public String toString() {
+      return delegate.toString();
+    }
+  }
+
+  private static final class CompositeTracer extends Tracer {
+    private final Tracer[] tracers;
+
+    CompositeTracer(Tracer[] tracers) {
+      this.tracers = tracers;
+    }
+
+    @Override
+    Object beginComponent() {
+      Object[] tokens = new Object[tracers.length];
+      for (int i = 0; i < tracers.length; i++) {
+        tokens[i] = tracers[i].beginComponent();
+      }
+      return tokens;
+    }
+
+    @Override
+    void endComponent(@Nullable Object token, Class<?> componentClass, int moduleCount) {
+      Object[] tokens = tokens(token);
+      for (int i = tracers.length - 1; i >= 0; i--) {
+        tracers[i].endComponent(tokens[i], componentClass, moduleCount);
+      }
+    }
+
+    @Override
+    Object beginModule() {
+      Object[] tokens = new Object[tracers.length];
+      for (int i = 0; i < tracers.length; i++) {
+        tokens[i] = tracers[i].beginModule();
+      }
+      return tokens;
+    }
+
+    @Override
+    void endModule(@Nullable Object token, Class<?> moduleClass) {
+      Object[] tokens = tokens(token);
+      for (int i = tracers.length - 1; i >= 0; i--) {
+        tracers[i].endModule(tokens[i], moduleClass);
+      }
+    }
+
+    @Override
+    Object beginLink() {
+      Object[] tokens = new Object[tracers.length];
+      for (int i = 0; i < tracers.length; i++) {
+        tokens[i] = tracers[i].beginLink();
+      }
+      return tokens;
+    }
+
+    @Override
+    LinkedBinding<?> endLink(
+        @Nullable Object token, Scope scope, Key key, int depth, LinkedBinding<?> binding) {
+      Object[] tokens = tokens(token);
+      // Wrap in registration order so that the last tracer's binding is the outermost.
+      for (int i = 0; i < tracers.length; i++) {
+        binding = tracers[i].endLink(tokens[i], scope, key, depth, binding);
+      }
+      return binding;
+    }
+
+    @Override
+    Object beginJustInTimeLookup() {
+      Object[] tokens = new Object[tracers.length];
+      for (int i = 0; i < tracers.length; i++) {
+        tokens[i] = tracers[i].beginJustInTimeLookup();
+      }
+      return tokens;
+    }
+
+    @Override
+    void endJustInTimeLookup(@Nullable Object token, Key key, boolean found) {
+      Object[] tokens = tokens(token);
+      for (int i = tracers.length - 1; i >= 0; i--) {
+        tracers[i].endJustInTimeLookup(tokens[i], key, found);
+      }
+    }
+
+    private static Object[] tokens(@Nullable Object token) {
+      if (token == null) throw new NullPointerException("token == null");
+      return (Object[]) token;
+    }
+  }
+}
@@ -21,4 +21,9 @@ final class UnlinkedAndroidInjectorFactoryBinding extends Binding.UnlinkedBindin
         new ReflectiveAndroidInjector.Factory<>(scope, moduleClasses, instanceClass, annotations);
     return new LinkedInstanceBinding<>(factory);
   }
+
+  @Override
+  public String toString() {
+    return "@ContributesAndroidInjector[" + instanceClass.getName() + ']';
+  }
 }
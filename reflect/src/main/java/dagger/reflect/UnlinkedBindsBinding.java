@@ -1,11 +1,7 @@
 package dagger.reflect;
 
-import static dagger.reflect.Reflection.findQualifier;
-
 import dagger.reflect.Binding.UnlinkedBinding;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.lang.reflect.Type;
 
 final class UnlinkedBindsBinding extends UnlinkedBinding {
   private final Method method;
@@ -16,14 +12,11 @@ final class UnlinkedBindsBinding extends UnlinkedBinding {
 
   @Override
   public LinkedBinding<?> link(Linker linker, Scope scope) {
-    Type[] parameterTypes = method.getGenericParameterTypes();
-    if (parameterTypes.length != 1) {
+    Key[] keys = MemberMetadata.parameters(method).keys;
+    if (keys.length != 1) {
       throw new IllegalArgumentException("@Binds methods must have a single parameter: " + method);
     }
-    Annotation[][] parameterAnnotations = method.getParameterAnnotations();
-    Key dependency = Key.of(findQualifier(parameterAnnotations[0]), parameterTypes[0]);
-
-    return linker.get(dependency);
+    return linker.get(keys[0]);
   }
 
   @Override
@@ -0,0 +1,35 @@
+package dagger.reflect;
+
+import dagger.reflect.Binding.UnlinkedBinding;
+import java.lang.reflect.Method;
+
+/**
+ * A provision method of a component dependency which is itself a component created by this library.
+ * Links to the binding which that component resolves for the method so that each provision calls it
+ * directly.
+ */
+final class UnlinkedComponentDependencyBinding extends UnlinkedBinding {
+  private final Scope componentScope;
+  private final Key key;
+  private final Method method;
+
+  UnlinkedComponentDependencyBinding(Scope componentScope, Key key, Method method) {
+    this.componentScope = componentScope;
+    this.key = key;
+    this.method = method;
+  }
+
+  @Override
+  public LinkedBinding<?> link(Linker linker, Scope scope) {
+    return componentScope.getBinding(key);
+  }
+
+  @Override
+  public String toString() {
+    return "@Component.dependencies["
+        + method.getDeclaringClass().getName()
+        + '.'
+        + method.getName()
+        + "()]";
+  }
+}
@@ -1,10 +1,6 @@
 package dagger.reflect;
 
-import static dagger.reflect.Reflection.findQualifier;
-
-import dagger.MembersInjector;
 import dagger.reflect.Binding.UnlinkedBinding;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -27,20 +23,33 @@ final class UnlinkedJustInTimeBinding<T> extends UnlinkedBinding {
 
   @Override
   public LinkedBinding<?> link(Linker linker, Scope scope) {
-    Type[] parameterTypes = constructor.getGenericParameterTypes();
-    Annotation[][] parameterAnnotations = constructor.getParameterAnnotations();
+    MemberMetadata.Parameters parameters = MemberMetadata.parameters(constructor);
+    Type[] parameterTypes = parameters.types;
 
+    Type[] keyTypes = new Type[parameterTypes.length];
     LinkedBinding<?>[] bindings = new LinkedBinding<?>[parameterTypes.length];
     for (int i = 0; i < parameterTypes.length; i++) {
-      Type parameterType = parameterTypes[i];
-      Key key =
-          Key.of(findQualifier(parameterAnnotations[i]), getTypeKeyForParameter(parameterType));
+      keyTypes[i] = getTypeKeyForParameter(parameterTypes[i]);
+      Key key = parameters.keys[i];
+      if (keyTypes[i] != parameterTypes[i]) {
+        key = Key.of(key.qualifier(), keyTypes[i]);
+      }
       bindings[i] = linker.get(key);
     }
 
-    MembersInjector<T> membersInjector = ReflectiveMembersInjector.create(cls, scope);
+    ReflectiveMembersInjector<T> membersInjector = ReflectiveMembersInjector.create(cls, scope);
+    DirectFactory<T> factory = null;
+    if (GeneratedFactories.ENABLED) {
+      LinkedBinding<T> generated =
+          GeneratedFactories.linkJustInTime(
+              cls, keyTypes, bindings, membersInjector, "@Inject[" + cls.getName() + ".<init>(…)]");
+      if (generated != null) {
+        return generated;
+      }
+      factory = GeneratedFactories.directJustInTime(cls);
+    }
 
-    return new LinkedJustInTimeBinding<>(constructor, bindings, membersInjector);
+    return new LinkedJustInTimeBinding<>(constructor, factory, bindings, membersInjector);
   }
 
   private Type getTypeKeyForParameter(Type parameterType) {
@@ -14,4 +14,9 @@ final class UnlinkedMembersInjectorBinding extends Binding.UnlinkedBinding {
     MembersInjector<?> membersInjector = ReflectiveMembersInjector.create(targetClass, scope);
     return new LinkedInstanceBinding<>(membersInjector);
   }
+
+  @Override
+  public String toString() {
+    return "MembersInjector[" + targetClass.getName() + ']';
+  }
 }
@@ -1,8 +1,5 @@
 package dagger.reflect;
 
-import static dagger.reflect.Reflection.findQualifier;
-
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import org.jetbrains.annotations.Nullable;
@@ -18,14 +15,31 @@ final class UnlinkedProvidesBinding extends Binding.UnlinkedBinding {
 
   @Override
   public LinkedBinding<?> link(Linker linker, Scope scope) {
-    Type[] parameterTypes = method.getGenericParameterTypes();
-    Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+    MemberMetadata.Parameters parameters = MemberMetadata.parameters(method);
+    Type[] parameterTypes = parameters.types;
     LinkedBinding<?>[] dependencies = new LinkedBinding<?>[parameterTypes.length];
     for (int i = 0; i < parameterTypes.length; i++) {
-      Key key = Key.of(findQualifier(parameterAnnotations[i]), parameterTypes[i]);
-      dependencies[i] = linker.get(key);
+      dependencies[i] = linker.get(parameters.keys[i]);
+    }
+    DirectFactory<?> factory = null;
+    if (GeneratedFactories.ENABLED) {
+      LinkedBinding<?> generated =
+          GeneratedFactories.linkProvides(
+              instance, method, parameterTypes, dependencies, toString());
+      if (generated != null) {
+        return generated;
+      }
+      factory = GeneratedFactories.directProvides(method);
+      if (factory instanceof DirectFactory.OfInt) {
+        return new LinkedIntProvidesBinding(
+            instance, method, (DirectFactory.OfInt) factory, dependencies);
+      }
+      if (factory instanceof DirectFactory.OfLong) {
+        return new LinkedLongProvidesBinding(
+            instance, method, (DirectFactory.OfLong) factory, dependencies);
+      }
     }
-    return new LinkedProvidesBinding<>(instance, method, dependencies);
+    return new LinkedProvidesBinding<>(instance, method, factory, dependencies);
   }
 
   @Override
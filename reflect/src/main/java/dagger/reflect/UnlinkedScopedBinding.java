@@ -13,4 +13,9 @@ final class UnlinkedScopedBinding extends UnlinkedBinding {
   public LinkedBinding<?> link(Linker linker, Scope scope) {
     return new LinkedScopedBinding<>(unlinkedBinding.link(linker, scope));
   }
+
+  @Override
+  public String toString() {
+    return "@Scoped[" + unlinkedBinding + ']';
+  }
 }
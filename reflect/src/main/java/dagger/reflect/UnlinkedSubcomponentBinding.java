@@ -29,4 +29,9 @@ final class UnlinkedSubcomponentBinding extends UnlinkedBinding {
     }
     return new LinkedInstanceBinding<>(factory);
   }
+
+  @Override
+  public String toString() {
+    return "@Subcomponent." + (isBuilder ? "Builder[" : "Factory[") + cls.getName() + ']';
+  }
 }
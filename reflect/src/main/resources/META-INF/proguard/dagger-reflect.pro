@@ -0,0 +1,3 @@
+# Flight Recorder events are only loaded when jdk.jfr is present at runtime.
+-dontwarn dagger.reflect.JfrTracer**
+-dontwarn jdk.jfr.**